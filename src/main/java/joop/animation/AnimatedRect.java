@@ -0,0 +1,108 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.awt.Graphics;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import joop.event.mouse.Mouse;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+
+/**
+ * A filled rectangle with a changing area and color, usually given by
+ * {@link Tween}s and a {@link ColorTween}. The adjustment isn't used, because
+ * the area changes with every frame.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given constructor arguments.</p>
+ * @since 0.47
+ */
+public class AnimatedRect implements Shape {
+    /**
+     * The x coordinate of the rect.
+     */
+    private final IntSupplier left;
+
+    /**
+     * The y coordinate of the rect.
+     */
+    private final IntSupplier top;
+
+    /**
+     * The width of the rect.
+     */
+    private final IntSupplier width;
+
+    /**
+     * The height of the rect.
+     */
+    private final IntSupplier height;
+
+    /**
+     * The color of the rect.
+     */
+    private final Supplier<java.awt.Color> color;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor.
+     * @param left The x coordinate of the rect.
+     * @param top The y coordinate of the rect.
+     * @param width The width of the rect.
+     * @param height The height of the rect.
+     * @param color The color of the rect.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public AnimatedRect(
+        final IntSupplier left, final IntSupplier top, final IntSupplier width,
+        final IntSupplier height, final Supplier<java.awt.Color> color
+    ) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.color = color;
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        graphics.setColor(this.color.get());
+        graphics.fillRect(
+            this.left.getAsInt(), this.top.getAsInt(),
+            this.width.getAsInt(), this.height.getAsInt()
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // the rect doesn't react to the mouse
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import unit.color.Color;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A color that moves from one color to another. Its progress is given by a
+ * {@link Tween} from 0 to 1. The intermediate colors are computed once in 256
+ * steps, so that no color is created per frame.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given progress.</p>
+ * @since 0.47
+ */
+public class ColorTween implements Supplier<java.awt.Color> {
+    /**
+     * The amount of precomputed colors.
+     */
+    private static final int STEPS = 256;
+
+    /**
+     * The progress from 0 to 1.
+     */
+    private final DoubleSupplier progress;
+
+    /**
+     * The precomputed colors.
+     */
+    private final Lazy<java.awt.Color[]> steps;
+
+    /**
+     * Ctor.
+     * @param from The first color.
+     * @param to The last color.
+     * @param progress The progress from 0 to 1.
+     */
+    public ColorTween(
+        final Color from, final Color to, final DoubleSupplier progress
+    ) {
+        this.progress = progress;
+        this.steps = new Cached<>(
+            () -> {
+                final int[] first = from.result(
+                    // @checkstyle ParameterName (1 line)
+                    (r, g, b, a) -> new int[] {r, g, b, a}
+                );
+                final int[] last = to.result(
+                    // @checkstyle ParameterName (1 line)
+                    (r, g, b, a) -> new int[] {r, g, b, a}
+                );
+                final var result = new java.awt.Color[ColorTween.STEPS];
+                for (int step = 0; step < result.length; ++step) {
+                    final int[] channels = new int[first.length];
+                    for (int index = 0; index < channels.length; ++index) {
+                        channels[index] = first[index]
+                            + (last[index] - first[index]) * step
+                            / (ColorTween.STEPS - 1);
+                    }
+                    // @checkstyle MagicNumber (3 lines)
+                    result[step] = new java.awt.Color(
+                        channels[0], channels[1], channels[2], channels[3]
+                    );
+                }
+                return result;
+            }
+        );
+    }
+
+    @Override
+    public final java.awt.Color get() {
+        final int step = (int) Math.round(
+            Math.min(1.0, Math.max(0.0, this.progress.getAsDouble()))
+                * (ColorTween.STEPS - 1)
+        );
+        return this.steps.value()[step];
+    }
+}
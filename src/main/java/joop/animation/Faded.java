@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.util.Optional;
+import java.util.function.DoubleSupplier;
+import joop.event.mouse.Mouse;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A shape drawn with a changing opacity. The opacity is given from 0 to 1,
+ * usually by a {@link Tween}. It's multiplied with the alpha of the current
+ * {@link AlphaComposite}, so that faded shapes can be nested. The composites
+ * are computed once in 256 steps, so that no composite is created per frame,
+ * unless the current composite uses another rule than source over.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given constructor arguments.</p>
+ * @since 0.47
+ */
+public class Faded implements Shape {
+    /**
+     * The amount of precomputed composites.
+     */
+    private static final int STEPS = 256;
+
+    /**
+     * The shape to fade.
+     */
+    private final Shape shape;
+
+    /**
+     * The opacity from 0 to 1.
+     */
+    private final DoubleSupplier opacity;
+
+    /**
+     * The precomputed composites.
+     */
+    private final Lazy<AlphaComposite[]> composites;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor.
+     * @param shape The shape to fade.
+     * @param opacity The opacity from 0 to 1.
+     */
+    public Faded(final Shape shape, final DoubleSupplier opacity) {
+        this.shape = shape;
+        this.opacity = opacity;
+        this.composites = new Cached<>(
+            () -> {
+                final var result = new AlphaComposite[Faded.STEPS];
+                for (int step = 0; step < result.length; ++step) {
+                    result[step] = AlphaComposite.getInstance(
+                        AlphaComposite.SRC_OVER,
+                        (float) step / (Faded.STEPS - 1)
+                    );
+                }
+                return result;
+            }
+        );
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        if (graphics instanceof Graphics2D) {
+            final var graphics2d = (Graphics2D) graphics;
+            final var previous = graphics2d.getComposite();
+            double alpha = Math.min(
+                1.0, Math.max(0.0, this.opacity.getAsDouble())
+            );
+            if (previous instanceof AlphaComposite) {
+                alpha *= ((AlphaComposite) previous).getAlpha();
+            }
+            if (previous instanceof AlphaComposite
+                && ((AlphaComposite) previous).getRule()
+                    != AlphaComposite.SRC_OVER) {
+                graphics2d.setComposite(
+                    ((AlphaComposite) previous).derive((float) alpha)
+                );
+            } else {
+                graphics2d.setComposite(
+                    this.composites.value()[
+                        (int) Math.round(alpha * (Faded.STEPS - 1))
+                    ]
+                );
+            }
+            this.shape.draw(graphics, adjustment);
+            graphics2d.setComposite(previous);
+        } else {
+            this.shape.draw(graphics, adjustment);
+        }
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        this.shape.registerFor(mouse);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.awt.Graphics;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import joop.event.mouse.Mouse;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+
+/**
+ * A shape drawn with a changing offset, usually given by two {@link Tween}s.
+ * Only the drawing is moved, the events of the shape stay at its area.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given constructor arguments.</p>
+ * @since 0.47
+ */
+public class Moved implements Shape {
+    /**
+     * The shape to move.
+     */
+    private final Shape shape;
+
+    /**
+     * The horizontal offset.
+     */
+    private final IntSupplier horizontal;
+
+    /**
+     * The vertical offset.
+     */
+    private final IntSupplier vertical;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor.
+     * @param shape The shape to move.
+     * @param horizontal The horizontal offset.
+     * @param vertical The vertical offset.
+     */
+    public Moved(
+        final Shape shape, final IntSupplier horizontal,
+        final IntSupplier vertical
+    ) {
+        this.shape = shape;
+        this.horizontal = horizontal;
+        this.vertical = vertical;
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final int left = this.horizontal.getAsInt();
+        final int top = this.vertical.getAsInt();
+        graphics.translate(left, top);
+        this.shape.draw(graphics, adjustment);
+        graphics.translate(-left, -top);
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        this.shape.registerFor(mouse);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import joop.time.Clock;
+import joop.time.SwingClock;
+
+/**
+ * The shared clock of animations. It reads the time once per frame, so that
+ * every animated value of a frame is evaluated for the same point in time.
+ * It's meant to be the repaint condition of {@link joop.window.BaseWindow}:
+ * Each call of {@link #getAsBoolean()} advances the frame time and tells
+ * whether a new frame is needed. This is only the case while a {@link Tween}
+ * is running and for one last frame to show its final value, so that an idle
+ * window doesn't repaint at all.
+ * <p>This class is mutable and not thread-safe. It's meant to be used on the
+ * event dispatch thread.</p>
+ * @since 0.47
+ */
+public class Timeline implements BooleanSupplier {
+    /**
+     * The source of the time.
+     */
+    private final Clock clock;
+
+    /**
+     * The time of the current frame in nanoseconds.
+     */
+    private long current;
+
+    /**
+     * The time when the last running tween ends in nanoseconds.
+     */
+    private long until;
+
+    /**
+     * Ctor. Uses the real clock.
+     */
+    public Timeline() {
+        this(new SwingClock());
+    }
+
+    /**
+     * Ctor.
+     * @param clock The source of the time.
+     */
+    public Timeline(final Clock clock) {
+        this.clock = clock;
+        this.current = clock.nanos();
+        this.until = this.current;
+    }
+
+    /**
+     * Advances the frame time.
+     * @return True if a tween was running since the previous frame.
+     */
+    @Override
+    public final boolean getAsBoolean() {
+        final long previous = this.current;
+        this.current = this.clock.nanos();
+        return previous - this.until < 0L;
+    }
+
+    /**
+     * Returns the time of the current frame.
+     * @return The time in nanoseconds.
+     */
+    public final long now() {
+        return this.current;
+    }
+
+    /**
+     * Starts a period that runs from now on. The timeline keeps requesting
+     * frames until the period ended.
+     * @param duration The duration of the period in milliseconds.
+     * @return The start of the period in nanoseconds.
+     */
+    public final long start(final long duration) {
+        final long result = this.clock.nanos();
+        final long end = result + TimeUnit.MILLISECONDS.toNanos(duration);
+        if (end - this.until > 0L) {
+            this.until = end;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * A value that moves from one number to another within a duration after it
+ * was started. The value is evaluated for the frame time of the
+ * {@link Timeline}, so that it doesn't allocate and every value of a frame
+ * belongs to the same point in time. It can be used as a coordinate, a size,
+ * an opacity or as the progress of a {@link ColorTween}. Before the start it
+ * has its first value and after the duration it keeps its last value.
+ * <p>This class is mutable and not thread-safe, because it keeps its start.
+ * </p>
+ * @since 0.47
+ */
+public class Tween implements DoubleSupplier, IntSupplier {
+    /**
+     * The timeline with the frame time.
+     */
+    private final Timeline timeline;
+
+    /**
+     * The first value.
+     */
+    private final double from;
+
+    /**
+     * The last value.
+     */
+    private final double to;
+
+    /**
+     * The duration in nanoseconds.
+     */
+    private final long duration;
+
+    /**
+     * The easing of the progress.
+     */
+    private final Easing easing;
+
+    /**
+     * The start in nanoseconds.
+     */
+    private long start;
+
+    /**
+     * Whether the tween was started.
+     */
+    private boolean started;
+
+    /**
+     * Ctor. Uses a linear easing.
+     * @param timeline The timeline with the frame time.
+     * @param from The first value.
+     * @param to The last value.
+     * @param duration The duration in milliseconds.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public Tween(
+        final Timeline timeline, final double from, final double to,
+        final long duration
+    ) {
+        this(timeline, from, to, duration, new Linear());
+    }
+
+    /**
+     * Ctor.
+     * @param timeline The timeline with the frame time.
+     * @param from The first value.
+     * @param to The last value.
+     * @param duration The duration in milliseconds.
+     * @param easing The easing of the progress.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public Tween(
+        final Timeline timeline, final double from, final double to,
+        final long duration, final Easing easing
+    ) {
+        this.timeline = timeline;
+        this.from = from;
+        this.to = to;
+        this.duration = Math.max(1L, TimeUnit.MILLISECONDS.toNanos(duration));
+        this.easing = easing;
+        this.start = 0L;
+        this.started = false;
+    }
+
+    /**
+     * Starts the tween from its first value. A running tween starts again.
+     */
+    public final void start() {
+        this.start = this.timeline.start(
+            TimeUnit.NANOSECONDS.toMillis(this.duration)
+        );
+        this.started = true;
+    }
+
+    /**
+     * Returns whether the tween was started and didn't reach its last value
+     * in the current frame.
+     * @return True if the tween is running.
+     */
+    public final boolean running() {
+        return this.started
+            && this.timeline.now() - this.start < this.duration;
+    }
+
+    @Override
+    public final double getAsDouble() {
+        final double result;
+        if (this.started) {
+            final double progress = Math.min(
+                1.0,
+                Math.max(
+                    0.0,
+                    (double) (this.timeline.now() - this.start)
+                        / this.duration
+                )
+            );
+            result = this.from
+                + (this.to - this.from) * this.easing.apply(progress);
+        } else {
+            result = this.from;
+        }
+        return result;
+    }
+
+    @Override
+    public final int getAsInt() {
+        return (int) Math.round(this.getAsDouble());
+    }
+}
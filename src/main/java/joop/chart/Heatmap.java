@@ -0,0 +1,305 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import joop.event.mouse.Mouse;
+import joop.image.Raster;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A matrix of values shown as colors, one pixel per cell, scaled to its area.
+ * The values are mapped through a {@link Palette} straight into the pixels of
+ * a cached image. Only the cells marked by {@link #update} are mapped again,
+ * large regions in parallel rows.
+ * <p>This class is mutable and not thread-safe. The matrix has to be changed
+ * and updated on the thread that draws the heatmap.</p>
+ * @since 0.47
+ */
+public class Heatmap implements Shape {
+    /**
+     * The amount of cells from which a region is mapped in parallel.
+     */
+    private static final int PARALLEL = 1 << 16;
+
+    /**
+     * The area of the heatmap.
+     */
+    private final Area area;
+
+    /**
+     * The values of the matrix by their index.
+     */
+    private final IntToDoubleFunction values;
+
+    /**
+     * The amount of columns of the matrix.
+     */
+    private final int columns;
+
+    /**
+     * The amount of rows of the matrix.
+     */
+    private final int rows;
+
+    /**
+     * The value mapped to the first color.
+     */
+    private final double low;
+
+    /**
+     * The value mapped to the last color.
+     */
+    private final double high;
+
+    /**
+     * The colors of the values.
+     */
+    private final Palette palette;
+
+    /**
+     * The image with one pixel per cell.
+     */
+    private final Lazy<BufferedImage> cells;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * The left column of the changed region.
+     */
+    private int left;
+
+    /**
+     * The top row of the changed region.
+     */
+    private int top;
+
+    /**
+     * The column after the changed region.
+     */
+    private int right;
+
+    /**
+     * The row after the changed region.
+     */
+    private int bottom;
+
+    /**
+     * Ctor.
+     * @param area The area of the heatmap.
+     * @param matrix The values row by row. Its length must be a positive
+     *  multiple of the columns.
+     * @param columns The amount of columns of the matrix.
+     * @param low The value mapped to the first color.
+     * @param high The value mapped to the last color.
+     * @param palette The colors of the values.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public Heatmap(
+        final Area area, final double[] matrix, final int columns,
+        final double low, final double high, final Palette palette
+    ) {
+        this(
+            area, index -> matrix[index], columns,
+            Heatmap.rows(matrix.length, columns), low, high, palette
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param area The area of the heatmap.
+     * @param matrix The values row by row. Its length must be a positive
+     *  multiple of the columns.
+     * @param columns The amount of columns of the matrix.
+     * @param low The value mapped to the first color.
+     * @param high The value mapped to the last color.
+     * @param palette The colors of the values.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public Heatmap(
+        final Area area, final float[] matrix, final int columns,
+        final double low, final double high, final Palette palette
+    ) {
+        this(
+            area, index -> matrix[index], columns,
+            Heatmap.rows(matrix.length, columns), low, high, palette
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param area The area of the heatmap.
+     * @param values The values of the matrix by their index.
+     * @param columns The amount of columns of the matrix.
+     * @param rows The amount of rows of the matrix.
+     * @param low The value mapped to the first color.
+     * @param high The value mapped to the last color.
+     * @param palette The colors of the values.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Heatmap(
+        final Area area, final IntToDoubleFunction values, final int columns,
+        final int rows, final double low, final double high,
+        final Palette palette
+    ) {
+        this.area = area;
+        this.values = values;
+        this.columns = columns;
+        this.rows = rows;
+        this.low = low;
+        this.high = high;
+        this.palette = palette;
+        this.cells = new Cached<>(
+            () -> new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB)
+        );
+        this.successor = Optional.of(this);
+        this.left = 0;
+        this.top = 0;
+        this.right = columns;
+        this.bottom = rows;
+    }
+
+    /**
+     * Marks changed rows to be mapped again with the next drawing.
+     * @param first The first changed row.
+     * @param last The row after the last changed row.
+     */
+    public final void update(final int first, final int last) {
+        this.update(0, first, this.columns, last - first);
+    }
+
+    /**
+     * Marks a changed region to be mapped again with the next drawing.
+     * @param column The left column of the region.
+     * @param row The top row of the region.
+     * @param width The amount of columns of the region.
+     * @param height The amount of rows of the region.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final void update(
+        final int column, final int row, final int width, final int height
+    ) {
+        if (this.left < this.right) {
+            this.left = Math.min(this.left, column);
+            this.top = Math.min(this.top, row);
+            this.right = Math.max(this.right, column + width);
+            this.bottom = Math.max(this.bottom, row + height);
+        } else {
+            this.left = column;
+            this.top = row;
+            this.right = column + width;
+            this.bottom = row + height;
+        }
+        this.left = Math.max(0, this.left);
+        this.top = Math.max(0, this.top);
+        this.right = Math.min(this.columns, this.right);
+        this.bottom = Math.min(this.rows, this.bottom);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final var image = this.cells.value();
+        if (this.left < this.right && this.top < this.bottom) {
+            this.map(new Raster(image).pixels());
+        }
+        this.left = 0;
+        this.right = 0;
+        this.top = 0;
+        this.bottom = 0;
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, width, height) -> graphics.drawImage(
+                image, x, y, width, height, null
+            )
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Maps the changed region into the pixels.
+     * @param pixels The pixels of the image.
+     */
+    private void map(final int[] pixels) {
+        final int[] colors = this.palette.colors();
+        final double scale = (colors.length - 1) / (this.high - this.low);
+        final int first = this.left;
+        final int last = this.right;
+        final IntStream region = IntStream.range(this.top, this.bottom);
+        final IntStream rowwise;
+        if ((long) (last - first) * (this.bottom - this.top)
+            >= Heatmap.PARALLEL) {
+            rowwise = region.parallel();
+        } else {
+            rowwise = region;
+        }
+        rowwise.forEach(
+            row -> {
+                final int offset = row * this.columns;
+                for (int column = first; column < last; ++column) {
+                    final double index = (this.values.applyAsDouble(
+                        offset + column
+                    ) - this.low) * scale;
+                    pixels[offset + column] = colors[
+                        (int) Math.min(colors.length - 1, Math.max(0.0, index))
+                    ];
+                }
+            }
+        );
+    }
+
+    /**
+     * Returns the amount of rows of a matrix.
+     * @param length The length of the matrix.
+     * @param columns The amount of columns of the matrix.
+     * @return The amount of rows.
+     */
+    private static int rows(final int length, final int columns) {
+        if (columns <= 0 || length <= 0 || length % columns != 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "The length %d isn't a positive multiple of %d columns",
+                    length, columns
+                )
+            );
+        }
+        return length / columns;
+    }
+}
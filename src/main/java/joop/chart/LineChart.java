@@ -0,0 +1,204 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import java.awt.Graphics;
+import java.util.Optional;
+import java.util.function.IntSupplier;
+import joop.event.mouse.Mouse;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.color.Black;
+import unit.color.Color;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A line chart of many samples. The visible samples are decimated by a
+ * {@link Summary} to the minimum and the maximum of each pixel column, which
+ * are drawn as one vertical line per column. So the cost of a frame depends
+ * on the width of the chart and not on the amount of samples. The values are
+ * scaled to the height of the chart from the lowest to the highest visible
+ * value.
+ * <p>This class is mutable and not thread-safe, because it reuses its
+ * buffers for each drawing.</p>
+ * @since 0.47
+ */
+public class LineChart implements Shape {
+    /**
+     * The area of the chart.
+     */
+    private final Area area;
+
+    /**
+     * The summary of the samples.
+     */
+    private final Summary summary;
+
+    /**
+     * The index of the first visible sample.
+     */
+    private final IntSupplier from;
+
+    /**
+     * The index after the last visible sample.
+     */
+    private final IntSupplier until;
+
+    /**
+     * The color of the line.
+     */
+    private final Color color;
+
+    /**
+     * The minima of the columns.
+     */
+    private final Lazy<double[]> low;
+
+    /**
+     * The maxima of the columns.
+     */
+    private final Lazy<double[]> high;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor. Shows all samples in black.
+     * @param area The area of the chart.
+     * @param summary The summary of the samples.
+     */
+    public LineChart(final Area area, final Summary summary) {
+        this(area, summary, () -> 0, summary::count, new Black());
+    }
+
+    /**
+     * Ctor.
+     * @param area The area of the chart.
+     * @param summary The summary of the samples.
+     * @param from The index of the first visible sample.
+     * @param until The index after the last visible sample.
+     * @param color The color of the line.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public LineChart(
+        final Area area, final Summary summary, final IntSupplier from,
+        final IntSupplier until, final Color color
+    ) {
+        this.area = area;
+        this.summary = summary;
+        this.from = from;
+        this.until = until;
+        this.color = color;
+        this.low = new Cached<>(() -> LineChart.columns(area));
+        this.high = new Cached<>(() -> LineChart.columns(area));
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final double[] minima = this.low.value();
+        final double[] maxima = this.high.value();
+        this.summary.decimate(
+            this.from.getAsInt(), this.until.getAsInt(), minima, maxima
+        );
+        graphics.setColor(this.color.result(java.awt.Color::new));
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, width, height) -> LineChart.plot(
+                graphics, x, y, height, minima, maxima
+            )
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Plots the decimated columns. Each column is extended to touch its
+     * previous column, so that the line stays connected.
+     * @param graphics The graphics to draw on.
+     * @param left The x coordinate of the chart.
+     * @param top The y coordinate of the chart.
+     * @param height The height of the chart.
+     * @param minima The minima of the columns.
+     * @param maxima The maxima of the columns.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private static void plot(
+        final Graphics graphics, final int left, final int top,
+        final int height, final double[] minima, final double[] maxima
+    ) {
+        double lowest = Double.POSITIVE_INFINITY;
+        double highest = Double.NEGATIVE_INFINITY;
+        for (int column = 0; column < minima.length; ++column) {
+            lowest = Math.min(lowest, minima[column]);
+            highest = Math.max(highest, maxima[column]);
+        }
+        final double scale;
+        if (highest > lowest) {
+            scale = (height - 1) / (highest - lowest);
+        } else {
+            scale = 0.0;
+        }
+        final int bottom = top + height - 1;
+        int floor = -1;
+        int ceiling = -1;
+        for (int column = 0; column < minima.length; ++column) {
+            if (minima[column] <= maxima[column]) {
+                int lower = bottom
+                    - (int) Math.round((minima[column] - lowest) * scale);
+                int upper = bottom
+                    - (int) Math.round((maxima[column] - lowest) * scale);
+                if (floor >= 0) {
+                    lower = Math.max(lower, ceiling);
+                    upper = Math.min(upper, floor);
+                }
+                graphics.drawLine(
+                    left + column, upper, left + column, lower
+                );
+                floor = lower;
+                ceiling = upper;
+            }
+        }
+    }
+
+    /**
+     * Creates a buffer with one value per pixel column.
+     * @param area The area of the chart.
+     * @return The buffer.
+     */
+    private static double[] columns(final Area area) {
+        return area.result(
+            (pos, size) -> size.result((width, height) -> new double[width])
+        );
+    }
+}
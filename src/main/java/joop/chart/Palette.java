@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import unit.color.Color;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A lookup table of 256 ARGB colors, running evenly through the given
+ * colors. It maps values to colors without creating a color per value.
+ * <p>This class is immutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class Palette {
+    /**
+     * The amount of colors in the table.
+     */
+    private static final int SIZE = 256;
+
+    /**
+     * The table of colors.
+     */
+    private final Lazy<int[]> table;
+
+    /**
+     * Ctor.
+     * @param stops The colors to run through, at least two.
+     */
+    public Palette(final Color... stops) {
+        if (stops.length < 2) {
+            throw new IllegalArgumentException(
+                String.format("%d colors are too few", stops.length)
+            );
+        }
+        this.table = new Cached<>(() -> Palette.build(stops));
+    }
+
+    /**
+     * Returns the ARGB color of a value.
+     * @param value The value from 0 to 1.
+     * @return The ARGB color.
+     */
+    public final int argb(final double value) {
+        return this.colors()[
+            (int) (Math.min(1.0, Math.max(0.0, value)) * (Palette.SIZE - 1))
+        ];
+    }
+
+    /**
+     * Returns the table. It must not be changed.
+     * @return The ARGB colors.
+     */
+    final int[] colors() {
+        return this.table.value();
+    }
+
+    /**
+     * Builds the table.
+     * @param stops The colors to run through.
+     * @return The ARGB colors.
+     */
+    private static int[] build(final Color... stops) {
+        final int[][] channels = new int[stops.length][];
+        for (int stop = 0; stop < stops.length; ++stop) {
+            channels[stop] = stops[stop].result(
+                // @checkstyle ParameterName (1 line)
+                (r, g, b, a) -> new int[] {a, r, g, b}
+            );
+        }
+        final int[] result = new int[Palette.SIZE];
+        final int sections = stops.length - 1;
+        for (int index = 0; index < result.length; ++index) {
+            final double position = (double) index * sections
+                / (Palette.SIZE - 1);
+            final int section = Math.min(sections - 1, (int) position);
+            final double ratio = position - section;
+            int argb = 0;
+            for (int channel = 0; channel < channels[section].length;
+                ++channel) {
+                final int first = channels[section][channel];
+                final int value = (int) Math.round(
+                    first + (channels[section + 1][channel] - first) * ratio
+                );
+                // @checkstyle MagicNumber (1 line)
+                argb = argb << 8 | value;
+            }
+            result[index] = argb;
+        }
+        return result;
+    }
+}
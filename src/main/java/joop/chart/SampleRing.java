@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A ring of samples written by one producer thread and read by one consumer
+ * thread without locks. The producer never waits: when the ring is full, the
+ * oldest samples are overwritten. The consumer copies a window of samples
+ * and learns whether the producer overwrote it in the meantime.
+ * <p>This class is mutable and thread-safe for one producer and one
+ * consumer.</p>
+ * @since 0.47
+ */
+public class SampleRing {
+    /**
+     * The samples.
+     */
+    private final double[] samples;
+
+    /**
+     * The mask of an index into the samples.
+     */
+    private final int mask;
+
+    /**
+     * The amount of samples written so far.
+     */
+    private final AtomicLong written;
+
+    /**
+     * Ctor.
+     * @param capacity The minimum amount of kept samples. It's rounded up to
+     *  a power of two.
+     */
+    public SampleRing(final int capacity) {
+        final int length = Math.max(
+            1, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1
+        );
+        this.samples = new double[length];
+        this.mask = length - 1;
+        this.written = new AtomicLong();
+    }
+
+    /**
+     * Appends a sample. Only one thread may append.
+     * @param sample The sample.
+     */
+    public final void append(final double sample) {
+        final long index = this.written.get();
+        this.samples[(int) index & this.mask] = sample;
+        this.written.lazySet(index + 1L);
+    }
+
+    /**
+     * Returns the amount of samples written so far.
+     * @return The amount.
+     */
+    public final long written() {
+        return this.written.get();
+    }
+
+    /**
+     * Copies the samples before the given end. The end must not be greater
+     * than {@link #written()}.
+     * @param end The amount of samples written before the window.
+     * @param target The array to copy to.
+     * @param count The amount of samples to copy.
+     * @return True if the copied samples weren't overwritten.
+     */
+    public final boolean copy(
+        final long end, final double[] target, final int count
+    ) {
+        final long start = end - count;
+        for (int index = 0; index < count; ++index) {
+            target[index] = this.samples[(int) (start + index) & this.mask];
+        }
+        // the reads of the samples must not move after the recheck below
+        VarHandle.acquireFence();
+        return start >= 0L
+            && this.written.get() - this.samples.length < start;
+    }
+}
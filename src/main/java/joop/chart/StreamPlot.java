@@ -0,0 +1,229 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+import joop.event.mouse.Mouse;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.color.Black;
+import unit.color.Color;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A live plot of the latest samples of a {@link SampleRing}, one sample per
+ * pixel column with the newest one on the right. The plot is kept in an
+ * image that scrolls: new samples move the old content to the left and only
+ * the new slice is drawn. If the producer overwrote samples that weren't
+ * drawn yet, the whole plot is drawn again. {@link #fresh()} can be the
+ * repaint condition of a window, so that it only repaints when new samples
+ * arrived.
+ * <p>This class is mutable and not thread-safe. It has to be drawn on one
+ * thread, while another thread may append to the ring.</p>
+ * @since 0.47
+ */
+public class StreamPlot implements Shape {
+    /**
+     * The area of the plot.
+     */
+    private final Area area;
+
+    /**
+     * The ring of samples.
+     */
+    private final SampleRing ring;
+
+    /**
+     * The sample at the bottom of the plot.
+     */
+    private final double low;
+
+    /**
+     * The sample at the top of the plot.
+     */
+    private final double high;
+
+    /**
+     * The color of the line.
+     */
+    private final Color color;
+
+    /**
+     * The image with the plot.
+     */
+    private final Lazy<BufferedImage> layer;
+
+    /**
+     * The graphics of the image.
+     */
+    private final Lazy<Graphics2D> pen;
+
+    /**
+     * The copied samples.
+     */
+    private final Lazy<double[]> window;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * The amount of samples written when the plot was drawn.
+     */
+    private long drawn;
+
+    /**
+     * Ctor. Creates a black plot.
+     * @param area The area of the plot.
+     * @param ring The ring of samples.
+     * @param low The sample at the bottom of the plot.
+     * @param high The sample at the top of the plot.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public StreamPlot(
+        final Area area, final SampleRing ring, final double low,
+        final double high
+    ) {
+        this(area, ring, low, high, new Black());
+    }
+
+    /**
+     * Ctor.
+     * @param area The area of the plot.
+     * @param ring The ring of samples.
+     * @param low The sample at the bottom of the plot.
+     * @param high The sample at the top of the plot.
+     * @param color The color of the line.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public StreamPlot(
+        final Area area, final SampleRing ring, final double low,
+        final double high, final Color color
+    ) {
+        this.area = area;
+        this.ring = ring;
+        this.low = low;
+        this.high = high;
+        this.color = color;
+        this.layer = new Cached<>(
+            () -> area.result(
+                (pos, size) -> size.result(
+                    (width, height) -> new BufferedImage(
+                        width, height, BufferedImage.TYPE_INT_ARGB
+                    )
+                )
+            )
+        );
+        this.pen = new Cached<>(() -> this.layer.value().createGraphics());
+        this.window = new Cached<>(
+            () -> new double[this.layer.value().getWidth() + 1]
+        );
+        this.successor = Optional.of(this);
+        this.drawn = 0L;
+    }
+
+    /**
+     * Returns whether samples arrived since the plot was drawn.
+     * @return True if the plot has to be drawn again.
+     */
+    public final boolean fresh() {
+        return this.ring.written() != this.drawn;
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final long end = this.ring.written();
+        if (end != this.drawn) {
+            this.scroll(end);
+            this.drawn = end;
+        }
+        final var image = this.layer.value();
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, width, height) -> graphics.drawImage(image, x, y, null)
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Scrolls the plot to the given end and draws the new slice.
+     * @param end The amount of samples written.
+     */
+    private void scroll(final long end) {
+        final var image = this.layer.value();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final double[] samples = this.window.value();
+        final var graphics = this.pen.value();
+        int shift = (int) Math.min(end - this.drawn, width);
+        int count = (int) Math.min(shift + 1L, end);
+        if (shift < width && this.ring.copy(end, samples, count)) {
+            graphics.copyArea(shift, 0, width - shift, height, -shift, 0);
+        } else {
+            shift = width;
+            count = (int) Math.min(width, end);
+            if (!this.ring.copy(end, samples, count)) {
+                count = 0;
+            }
+        }
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(width - shift, 0, shift, height);
+        graphics.setComposite(AlphaComposite.SrcOver);
+        graphics.setColor(this.color.result(java.awt.Color::new));
+        final double scale = (height - 1) / (this.high - this.low);
+        int previous = this.row(samples[0], scale, height);
+        int before = width - count;
+        for (int index = 0; index < count; ++index) {
+            final int row = this.row(samples[index], scale, height);
+            final int column = width - count + index;
+            graphics.drawLine(before, previous, column, row);
+            previous = row;
+            before = column;
+        }
+    }
+
+    /**
+     * Returns the row of a sample.
+     * @param sample The sample.
+     * @param scale The pixels per sample unit.
+     * @param height The height of the plot.
+     * @return The row.
+     */
+    private int row(final double sample, final double scale, final int height) {
+        return height - 1 - (int) Math.round((sample - this.low) * scale);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * The minima and maxima of samples at several resolutions. Each level halves
+ * the previous one, so that the minimum and the maximum of any range of
+ * samples is found in logarithmic time. This makes decimating millions of
+ * samples to one pair per pixel column cheap for every zoom.
+ * <p>This class doesn't change its own state. The samples aren't copied, so
+ * they must not be changed after the first query.</p>
+ * @since 0.47
+ */
+public class Summary {
+    /**
+     * The samples.
+     */
+    private final double[] samples;
+
+    /**
+     * The minima of each level above the samples.
+     */
+    private final Lazy<double[][]> minima;
+
+    /**
+     * The maxima of each level above the samples.
+     */
+    private final Lazy<double[][]> maxima;
+
+    /**
+     * Ctor.
+     * @param samples The samples.
+     */
+    public Summary(final double... samples) {
+        this.samples = samples;
+        this.minima = new Cached<>(() -> Summary.levels(samples, true));
+        this.maxima = new Cached<>(() -> Summary.levels(samples, false));
+    }
+
+    /**
+     * Returns the amount of samples.
+     * @return The amount.
+     */
+    public final int count() {
+        return this.samples.length;
+    }
+
+    /**
+     * Decimates a range of samples into columns. Each column gets the
+     * minimum and the maximum of its part of the range. A column without
+     * samples gets positive infinity as minimum and negative infinity as
+     * maximum.
+     * @param from The index of the first sample.
+     * @param until The index after the last sample.
+     * @param low The minima of the columns.
+     * @param high The maxima of the columns.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public final void decimate(
+        final int from, final int until, final double[] low, final double[] high
+    ) {
+        final long span = Math.max(0, until - from);
+        final int columns = low.length;
+        for (int column = 0; column < columns; ++column) {
+            final int first = from + (int) (span * column / columns);
+            final int last = from + (int) (span * (column + 1) / columns);
+            low[column] = this.extreme(first, last, true);
+            high[column] = this.extreme(first, last, false);
+        }
+    }
+
+    /**
+     * Returns the minimum or the maximum of a range of samples.
+     * @param from The index of the first sample.
+     * @param until The index after the last sample.
+     * @param minimum Whether the minimum is searched instead of the maximum.
+     * @return The extreme or an infinity if the range is empty.
+     */
+    private double extreme(
+        final int from, final int until, final boolean minimum
+    ) {
+        final double[][] levels;
+        double result;
+        if (minimum) {
+            levels = this.minima.value();
+            result = Double.POSITIVE_INFINITY;
+        } else {
+            levels = this.maxima.value();
+            result = Double.NEGATIVE_INFINITY;
+        }
+        int first = Math.max(0, from);
+        int last = Math.min(this.samples.length, until);
+        double[] values = this.samples;
+        int level = 0;
+        while (first < last) {
+            if ((first & 1) == 1) {
+                result = Summary.better(result, values[first], minimum);
+                ++first;
+            }
+            if ((last & 1) == 1) {
+                --last;
+                result = Summary.better(result, values[last], minimum);
+            }
+            first >>= 1;
+            last >>= 1;
+            if (first < last) {
+                values = levels[level];
+                ++level;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the better of two values.
+     * @param current The current value.
+     * @param candidate The candidate.
+     * @param minimum Whether the smaller value is better.
+     * @return The better value.
+     */
+    private static double better(
+        final double current, final double candidate, final boolean minimum
+    ) {
+        final double result;
+        if (minimum) {
+            result = Math.min(current, candidate);
+        } else {
+            result = Math.max(current, candidate);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the levels above the samples until a level has one value.
+     * @param samples The samples.
+     * @param minimum Whether the minima are computed instead of the maxima.
+     * @return The levels.
+     */
+    private static double[][] levels(
+        final double[] samples, final boolean minimum
+    ) {
+        int amount = 0;
+        for (int length = samples.length; length > 1;
+            length = (length + 1) / 2) {
+            ++amount;
+        }
+        final double[][] result = new double[amount][];
+        double[] below = samples;
+        for (int level = 0; level < amount; ++level) {
+            final double[] current = new double[(below.length + 1) / 2];
+            for (int index = 0; index < current.length; ++index) {
+                double value = below[index * 2];
+                if (index * 2 + 1 < below.length) {
+                    value = Summary.better(
+                        value, below[index * 2 + 1], minimum
+                    );
+                }
+                current[index] = value;
+            }
+            result[level] = current;
+            below = current;
+        }
+        return result;
+    }
+}
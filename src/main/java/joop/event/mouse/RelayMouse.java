@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.event.mouse;
+
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A mouse that isn't bound to a component. The registered listeners get the
+ * events that are relayed to it, for example mouse input from a remote
+ * client. This way shapes can use the same events as with a
+ * {@link DelegationMouse}.
+ * <p>This class is mutable and thread-safe, because the listeners are kept in
+ * concurrent collections. The listeners are called on the relaying thread.
+ * </p>
+ * @since 0.47
+ */
+public class RelayMouse implements Mouse {
+    /**
+     * The registered mouse listeners.
+     */
+    private final Collection<MouseListener> buttons;
+
+    /**
+     * The registered mouse motion listeners.
+     */
+    private final Collection<MouseMotionListener> motions;
+
+    /**
+     * The registered mouse wheel listeners.
+     */
+    private final Collection<MouseWheelListener> wheels;
+
+    /**
+     * Ctor.
+     */
+    public RelayMouse() {
+        this.buttons = new CopyOnWriteArrayList<>();
+        this.motions = new CopyOnWriteArrayList<>();
+        this.wheels = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public final void register(final MouseListener target) {
+        this.buttons.add(target);
+    }
+
+    @Override
+    public final void register(final MouseMotionListener target) {
+        this.motions.add(target);
+    }
+
+    @Override
+    public final void register(final MouseWheelListener target) {
+        this.wheels.add(target);
+    }
+
+    /**
+     * Gives the event to the listeners that are registered for its type.
+     * @param event The event to relay.
+     * @checkstyle CyclomaticComplexity (40 lines)
+     */
+    public final void relay(final MouseEvent event) {
+        switch (event.getID()) {
+            case MouseEvent.MOUSE_PRESSED:
+                this.buttons.forEach(target -> target.mousePressed(event));
+                break;
+            case MouseEvent.MOUSE_RELEASED:
+                this.buttons.forEach(target -> target.mouseReleased(event));
+                break;
+            case MouseEvent.MOUSE_CLICKED:
+                this.buttons.forEach(target -> target.mouseClicked(event));
+                break;
+            case MouseEvent.MOUSE_ENTERED:
+                this.buttons.forEach(target -> target.mouseEntered(event));
+                break;
+            case MouseEvent.MOUSE_EXITED:
+                this.buttons.forEach(target -> target.mouseExited(event));
+                break;
+            case MouseEvent.MOUSE_MOVED:
+                this.motions.forEach(target -> target.mouseMoved(event));
+                break;
+            case MouseEvent.MOUSE_DRAGGED:
+                this.motions.forEach(target -> target.mouseDragged(event));
+                break;
+            case MouseEvent.MOUSE_WHEEL:
+                this.wheels.forEach(
+                    target -> target.mouseWheelMoved((MouseWheelEvent) event)
+                );
+                break;
+            default:
+                throw new IllegalArgumentException(
+                    String.join(
+                        "",
+                        "Unknown mouse event: ",
+                        Integer.toString(event.getID())
+                    )
+                );
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * An encoding of the images as an endlessly looping animated gif file. The
+ * file is opened with the first image and completed by {@link #close()}.
+ * Images after {@link #close()} are rejected.
+ * <p>This class is mutable and not thread-safe, because it writes into an
+ * open file.</p>
+ * @since 0.47
+ */
+public class AnimatedGif implements Encoding {
+    /**
+     * The name of the native gif image metadata format.
+     */
+    private static final String FORMAT = "javax_imageio_gif_image_1.0";
+
+    /**
+     * The milliseconds per hundredth of a second, which is the unit of the
+     * delay in a gif.
+     */
+    private static final int HUNDREDTH = 10;
+
+    /**
+     * The file to write to.
+     */
+    private final File file;
+
+    /**
+     * The delay between the images in milliseconds.
+     */
+    private final int delay;
+
+    /**
+     * The writer of the gif. It exists from the first image until
+     * {@link #close()}.
+     */
+    private ImageWriter writer;
+
+    /**
+     * The opened output of the file.
+     */
+    private ImageOutputStream output;
+
+    /**
+     * The metadata of the first image, containing the delay and the endless
+     * loop.
+     */
+    private IIOMetadata first;
+
+    /**
+     * The metadata of the other images, containing the delay.
+     */
+    private IIOMetadata others;
+
+    /**
+     * Whether the gif is completed.
+     */
+    private boolean closed;
+
+    /**
+     * Ctor.
+     * @param file The file to write to.
+     * @param delay The delay between the images in milliseconds.
+     */
+    public AnimatedGif(final File file, final int delay) {
+        this.file = file;
+        this.delay = delay;
+        this.writer = null;
+        this.output = null;
+        this.first = null;
+        this.others = null;
+        this.closed = false;
+    }
+
+    @Override
+    public final void accept(final BufferedImage image) {
+        if (this.closed) {
+            throw new IllegalStateException(
+                String.join(
+                    "",
+                    "The gif ",
+                    this.file.getAbsolutePath(),
+                    " is already completed"
+                )
+            );
+        }
+        try {
+            final IIOMetadata metadata;
+            if (this.output == null) {
+                this.open();
+                metadata = this.first;
+            } else {
+                metadata = this.others;
+            }
+            this.writer.writeToSequence(
+                new IIOImage(image, null, metadata),
+                this.writer.getDefaultWriteParam()
+            );
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't write the gif ", this.file.getAbsolutePath()
+                ),
+                exception
+            );
+        }
+    }
+
+    @Override
+    public final void close() {
+        this.closed = true;
+        if (this.output != null) {
+            try {
+                this.writer.endWriteSequence();
+                this.output.close();
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(
+                    String.join(
+                        "",
+                        "Couldn't complete the gif ",
+                        this.file.getAbsolutePath()
+                    ),
+                    exception
+                );
+            } finally {
+                this.writer.dispose();
+                this.writer = null;
+                this.output = null;
+            }
+        }
+    }
+
+    /**
+     * Opens the file and starts the sequence.
+     * @throws IOException If the file can't be opened.
+     */
+    private void open() throws IOException {
+        this.file.getAbsoluteFile().getParentFile().mkdirs();
+        this.file.delete();
+        final ImageWriter gif = ImageIO.getImageWritersByFormatName("gif")
+            .next();
+        this.first = this.frameMetadata(gif, true);
+        this.others = this.frameMetadata(gif, false);
+        this.output = ImageIO.createImageOutputStream(this.file);
+        gif.setOutput(this.output);
+        gif.prepareWriteSequence(null);
+        this.writer = gif;
+    }
+
+    /**
+     * Creates the metadata of an image with the delay.
+     * @param gif The writer of the gif.
+     * @param looping Whether the metadata contains the endless loop, which
+     *  only the first image needs.
+     * @return The metadata of the image.
+     */
+    private IIOMetadata frameMetadata(
+        final ImageWriter gif, final boolean looping
+    ) {
+        final ImageWriteParam param = gif.getDefaultWriteParam();
+        final IIOMetadata result = gif.getDefaultImageMetadata(
+            ImageTypeSpecifier.createFromBufferedImageType(
+                BufferedImage.TYPE_INT_ARGB
+            ),
+            param
+        );
+        final var root = (IIOMetadataNode) result.getAsTree(
+            AnimatedGif.FORMAT
+        );
+        final var control = this.child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute(
+            "delayTime",
+            Integer.toString(Math.max(1, this.delay / AnimatedGif.HUNDREDTH))
+        );
+        control.setAttribute("transparentColorIndex", "0");
+        if (looping) {
+            final var extensions = this.child(root, "ApplicationExtensions");
+            final var loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            extensions.appendChild(loop);
+        }
+        try {
+            result.setFromTree(AnimatedGif.FORMAT, root);
+        } catch (final IIOInvalidTreeException exception) {
+            throw new IllegalStateException(
+                "Couldn't set the gif metadata", exception
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the child node with the given name. It will be created if it
+     * doesn't exist yet.
+     * @param parent The parent node.
+     * @param name The name of the child.
+     * @return The child node.
+     */
+    private IIOMetadataNode child(
+        final IIOMetadataNode parent, final String name
+    ) {
+        IIOMetadataNode result = null;
+        for (int index = 0; index < parent.getLength(); ++index) {
+            if (parent.item(index).getNodeName().equals(name)) {
+                result = (IIOMetadataNode) parent.item(index);
+            }
+        }
+        if (result == null) {
+            result = new IIOMetadataNode(name);
+            parent.appendChild(result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import javax.imageio.stream.ImageInputStreamImpl;
+
+/**
+ * An image input stream that reads directly from a byte buffer, like a
+ * memory-mapped file, without caching or copying the data first.
+ * <p>This class is mutable and not thread-safe. Each stream has to be read
+ * by one thread, but several streams can read the same data at once.</p>
+ * @since 0.47
+ */
+final class BufferInput extends ImageInputStreamImpl {
+    /**
+     * The data, only used by this stream.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Ctor.
+     * @param data The data. Its position and limit aren't changed.
+     */
+    BufferInput(final ByteBuffer data) {
+        super();
+        this.buffer = data.slice();
+    }
+
+    @Override
+    public int read() throws IOException {
+        this.checkClosed();
+        this.bitOffset = 0;
+        final int result;
+        if (this.streamPos < this.buffer.limit()) {
+            // @checkstyle MagicNumber (1 line)
+            result = this.buffer.get((int) this.streamPos) & 0xFF;
+            this.streamPos += 1;
+        } else {
+            result = -1;
+        }
+        return result;
+    }
+
+    @Override
+    public int read(
+        final byte[] bytes, final int offset, final int length
+    ) throws IOException {
+        this.checkClosed();
+        this.bitOffset = 0;
+        final long remaining = this.buffer.limit() - this.streamPos;
+        final int result;
+        if (length == 0) {
+            result = 0;
+        } else if (remaining <= 0L) {
+            result = -1;
+        } else {
+            result = (int) Math.min(length, remaining);
+            this.buffer.position((int) this.streamPos);
+            this.buffer.get(bytes, offset, result);
+            this.streamPos += result;
+        }
+        return result;
+    }
+
+    @Override
+    public long length() {
+        return this.buffer.limit();
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * A comparison of two images of the same size on their raw ARGB pixels. Two
+ * pixels differ, if one of their channels differs by more than the tolerance.
+ * The images are similar, if at most the allowed amount of pixels differ.
+ * Large images are compared in parallel stripes of rows. The comparison stops
+ * as soon as more pixels than allowed differ.
+ * <p>This class is immutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class Comparison {
+    /**
+     * The amount of pixels from which on the stripes are compared in
+     * parallel.
+     */
+    private static final int PARALLEL = 1 << 18;
+
+    /**
+     * The mask of a single channel.
+     */
+    private static final int CHANNEL = 0xFF;
+
+    /**
+     * The tolerated difference per channel.
+     */
+    private final int tolerance;
+
+    /**
+     * The amount of pixels that may differ.
+     */
+    private final long allowed;
+
+    /**
+     * The amount of stripes to compare in parallel.
+     */
+    private final int stripes;
+
+    /**
+     * Ctor. The images must be equal.
+     */
+    public Comparison() {
+        this(0, 0L);
+    }
+
+    /**
+     * Ctor. Uses a stripe per available processor.
+     * @param tolerance The tolerated difference per channel.
+     * @param allowed The amount of pixels that may differ.
+     */
+    public Comparison(final int tolerance, final long allowed) {
+        this(tolerance, allowed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Ctor.
+     * @param tolerance The tolerated difference per channel.
+     * @param allowed The amount of pixels that may differ.
+     * @param stripes The amount of stripes to compare in parallel.
+     */
+    public Comparison(
+        final int tolerance, final long allowed, final int stripes
+    ) {
+        this.tolerance = tolerance;
+        this.allowed = allowed;
+        this.stripes = Math.max(1, stripes);
+    }
+
+    /**
+     * Returns whether the images are similar.
+     * @param expected The expected image.
+     * @param actual The actual image.
+     * @return True if at most the allowed amount of pixels differ.
+     */
+    public final boolean similar(
+        final BufferedImage expected, final BufferedImage actual
+    ) {
+        return this.differences(expected, actual) <= this.allowed;
+    }
+
+    /**
+     * Counts the differing pixels. The counting stops early once more pixels
+     * than allowed differ, so the result is only exact if it's within the
+     * allowed amount.
+     * @param expected The expected image.
+     * @param actual The actual image.
+     * @return The amount of differing pixels.
+     */
+    public final long differences(
+        final BufferedImage expected, final BufferedImage actual
+    ) {
+        this.requireSameSize(expected, actual);
+        final int[] first = new Raster(expected).pixels();
+        final int[] second = new Raster(actual).pixels();
+        final int width = expected.getWidth();
+        final int height = expected.getHeight();
+        final var found = new AtomicLong();
+        if (this.stripes > 1 && first.length >= Comparison.PARALLEL) {
+            final int rows = (height + this.stripes - 1) / this.stripes;
+            IntStream.range(0, this.stripes).parallel().forEach(
+                stripe -> this.count(
+                    first,
+                    second,
+                    width,
+                    Math.min(height, stripe * rows),
+                    Math.min(height, (stripe + 1) * rows),
+                    found
+                )
+            );
+        } else {
+            this.count(first, second, width, 0, height, found);
+        }
+        return found.get();
+    }
+
+    /**
+     * Returns a heat map of the differences. Pixels within the tolerance are
+     * shown as a faded gray version of the actual image. Differing pixels are
+     * red, the brighter the more they differ.
+     * @param expected The expected image.
+     * @param actual The actual image.
+     * @return The heat map with the size of the images.
+     */
+    public final BufferedImage heatmap(
+        final BufferedImage expected, final BufferedImage actual
+    ) {
+        this.requireSameSize(expected, actual);
+        final int[] first = new Raster(expected).pixels();
+        final int[] second = new Raster(actual).pixels();
+        final var result = new BufferedImage(
+            expected.getWidth(),
+            expected.getHeight(),
+            BufferedImage.TYPE_INT_ARGB
+        );
+        final int[] target = new Raster(result).pixels();
+        // @checkstyle MagicNumber (20 lines)
+        for (int index = 0; index < target.length; ++index) {
+            final int distance = this.distance(first[index], second[index]);
+            final int pixel = second[index];
+            if (distance > this.tolerance) {
+                final int red = 128 + distance / 2;
+                target[index] = 0xFF000000 | red << 16;
+            } else {
+                final int gray = (
+                    (pixel >> 16 & Comparison.CHANNEL)
+                        + (pixel >> 8 & Comparison.CHANNEL)
+                        + (pixel & Comparison.CHANNEL)
+                ) / 3;
+                final int faded = 192 + gray / 4;
+                target[index] = 0xFF000000 | faded << 16 | faded << 8 | faded;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the differing pixels of some rows. It stops after a row if more
+     * pixels than allowed were found.
+     * @param first The pixels of the first image.
+     * @param second The pixels of the second image.
+     * @param width The width of the images.
+     * @param from The first row to compare.
+     * @param until The row after the last row to compare.
+     * @param found The amount of differing pixels found so far.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private void count(
+        final int[] first, final int[] second, final int width,
+        final int from, final int until, final AtomicLong found
+    ) {
+        for (int row = from; row < until && found.get() <= this.allowed;
+            ++row) {
+            long local = 0L;
+            final int end = (row + 1) * width;
+            for (int index = row * width; index < end; ++index) {
+                if (first[index] != second[index]
+                    && this.distance(first[index], second[index])
+                        > this.tolerance) {
+                    ++local;
+                }
+            }
+            if (local > 0L) {
+                found.addAndGet(local);
+            }
+        }
+    }
+
+    /**
+     * Returns the biggest difference of the channels of two pixels.
+     * @param first The first ARGB pixel.
+     * @param second The second ARGB pixel.
+     * @return The biggest difference of the channels.
+     */
+    private int distance(final int first, final int second) {
+        int result = 0;
+        // @checkstyle MagicNumber (1 line)
+        for (int shift = 0; shift < 32; shift += 8) {
+            result = Math.max(
+                result,
+                Math.abs(
+                    (first >> shift & Comparison.CHANNEL)
+                        - (second >> shift & Comparison.CHANNEL)
+                )
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Throws an exception if the images have different sizes.
+     * @param expected The expected image.
+     * @param actual The actual image.
+     */
+    private void requireSameSize(
+        final BufferedImage expected, final BufferedImage actual
+    ) {
+        if (expected.getWidth() != actual.getWidth()
+            || expected.getHeight() != actual.getHeight()) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The images must have the same size. Expected: ",
+                    Integer.toString(expected.getWidth()),
+                    "x",
+                    Integer.toString(expected.getHeight()),
+                    ", actual: ",
+                    Integer.toString(actual.getWidth()),
+                    "x",
+                    Integer.toString(actual.getHeight())
+                )
+            );
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The changed tiles of a frame compared to the previous frame. A key delta
+ * contains every tile of the frame, so it doesn't depend on previous frames.
+ * <p>This class is immutable and thread-safe.</p>
+ * @see TileDelta
+ * @since 0.47
+ */
+public class Delta {
+    /**
+     * Whether the delta contains every tile of the frame.
+     */
+    private final boolean key;
+
+    /**
+     * The width of the frame.
+     */
+    private final int width;
+
+    /**
+     * The height of the frame.
+     */
+    private final int height;
+
+    /**
+     * The changed tiles.
+     */
+    private final List<Tile> changed;
+
+    /**
+     * Ctor.
+     * @param key Whether the delta contains every tile of the frame.
+     * @param width The width of the frame.
+     * @param height The height of the frame.
+     * @param changed The changed tiles.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public Delta(
+        final boolean key, final int width, final int height,
+        final List<Tile> changed
+    ) {
+        this.key = key;
+        this.width = width;
+        this.height = height;
+        this.changed = List.copyOf(changed);
+    }
+
+    /**
+     * Returns whether the delta contains every tile of the frame.
+     * @return True if it's a key delta.
+     */
+    public final boolean key() {
+        return this.key;
+    }
+
+    /**
+     * Returns the amount of changed tiles.
+     * @return The amount of tiles in this delta.
+     */
+    public final int tiles() {
+        return this.changed.size();
+    }
+
+    /**
+     * Paints the changed tiles onto the previous frame. A key delta can be
+     * painted onto any image with the size of the frame.
+     * @param frame The previous frame.
+     */
+    public final void paint(final BufferedImage frame) {
+        if (frame.getWidth() != this.width
+            || frame.getHeight() != this.height) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The delta belongs to a frame of ",
+                    Integer.toString(this.width),
+                    "x",
+                    Integer.toString(this.height),
+                    " but the given frame has ",
+                    Integer.toString(frame.getWidth()),
+                    "x",
+                    Integer.toString(frame.getHeight())
+                )
+            );
+        }
+        for (final Tile tile : this.changed) {
+            tile.paint(frame);
+        }
+    }
+
+    /**
+     * Writes the delta: Whether it's a key delta, the size of the frame, the
+     * amount of tiles and the tiles themselves.
+     * @param output The output to write to.
+     * @throws IOException If the writing failed.
+     */
+    public final void write(final DataOutput output) throws IOException {
+        output.writeBoolean(this.key);
+        output.writeInt(this.width);
+        output.writeInt(this.height);
+        output.writeInt(this.changed.size());
+        for (final Tile tile : this.changed) {
+            tile.write(output);
+        }
+    }
+}
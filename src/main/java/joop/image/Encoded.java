@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * An encoded image, like the content of a png file, that can be decoded
+ * without going through a file on disk. Bytes, buffers and memory-mapped
+ * files are decoded directly from their memory without copying them first.
+ * Resources are read from their stream, so they also work inside a jar.
+ * There is no constructor for a stream, because a stream can only be read
+ * once. A {@link URL} opens a new stream for each decoding, otherwise the
+ * bytes of the stream can be given.
+ * <p>This class is immutable and thread-safe. Each decoding reads the data
+ * on its own, so the same data can be decoded by several threads at
+ * once.</p>
+ * @since 0.47
+ */
+public class Encoded {
+    /**
+     * The opening of the data.
+     */
+    private final Source source;
+
+    /**
+     * The description of the data for errors.
+     */
+    private final String description;
+
+    /**
+     * Ctor.
+     * @param bytes The encoded image.
+     */
+    public Encoded(final byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Ctor. The position and the limit of the buffer aren't changed.
+     * @param buffer The encoded image from the position to the limit.
+     */
+    public Encoded(final ByteBuffer buffer) {
+        this(() -> new BufferInput(buffer), "the given buffer");
+    }
+
+    /**
+     * Ctor. The file is mapped into memory for each decoding.
+     * @param file The image file.
+     */
+    public Encoded(final Path file) {
+        this(
+            () -> {
+                try (FileChannel channel = FileChannel.open(
+                    file, StandardOpenOption.READ
+                )) {
+                    return new BufferInput(
+                        channel.map(
+                            FileChannel.MapMode.READ_ONLY, 0L, channel.size()
+                        )
+                    );
+                }
+            },
+            file.toAbsolutePath().toString()
+        );
+    }
+
+    /**
+     * Ctor. Files are mapped into memory, other locations like entries of a
+     * jar are read from their stream.
+     * @param location The location of the image, for example from
+     *  {@link ClassLoader#getResource(String)}.
+     */
+    public Encoded(final URL location) {
+        this(
+            () -> {
+                final ImageInputStream result;
+                if ("file".equals(location.getProtocol())) {
+                    result = new Encoded(Encoded.path(location)).source.open();
+                } else {
+                    final InputStream stream = location.openStream();
+                    result = new MemoryCacheImageInputStream(stream) {
+                        @Override
+                        public void close() throws IOException {
+                            super.close();
+                            stream.close();
+                        }
+                    };
+                }
+                return result;
+            },
+            location.toString()
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param source The opening of the data.
+     * @param description The description of the data for errors.
+     */
+    private Encoded(final Source source, final String description) {
+        this.source = source;
+        this.description = description;
+    }
+
+    /**
+     * Decodes the image.
+     * @return The decoded image.
+     */
+    public final BufferedImage decoded() {
+        try (ImageInputStream input = this.source.open()) {
+            final var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("The format isn't supported");
+            }
+            final ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't decode the image from ", this.description
+                ),
+                exception
+            );
+        }
+    }
+
+    /**
+     * Returns the path of a file location.
+     * @param location The location of a file.
+     * @return The path.
+     * @throws IOException If the location isn't a valid path.
+     */
+    private static Path path(final URL location) throws IOException {
+        try {
+            return Paths.get(location.toURI());
+        } catch (final URISyntaxException exception) {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * The opening of the data of an image.
+     * @since 0.47
+     */
+    private interface Source {
+        /**
+         * Opens the data.
+         * @return A stream of the data, which is closed after the decoding.
+         * @throws IOException If the data can't be opened.
+         */
+        ImageInputStream open() throws IOException;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import unit.functional.Lazy;
+
+/**
+ * A pyramid of an image and smaller versions of it, each half as wide and
+ * high as the previous one. Drawing an image much smaller than its size from
+ * a level close to the drawn size is faster and doesn't alias like scaling
+ * the full image. The levels are computed on demand in the background by
+ * averaging blocks of 2x2 pixels. Until the needed level is computed, the
+ * closest finer level is given. {@link #fresh()} can be the repaint
+ * condition of a window, so that computed levels show up.
+ * <p>The pyramid can be shared by several {@link joop.shape.Image} shapes of
+ * the same image. Like {@link joop.shape.Image}, it doesn't cache the result
+ * of the given {@link Lazy} instance, but the levels are computed again, if
+ * it gives a different image.</p>
+ * <p>This class is mutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class Mipmaps {
+    /**
+     * The default maximal amount of smaller levels.
+     */
+    private static final int DEFAULT_LEVELS = 12;
+
+    /**
+     * The mask of a single channel.
+     */
+    private static final int CHANNEL = 0xFF;
+
+    /**
+     * The loading of the image.
+     */
+    private final Lazy<BufferedImage> loading;
+
+    /**
+     * The current image, followed by its computed levels.
+     */
+    private final AtomicReferenceArray<BufferedImage> levels;
+
+    /**
+     * Whether the levels of the current image are being computed.
+     */
+    private final AtomicBoolean computing;
+
+    /**
+     * Whether levels were computed since the last lookup.
+     */
+    private final AtomicBoolean computed;
+
+    /**
+     * Ctor.
+     * @param loading The loading of the image.
+     */
+    public Mipmaps(final Lazy<BufferedImage> loading) {
+        this(loading, Mipmaps.DEFAULT_LEVELS);
+    }
+
+    /**
+     * Ctor.
+     * @param loading The loading of the image.
+     * @param levels The maximal amount of smaller levels. Without levels,
+     *  the image itself is always given.
+     */
+    public Mipmaps(final Lazy<BufferedImage> loading, final int levels) {
+        this.loading = loading;
+        this.levels = new AtomicReferenceArray<>(levels + 1);
+        this.computing = new AtomicBoolean();
+        this.computed = new AtomicBoolean();
+    }
+
+    /**
+     * Returns the smallest level that is at least as large as the drawn
+     * size. If it isn't computed yet, its computation starts in the
+     * background and a finer level is given.
+     * @param width The drawn width.
+     * @param height The drawn height.
+     * @return The level to draw.
+     */
+    public final BufferedImage level(final int width, final int height) {
+        this.computed.set(false);
+        final BufferedImage source = this.loading.value();
+        int wanted = 0;
+        while (wanted + 1 < this.levels.length()
+            && source.getWidth() >> wanted + 1 >= Math.max(1, width)
+            && source.getHeight() >> wanted + 1 >= Math.max(1, height)) {
+            ++wanted;
+        }
+        BufferedImage result = source;
+        if (wanted > 0) {
+            if (this.levels.get(0) != source) {
+                this.restart(source);
+            }
+            for (int level = wanted; level > 0; --level) {
+                final BufferedImage image = this.levels.get(level);
+                if (image != null) {
+                    result = image;
+                    break;
+                }
+            }
+            if (result == source && this.computing.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> this.compute(source));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether levels were computed since the last lookup.
+     * @return True if the image has to be drawn again.
+     */
+    public final boolean fresh() {
+        return this.computed.get();
+    }
+
+    /**
+     * Drops the levels of a previous image.
+     * @param source The current image.
+     */
+    private synchronized void restart(final BufferedImage source) {
+        if (this.levels.get(0) != source) {
+            for (int level = 1; level < this.levels.length(); ++level) {
+                this.levels.set(level, null);
+            }
+            this.levels.set(0, source);
+            this.computing.set(false);
+        }
+    }
+
+    /**
+     * Computes all levels of an image, as long as it's the current image.
+     * Afterwards, a later lookup may start the computation again, so that
+     * a failed computation doesn't keep the image from its levels forever.
+     * @param source The image.
+     */
+    private void compute(final BufferedImage source) {
+        try {
+            BufferedImage previous = source;
+            for (int level = 1; level < this.levels.length()
+                && this.levels.get(0) == source
+                && (previous.getWidth() > 1 || previous.getHeight() > 1);
+                ++level) {
+                previous = Mipmaps.halved(previous);
+                synchronized (this) {
+                    if (this.levels.get(0) == source) {
+                        this.levels.set(level, previous);
+                    }
+                }
+                this.computed.set(true);
+            }
+        } finally {
+            synchronized (this) {
+                if (this.levels.get(0) == source) {
+                    this.computing.set(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an image with half the size, where each pixel is the average
+     * of 2x2 pixels. The colors are weighted by their opacity.
+     * @param image The image to halve.
+     * @return The halved image.
+     */
+    private static BufferedImage halved(final BufferedImage image) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] source = new Raster(image).pixels();
+        final int half = Math.max(1, width / 2);
+        final int rows = Math.max(1, height / 2);
+        final var result = new BufferedImage(
+            half, rows, BufferedImage.TYPE_INT_ARGB
+        );
+        final int[] target = new Raster(result).pixels();
+        for (int row = 0; row < rows; ++row) {
+            final int top = row * 2 * width;
+            final int bottom = Math.min(row * 2 + 1, height - 1) * width;
+            for (int column = 0; column < half; ++column) {
+                final int left = column * 2;
+                final int right = Math.min(left + 1, width - 1);
+                target[row * half + column] = Mipmaps.average(
+                    source[top + left], source[top + right],
+                    source[bottom + left], source[bottom + right]
+                );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Averages four ARGB pixels weighted by their opacity.
+     * @param first The first pixel.
+     * @param second The second pixel.
+     * @param third The third pixel.
+     * @param fourth The fourth pixel.
+     * @return The average pixel.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private static int average(
+        final int first, final int second, final int third, final int fourth
+    ) {
+        // @checkstyle MagicNumber (30 lines)
+        final int alpha = (first >>> 24) + (second >>> 24) + (third >>> 24)
+            + (fourth >>> 24);
+        final int result;
+        if (alpha == 0) {
+            result = 0;
+        } else {
+            int color = 0;
+            for (int shift = 0; shift < 24; shift += 8) {
+                final long sum = (long) (first >>> shift & Mipmaps.CHANNEL)
+                    * (first >>> 24)
+                    + (long) (second >>> shift & Mipmaps.CHANNEL)
+                    * (second >>> 24)
+                    + (long) (third >>> shift & Mipmaps.CHANNEL)
+                    * (third >>> 24)
+                    + (long) (fourth >>> shift & Mipmaps.CHANNEL)
+                    * (fourth >>> 24);
+                color |= (int) ((sum + alpha / 2) / alpha) << shift;
+            }
+            result = (alpha + 2) / 4 << 24 | color;
+        }
+        return result;
+    }
+}
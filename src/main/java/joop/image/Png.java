@@ -0,0 +1,663 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An encoder of images as png, which is faster than {@link
+ * javax.imageio.ImageIO} for large images. The rows are read directly from
+ * the ARGB pixels and encoded in parallel chunks. Each chunk is filtered and
+ * deflated on its own, with the end of the previous rows as the dictionary,
+ * so the chunks compress almost as well as a single stream. The chunks are
+ * written in order as soon as they are done.
+ * <p>The level trades speed for size like the level of {@link Deflater}:
+ * Level 0 stores the rows unfiltered and uncompressed, levels up to 3 use
+ * the cheap sub filter, and higher levels choose the best filter per row.</p>
+ * <p>Images without alpha are written as RGB, others as RGBA.</p>
+ * <p>This class is immutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class Png {
+    /**
+     * The default level, which favors speed.
+     */
+    private static final int DEFAULT_LEVEL = 3;
+
+    /**
+     * The amount of raw bytes from which on the chunks are encoded in
+     * parallel.
+     */
+    private static final int PARALLEL = 1 << 18;
+
+    /**
+     * The amount of raw bytes of a parallel chunk.
+     */
+    private static final int CHUNK = 1 << 18;
+
+    /**
+     * The size of the dictionary of deflate.
+     */
+    private static final int WINDOW = 1 << 15;
+
+    /**
+     * The mask of a single byte.
+     */
+    private static final int BYTE = 0xFF;
+
+    /**
+     * The highest level that uses the sub filter for every row.
+     */
+    private static final int FAST = 3;
+
+    /**
+     * The signature of png files.
+     */
+    private static final byte[] SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+    };
+
+    /**
+     * The level of the compression from 0 to 9.
+     */
+    private final int level;
+
+    /**
+     * Ctor. Uses a fast compression.
+     */
+    public Png() {
+        this(Png.DEFAULT_LEVEL);
+    }
+
+    /**
+     * Ctor.
+     * @param level The level of the compression from 0 (fastest, largest)
+     *  to 9 (slowest, smallest).
+     */
+    public Png(final int level) {
+        if (level < Deflater.NO_COMPRESSION
+            || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The level must be from 0 to 9. Level: ",
+                    Integer.toString(level)
+                )
+            );
+        }
+        this.level = level;
+    }
+
+    /**
+     * Encodes an image as png bytes.
+     * @param image The image to encode.
+     * @return The png bytes.
+     */
+    public final byte[] bytes(final BufferedImage image) {
+        final var out = new ByteArrayOutputStream();
+        this.write(image, out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes the top left part of ARGB pixels as png bytes with alpha. The
+     * pixels don't need to be an image of their own size, so a part of a
+     * larger image can be encoded without copying it first.
+     * @param pixels The ARGB pixels row by row.
+     * @param scanline The amount of pixels from the start of a row to the
+     *  start of the next row.
+     * @param width The width of the part.
+     * @param height The height of the part.
+     * @return The png bytes.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final byte[] bytes(
+        final int[] pixels, final int scanline, final int width,
+        final int height
+    ) {
+        final var out = new ByteArrayOutputStream();
+        this.write(
+            // @checkstyle MagicNumber (1 line)
+            pixels, scanline, width, height, 4, Channels.newChannel(out)
+        );
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes an image as png file. Missing directories are created.
+     * @param image The image to write.
+     * @param file The file to write to.
+     */
+    public final void write(final BufferedImage image, final File file) {
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(
+            file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+        )) {
+            this.write(image, channel);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't write the image to ", file.getAbsolutePath()
+                ),
+                exception
+            );
+        }
+    }
+
+    /**
+     * Writes an image as png to a stream. The stream isn't closed.
+     * @param image The image to write.
+     * @param out The stream to write to.
+     */
+    public final void write(final BufferedImage image, final OutputStream out) {
+        this.write(image, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes an image as png to a channel. The channel isn't closed.
+     * @param image The image to write.
+     * @param channel The channel to write to.
+     */
+    public final void write(
+        final BufferedImage image, final WritableByteChannel channel
+    ) {
+        final int depth;
+        if (image.getColorModel().hasAlpha()) {
+            depth = 4;
+        } else {
+            // @checkstyle MagicNumber (1 line)
+            depth = 3;
+        }
+        this.write(
+            new Raster(image).pixels(), image.getWidth(), image.getWidth(),
+            image.getHeight(), depth, channel
+        );
+    }
+
+    /**
+     * Writes the top left part of ARGB pixels as png to a channel.
+     * @param pixels The ARGB pixels row by row.
+     * @param scanline The amount of pixels from the start of a row to the
+     *  start of the next row.
+     * @param width The width of the part.
+     * @param height The height of the part.
+     * @param depth The amount of bytes per pixel: 3 for RGB or 4 for RGBA.
+     * @param channel The channel to write to.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private void write(
+        final int[] pixels, final int scanline, final int width,
+        final int height, final int depth, final WritableByteChannel channel
+    ) {
+        final int stride = width * depth + 1;
+        final int rows;
+        if ((long) stride * height < Png.PARALLEL) {
+            rows = height;
+        } else {
+            rows = Math.max(1, Png.CHUNK / stride);
+        }
+        final List<CompletableFuture<Part>> parts = new ArrayList<>(
+            (height + rows - 1) / rows
+        );
+        for (int first = 0; first < height; first += rows) {
+            final int start = first;
+            final int end = Math.min(height, first + rows);
+            if (parts.isEmpty() && end == height) {
+                parts.add(
+                    CompletableFuture.completedFuture(
+                        this.part(
+                            pixels, scanline, width, depth, start, end, height
+                        )
+                    )
+                );
+            } else {
+                parts.add(
+                    CompletableFuture.supplyAsync(
+                        () -> this.part(
+                            pixels, scanline, width, depth, start, end, height
+                        )
+                    )
+                );
+            }
+        }
+        // @checkstyle MagicNumber (6 lines)
+        final var header = ByteBuffer.allocate(13)
+            .putInt(width).putInt(height).put((byte) 8);
+        if (depth == 4) {
+            header.put((byte) 6);
+        } else {
+            header.put((byte) 2);
+        }
+        header.put((byte) 0).put((byte) 0).put((byte) 0);
+        try {
+            Png.all(channel, ByteBuffer.wrap(Png.SIGNATURE));
+            Png.chunk(channel, "IHDR", header.array());
+            Png.chunk(channel, "IDAT", this.zlib());
+            long adler = 1L;
+            for (final CompletableFuture<Part> future : parts) {
+                final Part part = future.join();
+                Png.chunk(channel, "IDAT", part.data);
+                adler = Png.combined(adler, part.adler, part.length);
+            }
+            Png.chunk(
+                channel, "IDAT",
+                ByteBuffer.allocate(4).putInt((int) adler).array()
+            );
+            Png.chunk(channel, "IEND", new byte[0]);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't write the png", exception
+            );
+        }
+    }
+
+    /**
+     * Filters and deflates rows of pixels.
+     * @param pixels The ARGB pixels of the image.
+     * @param scanline The amount of pixels from the start of a row to the
+     *  start of the next row.
+     * @param width The width of the image.
+     * @param depth The amount of bytes per pixel.
+     * @param first The first row.
+     * @param end The row after the last row.
+     * @param height The height of the image.
+     * @return The deflated rows.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private Part part(
+        final int[] pixels, final int scanline, final int width,
+        final int depth, final int first, final int end, final int height
+    ) {
+        final int stride = width * depth + 1;
+        final int before = Math.min(first, (Png.WINDOW + stride - 1) / stride);
+        final byte[] raw = new byte[(end - first + before) * stride];
+        final byte[] previous = new byte[stride];
+        final byte[] current = new byte[stride];
+        final byte[] scratch = new byte[stride];
+        if (first - before > 0) {
+            Png.unpack(
+                pixels, scanline, width, depth, first - before - 1, previous
+            );
+        }
+        for (int row = first - before; row < end; ++row) {
+            Png.unpack(pixels, scanline, width, depth, row, current);
+            this.filter(
+                previous, current, scratch, depth, raw,
+                (row - first + before) * stride
+            );
+            System.arraycopy(current, 0, previous, 0, stride);
+        }
+        final int offset = before * stride;
+        final int length = raw.length - offset;
+        final var checksum = new Adler32();
+        checksum.update(raw, offset, length);
+        final var deflater = new Deflater(this.level, true);
+        if (offset > 0) {
+            final int window = Math.min(offset, Png.WINDOW);
+            deflater.setDictionary(raw, offset - window, window);
+        }
+        deflater.setInput(raw, offset, length);
+        final int flush;
+        if (end == height) {
+            deflater.finish();
+            flush = Deflater.NO_FLUSH;
+        } else {
+            flush = Deflater.SYNC_FLUSH;
+        }
+        final var out = new ByteArrayOutputStream(length / 2 + 64);
+        final byte[] buffer = new byte[1 << 16];
+        while (true) {
+            final int count = deflater.deflate(buffer, 0, buffer.length, flush);
+            out.write(buffer, 0, count);
+            if (end == height && deflater.finished()
+                || end != height && count < buffer.length
+                && deflater.needsInput()) {
+                break;
+            }
+        }
+        deflater.end();
+        return new Part(out.toByteArray(), (int) checksum.getValue(), length);
+    }
+
+    /**
+     * Filters a row into the raw bytes.
+     * @param previous The bytes of the previous row, starting with a filter
+     *  byte.
+     * @param current The bytes of the row, starting with a filter byte.
+     * @param scratch The reused bytes for trying a filter.
+     * @param depth The amount of bytes per pixel.
+     * @param raw The raw bytes to deflate.
+     * @param offset The position of the row in the raw bytes.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private void filter(
+        final byte[] previous, final byte[] current, final byte[] scratch,
+        final int depth, final byte[] raw, final int offset
+    ) {
+        if (this.level == 0) {
+            System.arraycopy(current, 0, raw, offset, current.length);
+        } else if (this.level <= Png.FAST) {
+            Png.filtered(1, previous, current, depth, raw, offset);
+        } else {
+            long best = Long.MAX_VALUE;
+            // @checkstyle MagicNumber (1 line)
+            for (int type = 0; type < 5; ++type) {
+                Png.filtered(type, previous, current, depth, scratch, 0);
+                final long cost = Png.cost(scratch);
+                if (cost < best) {
+                    best = cost;
+                    System.arraycopy(
+                        scratch, 0, raw, offset, scratch.length
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the zlib header for the level.
+     * @return The two bytes of the header.
+     */
+    private byte[] zlib() {
+        final int speed;
+        if (this.level < 2) {
+            speed = 0;
+        } else if (this.level < 6) {
+            speed = 1;
+        } else if (this.level == 6) {
+            speed = 2;
+        } else {
+            speed = 3;
+        }
+        // @checkstyle MagicNumber (2 lines)
+        final int flags = speed << 6;
+        final int method = 0x78;
+        return new byte[]{
+            (byte) method,
+            // @checkstyle MagicNumber (1 line)
+            (byte) (flags + 31 - (method * 256 + flags) % 31),
+        };
+    }
+
+    /**
+     * Filters a row with a filter type.
+     * @param type The filter type from 0 (none) to 4 (paeth).
+     * @param previous The bytes of the previous row, starting with a filter
+     *  byte.
+     * @param current The bytes of the row, starting with a filter byte.
+     * @param depth The amount of bytes per pixel.
+     * @param target The bytes to filter into.
+     * @param offset The position of the row in the target.
+     * @checkstyle ParameterNumber (4 lines)
+     * @checkstyle CyclomaticComplexity (4 lines)
+     */
+    private static void filtered(
+        final int type, final byte[] previous, final byte[] current,
+        final int depth, final byte[] target, final int offset
+    ) {
+        target[offset] = (byte) type;
+        final int length = current.length;
+        final int head = Math.min(length, depth + 1);
+        // @checkstyle MagicNumber (50 lines)
+        switch (type) {
+            case 1:
+                System.arraycopy(current, 1, target, offset + 1, head - 1);
+                for (int index = head; index < length; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - current[index - depth]
+                    );
+                }
+                break;
+            case 2:
+                for (int index = 1; index < length; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - previous[index]
+                    );
+                }
+                break;
+            case 3:
+                for (int index = 1; index < head; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - ((previous[index] & Png.BYTE) >> 1)
+                    );
+                }
+                for (int index = head; index < length; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - ((current[index - depth] & Png.BYTE)
+                        + (previous[index] & Png.BYTE) >> 1)
+                    );
+                }
+                break;
+            case 4:
+                for (int index = 1; index < head; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - previous[index]
+                    );
+                }
+                for (int index = head; index < length; ++index) {
+                    target[offset + index] = (byte) (
+                        current[index] - Png.paeth(
+                            current[index - depth] & Png.BYTE,
+                            previous[index] & Png.BYTE,
+                            previous[index - depth] & Png.BYTE
+                        )
+                    );
+                }
+                break;
+            default:
+                System.arraycopy(current, 1, target, offset + 1, length - 1);
+                break;
+        }
+    }
+
+    /**
+     * Estimates how well a filtered row compresses.
+     * @param row The filtered row, starting with the filter byte.
+     * @return The sum of the absolute filtered values.
+     */
+    private static long cost(final byte[] row) {
+        long result = 0L;
+        for (int index = 1; index < row.length; ++index) {
+            result += Math.abs(row[index]);
+        }
+        return result;
+    }
+
+    /**
+     * Predicts a value by the paeth filter.
+     * @param left The value to the left.
+     * @param above The value above.
+     * @param corner The value to the left of the value above.
+     * @return The prediction.
+     */
+    private static int paeth(
+        final int left, final int above, final int corner
+    ) {
+        final int estimate = left + above - corner;
+        final int horizontal = Math.abs(estimate - left);
+        final int vertical = Math.abs(estimate - above);
+        final int diagonal = Math.abs(estimate - corner);
+        final int result;
+        if (horizontal <= vertical && horizontal <= diagonal) {
+            result = left;
+        } else if (vertical <= diagonal) {
+            result = above;
+        } else {
+            result = corner;
+        }
+        return result;
+    }
+
+    /**
+     * Unpacks a row of ARGB pixels into RGB or RGBA bytes after the filter
+     * byte.
+     * @param pixels The ARGB pixels.
+     * @param scanline The amount of pixels from the start of a row to the
+     *  start of the next row.
+     * @param width The width of the image.
+     * @param depth The amount of bytes per pixel.
+     * @param row The row to unpack.
+     * @param target The bytes of the row.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    private static void unpack(
+        final int[] pixels, final int scanline, final int width,
+        final int depth, final int row, final byte[] target
+    ) {
+        int position = 1;
+        final int start = row * scanline;
+        for (int column = 0; column < width; ++column) {
+            final int pixel = pixels[start + column];
+            // @checkstyle MagicNumber (3 lines)
+            target[position] = (byte) (pixel >> 16);
+            target[position + 1] = (byte) (pixel >> 8);
+            target[position + 2] = (byte) pixel;
+            if (depth == 4) {
+                // @checkstyle MagicNumber (1 line)
+                target[position + 3] = (byte) (pixel >>> 24);
+            }
+            position += depth;
+        }
+    }
+
+    /**
+     * Combines the adler-32 checksums of two consecutive parts of data.
+     * @param first The checksum of the first part.
+     * @param second The checksum of the second part.
+     * @param length The length of the second part.
+     * @return The checksum of both parts.
+     */
+    private static long combined(
+        final long first, final int second, final long length
+    ) {
+        // @checkstyle MagicNumber (16 lines)
+        final long base = 65_521L;
+        final long rest = length % base;
+        long low = first & 0xFFFFL;
+        long high = rest * low % base;
+        low += (second & 0xFFFFL) + base - 1;
+        high += (first >>> 16 & 0xFFFFL) + (second >>> 16 & 0xFFFFL)
+            + base - rest;
+        if (low >= base) {
+            low -= base;
+        }
+        if (low >= base) {
+            low -= base;
+        }
+        if (high >= base << 1) {
+            high -= base << 1;
+        }
+        if (high >= base) {
+            high -= base;
+        }
+        return low | high << 16;
+    }
+
+    /**
+     * Writes a png chunk.
+     * @param channel The channel to write to.
+     * @param type The type of the chunk.
+     * @param data The data of the chunk.
+     * @throws IOException If the channel can't be written.
+     */
+    private static void chunk(
+        final WritableByteChannel channel, final String type,
+        final byte[] data
+    ) throws IOException {
+        final byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+        final var crc = new CRC32();
+        crc.update(name);
+        crc.update(data);
+        Png.all(
+            channel, ByteBuffer.allocate(8).putInt(data.length).put(name).flip()
+        );
+        Png.all(channel, ByteBuffer.wrap(data));
+        Png.all(
+            channel, ByteBuffer.allocate(4).putInt((int) crc.getValue()).flip()
+        );
+    }
+
+    /**
+     * Writes a whole buffer.
+     * @param channel The channel to write to.
+     * @param buffer The buffer to write.
+     * @throws IOException If the channel can't be written.
+     */
+    private static void all(
+        final WritableByteChannel channel, final ByteBuffer buffer
+    ) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * The deflated rows of a chunk.
+     * @since 0.47
+     */
+    private static final class Part {
+        /**
+         * The deflated bytes.
+         */
+        private final byte[] data;
+
+        /**
+         * The adler-32 checksum of the filtered rows.
+         */
+        private final int adler;
+
+        /**
+         * The amount of filtered bytes.
+         */
+        private final int length;
+
+        /**
+         * Ctor.
+         * @param data The deflated bytes.
+         * @param adler The adler-32 checksum of the filtered rows.
+         * @param length The amount of filtered bytes.
+         */
+        Part(final byte[] data, final int adler, final int length) {
+            this.data = data;
+            this.adler = adler;
+            this.length = length;
+        }
+    }
+}
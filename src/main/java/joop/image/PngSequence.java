@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * An encoding of the images as numbered png files in a directory, starting
+ * with frame-000000.png.
+ * <p>This class is mutable and not thread-safe, because it counts the
+ * encoded images.</p>
+ * @since 0.47
+ */
+public class PngSequence implements Encoding {
+    /**
+     * The directory of the files.
+     */
+    private final File directory;
+
+    /**
+     * The encoder of the files.
+     */
+    private final Png png;
+
+    /**
+     * The number of the next image.
+     */
+    private int number;
+
+    /**
+     * Ctor.
+     * @param directory The directory of the files. It will be created if it
+     *  doesn't exist.
+     */
+    public PngSequence(final File directory) {
+        this(directory, new Png());
+    }
+
+    /**
+     * Ctor.
+     * @param directory The directory of the files. It will be created if it
+     *  doesn't exist.
+     * @param png The encoder of the files.
+     */
+    public PngSequence(final File directory, final Png png) {
+        this.directory = directory;
+        this.png = png;
+        this.number = 0;
+    }
+
+    @Override
+    public final void accept(final BufferedImage image) {
+        final var file = new File(
+            this.directory, String.format("frame-%06d.png", this.number)
+        );
+        this.png.write(image, file);
+        this.number += 1;
+    }
+
+    @Override
+    public final void close() {
+        // every frame is complete after it was written
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * The ARGB pixels of an image as an int array, row by row. An image of type
+ * {@link BufferedImage#TYPE_INT_ARGB} gives its backing array without
+ * copying. Every other image gives a copy of its pixels.
+ * <p>This class doesn't change its own state, but the returned array may be
+ * the backing array of the mutable image.</p>
+ * @since 0.47
+ */
+public class Raster {
+    /**
+     * The image with the pixels.
+     */
+    private final BufferedImage image;
+
+    /**
+     * Ctor.
+     * @param image The image with the pixels.
+     */
+    public Raster(final BufferedImage image) {
+        this.image = image;
+    }
+
+    /**
+     * Returns whether {@link #pixels()} gives the backing array of the image.
+     * Writes into the array change the image only in this case.
+     * @return True if the pixels aren't a copy.
+     */
+    public final boolean direct() {
+        final WritableRaster raster = this.image.getRaster();
+        return this.image.getType() == BufferedImage.TYPE_INT_ARGB
+            && raster.getParent() == null
+            && raster.getDataBuffer() instanceof DataBufferInt
+            && raster.getDataBuffer().getNumBanks() == 1
+            && raster.getDataBuffer().getOffset() == 0
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+            && ((SinglePixelPackedSampleModel) raster.getSampleModel())
+                .getScanlineStride() == this.image.getWidth();
+    }
+
+    /**
+     * Returns the ARGB pixels of the image, row by row.
+     * @return The pixels.
+     */
+    public final int[] pixels() {
+        final int[] result;
+        if (this.direct()) {
+            result = ((DataBufferInt) this.image.getRaster().getDataBuffer())
+                .getData();
+        } else {
+            final int width = this.image.getWidth();
+            result = this.image.getRGB(
+                0, 0, width, this.image.getHeight(), null, 0, width
+            );
+        }
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A rectangular part of a frame with a copy of its ARGB pixels.
+ * <p>This class is immutable and thread-safe, as long as the pixels aren't
+ * changed by the creator.</p>
+ * @since 0.47
+ */
+public class Tile {
+    /**
+     * The x coordinate of the tile in the frame.
+     */
+    private final int left;
+
+    /**
+     * The y coordinate of the tile in the frame.
+     */
+    private final int top;
+
+    /**
+     * The width of the tile.
+     */
+    private final int width;
+
+    /**
+     * The height of the tile.
+     */
+    private final int height;
+
+    /**
+     * The ARGB pixels of the tile, row by row.
+     */
+    private final int[] pixels;
+
+    /**
+     * Ctor.
+     * @param left The x coordinate of the tile in the frame.
+     * @param top The y coordinate of the tile in the frame.
+     * @param width The width of the tile.
+     * @param height The height of the tile.
+     * @param pixels The ARGB pixels of the tile, row by row.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public Tile(
+        final int left, final int top, final int width, final int height,
+        final int[] pixels
+    ) {
+        if (pixels.length != width * height) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The tile needs ",
+                    Integer.toString(width * height),
+                    " pixels but got ",
+                    Integer.toString(pixels.length)
+                )
+            );
+        }
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Paints the tile at its position onto the frame.
+     * @param frame The frame to paint on.
+     */
+    public final void paint(final BufferedImage frame) {
+        frame.setRGB(
+            this.left, this.top, this.width, this.height,
+            this.pixels, 0, this.width
+        );
+    }
+
+    /**
+     * Writes the position, the size and the pixels of the tile.
+     * @param output The output to write to.
+     * @throws IOException If the writing failed.
+     */
+    public final void write(final DataOutput output) throws IOException {
+        output.writeInt(this.left);
+        output.writeInt(this.top);
+        output.writeInt(this.width);
+        output.writeInt(this.height);
+        for (final int pixel : this.pixels) {
+            output.writeInt(pixel);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A stream of the changed tiles of frames. Each frame is divided into square
+ * tiles and each tile is hashed. Only the tiles whose hash changed since the
+ * previous frame are given to the target as a {@link Delta}. A frame without
+ * changes produces no delta at all, so an idle window produces no data. Every
+ * few frames and whenever the size of the frames changes, a key delta with
+ * every tile is given instead. It can be used as the target of
+ * {@link joop.window.feature.PaintedShot} to stream the content of a window.
+ * <p>This class is mutable and not thread-safe, because it keeps the hashes
+ * of the previous frame.</p>
+ * @since 0.47
+ */
+public class TileDelta implements Consumer<BufferedImage> {
+    /**
+     * The default width and height of the tiles.
+     */
+    private static final int DEFAULT_SIZE = 64;
+
+    /**
+     * The default amount of frames from one key delta to the next.
+     */
+    private static final int DEFAULT_INTERVAL = 250;
+
+    /**
+     * The offset basis of the FNV-1a hash.
+     */
+    private static final long BASIS = 0xCBF29CE484222325L;
+
+    /**
+     * The prime of the FNV-1a hash.
+     */
+    private static final long PRIME = 0x100000001B3L;
+
+    /**
+     * The width and height of the tiles.
+     */
+    private final int size;
+
+    /**
+     * The amount of frames from one key delta to the next.
+     */
+    private final int interval;
+
+    /**
+     * The target of the deltas.
+     */
+    private final Consumer<Delta> target;
+
+    /**
+     * The changed tiles of the current frame. It's reused for every frame.
+     */
+    private final List<Tile> changed;
+
+    /**
+     * The hashes of the tiles of the previous frame, row by row.
+     */
+    private long[] hashes;
+
+    /**
+     * The width of the previous frame.
+     */
+    private int width;
+
+    /**
+     * The height of the previous frame.
+     */
+    private int height;
+
+    /**
+     * The amount of frames since the last key delta.
+     */
+    private int frames;
+
+    /**
+     * Ctor.
+     * @param target The target of the deltas.
+     */
+    public TileDelta(final Consumer<Delta> target) {
+        this(TileDelta.DEFAULT_SIZE, TileDelta.DEFAULT_INTERVAL, target);
+    }
+
+    /**
+     * Ctor.
+     * @param size The width and height of the tiles.
+     * @param interval The amount of frames from one key delta to the next.
+     *  An interval of 1 makes every delta a key delta.
+     * @param target The target of the deltas.
+     */
+    public TileDelta(
+        final int size, final int interval, final Consumer<Delta> target
+    ) {
+        this.size = size;
+        this.interval = interval;
+        this.target = target;
+        this.changed = new ArrayList<>(0);
+        this.hashes = new long[0];
+        this.width = -1;
+        this.height = -1;
+        this.frames = 0;
+    }
+
+    @Override
+    public final void accept(final BufferedImage frame) {
+        final int[] pixels = new Raster(frame).pixels();
+        final boolean key = this.frames >= this.interval
+            || frame.getWidth() != this.width
+            || frame.getHeight() != this.height;
+        if (key) {
+            this.width = frame.getWidth();
+            this.height = frame.getHeight();
+            this.hashes = new long[
+                this.ceiled(this.width) * this.ceiled(this.height)
+            ];
+            this.frames = 0;
+        }
+        final int columns = this.ceiled(this.width);
+        for (int index = 0; index < this.hashes.length; ++index) {
+            final int left = index % columns * this.size;
+            final int top = index / columns * this.size;
+            final int right = Math.min(this.width, left + this.size);
+            final int bottom = Math.min(this.height, top + this.size);
+            final long hash = this.hash(pixels, left, top, right, bottom);
+            if (key || hash != this.hashes[index]) {
+                this.hashes[index] = hash;
+                this.changed.add(this.tile(pixels, left, top, right, bottom));
+            }
+        }
+        this.frames += 1;
+        if (!this.changed.isEmpty()) {
+            try {
+                this.target.accept(
+                    new Delta(key, this.width, this.height, this.changed)
+                );
+            } finally {
+                this.changed.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of tiles needed to cover the given length.
+     * @param length The length to cover.
+     * @return The amount of tiles.
+     */
+    private int ceiled(final int length) {
+        return (length + this.size - 1) / this.size;
+    }
+
+    /**
+     * Hashes the pixels of a tile.
+     * @param pixels The pixels of the frame.
+     * @param left The x coordinate of the tile.
+     * @param top The y coordinate of the tile.
+     * @param right The x coordinate after the tile.
+     * @param bottom The y coordinate after the tile.
+     * @return The hash of the tile.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private long hash(
+        final int[] pixels, final int left, final int top, final int right,
+        final int bottom
+    ) {
+        long result = TileDelta.BASIS;
+        for (int row = top; row < bottom; ++row) {
+            final int end = row * this.width + right;
+            for (int index = row * this.width + left; index < end; ++index) {
+                result = (result ^ pixels[index]) * TileDelta.PRIME;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copies the pixels of a tile.
+     * @param pixels The pixels of the frame.
+     * @param left The x coordinate of the tile.
+     * @param top The y coordinate of the tile.
+     * @param right The x coordinate after the tile.
+     * @param bottom The y coordinate after the tile.
+     * @return The tile with the copied pixels.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private Tile tile(
+        final int[] pixels, final int left, final int top, final int right,
+        final int bottom
+    ) {
+        final int columns = right - left;
+        final int[] copy = new int[columns * (bottom - top)];
+        for (int row = top; row < bottom; ++row) {
+            System.arraycopy(
+                pixels,
+                row * this.width + left,
+                copy,
+                (row - top) * columns,
+                columns
+            );
+        }
+        return new Tile(left, top, columns, bottom - top, copy);
+    }
+}
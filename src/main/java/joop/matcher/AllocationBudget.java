@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.matcher;
+
+import java.lang.management.ManagementFactory;
+import joop.render.Offscreen;
+import joop.shape.Shape;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+
+/**
+ * A matcher to check that a shape doesn't allocate more than the given amount
+ * of bytes per frame. The shape is rendered offscreen for some frames to warm
+ * up the JIT and then the allocated bytes of the rendering thread are counted
+ * for the measured frames.
+ * <p>This class is immutable and thread-safe, because each match uses its own
+ * offscreen rendering and only counts the allocations of its own thread.</p>
+ * @since 0.47
+ */
+public class AllocationBudget extends TypeSafeDiagnosingMatcher<Shape> {
+    /**
+     * The default size of the rendered frames.
+     */
+    private static final int DEFAULT_SIZE = 200;
+
+    /**
+     * The default amount of frames to warm up the JIT.
+     */
+    private static final int DEFAULT_WARMUP = 2000;
+
+    /**
+     * The default amount of measured frames.
+     */
+    private static final int DEFAULT_FRAMES = 1000;
+
+    /**
+     * The maximal amount of allocated bytes per frame.
+     */
+    private final long budget;
+
+    /**
+     * The width of the rendered frames.
+     */
+    private final int width;
+
+    /**
+     * The height of the rendered frames.
+     */
+    private final int height;
+
+    /**
+     * The amount of frames to render before measuring.
+     */
+    private final int warmup;
+
+    /**
+     * The amount of measured frames.
+     */
+    private final int frames;
+
+    /**
+     * Ctor.
+     * @param budget The maximal amount of allocated bytes per frame.
+     */
+    public AllocationBudget(final long budget) {
+        this(
+            budget,
+            AllocationBudget.DEFAULT_SIZE,
+            AllocationBudget.DEFAULT_SIZE
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param budget The maximal amount of allocated bytes per frame.
+     * @param width The width of the rendered frames.
+     * @param height The height of the rendered frames.
+     */
+    public AllocationBudget(
+        final long budget, final int width, final int height
+    ) {
+        this(
+            budget,
+            width,
+            height,
+            AllocationBudget.DEFAULT_WARMUP,
+            AllocationBudget.DEFAULT_FRAMES
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param budget The maximal amount of allocated bytes per frame.
+     * @param width The width of the rendered frames.
+     * @param height The height of the rendered frames.
+     * @param warmup The amount of frames to render before measuring.
+     * @param frames The amount of measured frames.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public AllocationBudget(
+        final long budget, final int width, final int height,
+        final int warmup, final int frames
+    ) {
+        super();
+        if (frames <= 0) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "At least one frame must be measured. Frames: ",
+                    Integer.toString(frames)
+                )
+            );
+        }
+        this.budget = budget;
+        this.width = width;
+        this.height = height;
+        this.warmup = warmup;
+        this.frames = frames;
+    }
+
+    @Override
+    public final void describeTo(final Description description) {
+        description
+            .appendText("a shape allocating at most ")
+            .appendValue(this.budget)
+            .appendText(" bytes per frame");
+    }
+
+    @Override
+    protected final boolean matchesSafely(
+        final Shape shape, final Description description
+    ) {
+        final java.lang.management.ThreadMXBean bean =
+            ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new IllegalStateException(
+                "The JVM doesn't offer the allocated bytes of a thread"
+            );
+        }
+        final var threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new IllegalStateException(
+                "The JVM doesn't support counting the allocated bytes"
+            );
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final var offscreen = new Offscreen(shape, this.width, this.height);
+        for (int frame = 0; frame < this.warmup; ++frame) {
+            offscreen.image();
+        }
+        final long thread = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(thread);
+        for (int frame = 0; frame < this.frames; ++frame) {
+            offscreen.image();
+        }
+        final long allocated =
+            (threads.getThreadAllocatedBytes(thread) - before) / this.frames;
+        final boolean matches = allocated <= this.budget;
+        if (!matches) {
+            description
+                .appendText("allocated ")
+                .appendValue(allocated)
+                .appendText(" bytes per frame");
+        }
+        return matches;
+    }
+}
@@ -21,45 +21,48 @@
 
 package joop.matcher;
 
-import java.awt.AWTException;
-import java.awt.Rectangle;
-import java.awt.Robot;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import javax.imageio.ImageIO;
+import joop.image.Comparison;
+import joop.render.Offscreen;
 import joop.shape.Shape;
-import joop.window.BaseWindow;
-import net.avh4.util.imagecomparison.hamcrest.ImageComparisonMatchers;
 import net.avh4.util.reflection.StackUtils;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
-import unit.area.AreaOf;
 import unit.functional.Cached;
 import unit.functional.Lazy;
 
 /**
- * A matcher to check whether a window has the expected content.
+ * A matcher to check whether a window has the expected content. The shape is
+ * painted synchronously into an offscreen image with the same paint path as
+ * {@link joop.window.BaseWindow}, so no window or display is needed. On a
+ * mismatch, a heat map of the differences is written to target/diffs.
  * <p>This class is mutable and not thread-safe because of the used cache. </p>
  * @since 0.14
  */
 public class CorrectContent extends TypeSafeDiagnosingMatcher<Shape> {
     /**
-     * The image comparison matcher to check for the content of the window.
+     * The directory for the heat maps of mismatching images.
      */
-    private final Lazy<Matcher<?>> matcher;
+    private static final String DIFFS = "target/diffs";
 
     /**
-     * The recorded image of the window content.
+     * The image comparison matcher to check for the content of the window.
      */
-    private final Lazy<BufferedImage> image;
+    private final Lazy<Matcher<BufferedImage>> matcher;
 
     /**
-     * The width of the window to create.
+     * The width of the painted content.
      */
     private final int width;
 
     /**
-     * The height of the window to create.
+     * The height of the painted content.
      */
     private final int height;
 
@@ -67,8 +70,8 @@ public class CorrectContent extends TypeSafeDiagnosingMatcher<Shape> {
      * Ctor.
      * @param path The path to the image that contains the expected look of
      *  window content.
-     * @param width The width of the window to create.
-     * @param height The height of the window to create.
+     * @param width The width of the painted content.
+     * @param height The height of the painted content.
      */
     public CorrectContent(
         final String path, final int width, final int height
@@ -89,30 +92,38 @@ public class CorrectContent extends TypeSafeDiagnosingMatcher<Shape> {
                         exception
                     );
                 }
-                try {
-                    return ImageComparisonMatchers.looksLike(path, clazz);
-                } catch (final IOException exception) {
-                    throw new IllegalStateException(
-                        "The path to the image seems to be wrong.", exception
-                    );
-                }
+                return new LooksLike(
+                    path,
+                    new Cached<>(
+                        () -> {
+                            final URL resource = clazz.getResource(path);
+                            if (resource == null) {
+                                throw new IllegalStateException(
+                                    String.join(
+                                        "",
+                                        "The path to the image seems to be ",
+                                        "wrong: ",
+                                        path
+                                    )
+                                );
+                            }
+                            try {
+                                return ImageIO.read(resource);
+                            } catch (final IOException exception) {
+                                throw new UncheckedIOException(
+                                    "Couldn't read the expected image.",
+                                    exception
+                                );
+                            }
+                        }
+                    ),
+                    new Comparison(),
+                    new File(CorrectContent.DIFFS, path)
+                );
             }
         );
         this.width = width;
         this.height = height;
-        this.image = new Cached<>(
-            () -> {
-                try {
-                    return new Robot().createScreenCapture(
-                        new Rectangle(0, 0, this.width, this.height)
-                    );
-                } catch (final AWTException exception) {
-                    throw new IllegalStateException(
-                        "Robot screen capture failed", exception
-                    );
-                }
-            }
-        );
     }
 
     @Override
@@ -124,24 +135,12 @@ public class CorrectContent extends TypeSafeDiagnosingMatcher<Shape> {
     protected final boolean matchesSafely(
         final Shape shape, final Description description
     ) {
-        new BaseWindow(
-            new AreaOf(this.width, this.height),
-            shape
-        ).show();
-        try {
-            final var sleep = 250L;
-            Thread.sleep(sleep);
-        } catch (final InterruptedException exception) {
-            Thread.currentThread().interrupt();
-            throw new IllegalStateException(exception);
-        }
-        final boolean matches = this.matcher.value().matches(
-            this.image.value()
-        );
+        final BufferedImage image = new Offscreen(
+            shape, this.width, this.height
+        ).image();
+        final boolean matches = this.matcher.value().matches(image);
         if (!matches) {
-            this.matcher.value().describeMismatch(
-                this.image.value(), description
-            );
+            this.matcher.value().describeMismatch(image, description);
         }
         return matches;
     }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.matcher;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import joop.image.Comparison;
+import joop.image.Png;
+import org.hamcrest.Description;
+import org.hamcrest.TypeSafeDiagnosingMatcher;
+import unit.functional.Lazy;
+
+/**
+ * A matcher to check whether an image looks like the expected image. On a
+ * mismatch, a heat map of the differences is written next to the actual
+ * image into the given diff file.
+ * <p>This class doesn't change its own state, but it writes files on a
+ * mismatch. Whether it is immutable or not, depends on the given loading of
+ * the expected image.</p>
+ * @see Comparison
+ * @since 0.47
+ */
+public class LooksLike extends TypeSafeDiagnosingMatcher<BufferedImage> {
+    /**
+     * The source of the expected image, like its path.
+     */
+    private final String source;
+
+    /**
+     * The loading of the expected image.
+     */
+    private final Lazy<BufferedImage> expected;
+
+    /**
+     * The comparison of the images.
+     */
+    private final Comparison comparison;
+
+    /**
+     * The file to write the heat map of the differences to. The actual image
+     * is written next to it.
+     */
+    private final File diff;
+
+    /**
+     * Ctor.
+     * @param source The source of the expected image, like its path.
+     * @param expected The loading of the expected image.
+     * @param comparison The comparison of the images.
+     * @param diff The file to write the heat map of the differences to. The
+     *  actual image is written next to it.
+     */
+    public LooksLike(
+        final String source,
+        final Lazy<BufferedImage> expected,
+        final Comparison comparison,
+        final File diff
+    ) {
+        super();
+        this.source = source;
+        this.expected = expected;
+        this.comparison = comparison;
+        this.diff = diff;
+    }
+
+    @Override
+    public final void describeTo(final Description description) {
+        final BufferedImage image = this.expected.value();
+        description
+            .appendText("an image looking like ")
+            .appendValue(this.source)
+            .appendText(" with the size ")
+            .appendValue(image.getWidth())
+            .appendText("x")
+            .appendValue(image.getHeight());
+    }
+
+    @Override
+    protected final boolean matchesSafely(
+        final BufferedImage actual, final Description description
+    ) {
+        final BufferedImage image = this.expected.value();
+        final boolean matches;
+        if (image.getWidth() == actual.getWidth()
+            && image.getHeight() == actual.getHeight()) {
+            matches = this.comparison.similar(image, actual);
+            if (!matches) {
+                new Png().write(
+                    this.comparison.heatmap(image, actual), this.diff
+                );
+                new Png().write(
+                    actual,
+                    new File(
+                        this.diff.getParentFile(),
+                        String.join("", "actual-", this.diff.getName())
+                    )
+                );
+                description
+                    .appendText("at least ")
+                    .appendValue(this.comparison.differences(image, actual))
+                    .appendText(" pixels differed, see ")
+                    .appendValue(this.diff.getPath());
+            }
+        } else {
+            matches = false;
+            description
+                .appendText("had the size ")
+                .appendValue(actual.getWidth())
+                .appendText("x")
+                .appendValue(actual.getHeight())
+                .appendText(" instead of ")
+                .appendValue(image.getWidth())
+                .appendText("x")
+                .appendValue(image.getHeight());
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.remote;
+
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A simple blocking client of a {@link FrameServer}. It rebuilds the frames
+ * from the received deltas and sends mouse input back. It's meant for tests
+ * and as an example of the protocol.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ */
+public class FrameClient implements AutoCloseable {
+    /**
+     * The connection to the server.
+     */
+    private final Lazy<Socket> socket;
+
+    /**
+     * The input from the server.
+     */
+    private final Lazy<DataInputStream> input;
+
+    /**
+     * The output to the server.
+     */
+    private final Lazy<DataOutputStream> output;
+
+    /**
+     * The rebuilt frame. It's null until the first key frame arrived.
+     */
+    private BufferedImage frame;
+
+    /**
+     * Ctor.
+     * @param address The address of the server.
+     */
+    public FrameClient(final InetSocketAddress address) {
+        this.socket = new Cached<>(
+            () -> {
+                try {
+                    return new Socket(address.getAddress(), address.getPort());
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(
+                        String.join(
+                            "", "Couldn't connect to ", address.toString()
+                        ),
+                        exception
+                    );
+                }
+            }
+        );
+        this.input = new Cached<>(
+            () -> {
+                try {
+                    return new DataInputStream(
+                        new BufferedInputStream(
+                            this.socket.value().getInputStream()
+                        )
+                    );
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(
+                        "Couldn't get the input from the server", exception
+                    );
+                }
+            }
+        );
+        this.output = new Cached<>(
+            () -> {
+                try {
+                    return new DataOutputStream(
+                        new BufferedOutputStream(
+                            this.socket.value().getOutputStream()
+                        )
+                    );
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(
+                        "Couldn't get the output to the server", exception
+                    );
+                }
+            }
+        );
+        this.frame = null;
+    }
+
+    /**
+     * Waits for the next frame from the server and returns it. The returned
+     * image is reused for the following frames.
+     * @return The current frame.
+     * @throws IOException If the reading failed.
+     */
+    public final BufferedImage frame() throws IOException {
+        final DataInputStream in = this.input.value();
+        in.readInt();
+        final boolean key = in.readBoolean();
+        final int width = in.readInt();
+        final int height = in.readInt();
+        if (key && (this.frame == null || this.frame.getWidth() != width
+            || this.frame.getHeight() != height)) {
+            this.frame = new BufferedImage(
+                width, height, BufferedImage.TYPE_INT_ARGB
+            );
+        }
+        if (this.frame == null) {
+            throw new IOException("The first frame wasn't a key frame");
+        }
+        final int tiles = in.readInt();
+        for (int tile = 0; tile < tiles; ++tile) {
+            final int left = in.readInt();
+            final int top = in.readInt();
+            final int columns = in.readInt();
+            final int rows = in.readInt();
+            final int[] pixels = new int[columns * rows];
+            for (int index = 0; index < pixels.length; ++index) {
+                pixels[index] = in.readInt();
+            }
+            this.frame.setRGB(left, top, columns, rows, pixels, 0, columns);
+        }
+        return this.frame;
+    }
+
+    /**
+     * Sends a mouse press to the server.
+     * @param horizontal The x coordinate of the press.
+     * @param vertical The y coordinate of the press.
+     * @throws IOException If the sending failed.
+     */
+    public final void press(final int horizontal, final int vertical)
+        throws IOException {
+        this.send(MouseEvent.MOUSE_PRESSED, horizontal, vertical);
+    }
+
+    /**
+     * Sends a mouse release to the server.
+     * @param horizontal The x coordinate of the release.
+     * @param vertical The y coordinate of the release.
+     * @throws IOException If the sending failed.
+     */
+    public final void release(final int horizontal, final int vertical)
+        throws IOException {
+        this.send(MouseEvent.MOUSE_RELEASED, horizontal, vertical);
+    }
+
+    @Override
+    public final void close() throws IOException {
+        this.socket.value().close();
+    }
+
+    /**
+     * Sends a mouse event of the first button to the server.
+     * @param event The id of the mouse event.
+     * @param horizontal The x coordinate of the event.
+     * @param vertical The y coordinate of the event.
+     * @throws IOException If the sending failed.
+     */
+    private void send(final int event, final int horizontal, final int vertical)
+        throws IOException {
+        final DataOutputStream out = this.output.value();
+        out.writeInt(event);
+        out.writeInt(horizontal);
+        out.writeInt(vertical);
+        out.writeInt(MouseEvent.BUTTON1);
+        out.flush();
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.remote;
+
+import java.awt.Container;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import joop.event.mouse.RelayMouse;
+import joop.image.TileDelta;
+import joop.render.Offscreen;
+import joop.shape.Shape;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A server that renders a shape offscreen and streams the frames to many
+ * clients over a non-blocking socket, without a window per client. Each frame
+ * is rendered once and only its changed tiles are sent. A client that can't
+ * keep up skips frames and gets a key frame when it's ready again. The mouse
+ * input of the clients is relayed to the events of the shape. The rendering,
+ * the networking and the events all happen on the single thread of the
+ * server, so the shape doesn't need to be thread-safe.
+ * <p>This class is mutable and not thread-safe. It must be started and closed
+ * by the same thread.</p>
+ * @see FrameClient
+ * @since 0.47
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+public class FrameServer implements AutoCloseable {
+    /**
+     * The nanoseconds of a second.
+     */
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+    /**
+     * The width and height of the tiles.
+     */
+    private static final int TILE = 64;
+
+    /**
+     * The shape to render.
+     */
+    private final Shape shape;
+
+    /**
+     * The width of the frames.
+     */
+    private final int width;
+
+    /**
+     * The height of the frames.
+     */
+    private final int height;
+
+    /**
+     * The address to listen on.
+     */
+    private final InetSocketAddress address;
+
+    /**
+     * The nanoseconds between the frames.
+     */
+    private final long delay;
+
+    /**
+     * The selector of the channels.
+     */
+    private final Lazy<Selector> selector;
+
+    /**
+     * The channel accepting the clients.
+     */
+    private final Lazy<ServerSocketChannel> server;
+
+    /**
+     * The thread of the server. It's null if it wasn't started.
+     */
+    private Thread thread;
+
+    /**
+     * Whether the server shall keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Ctor.
+     * @param shape The shape to render.
+     * @param width The width of the frames.
+     * @param height The height of the frames.
+     * @param address The address to listen on. Use port 0 for any free port.
+     * @param rate The frames per second. It must be positive.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public FrameServer(
+        final Shape shape, final int width, final int height,
+        final InetSocketAddress address, final int rate
+    ) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The rate must be at least one frame per second. Rate: ",
+                    Integer.toString(rate)
+                )
+            );
+        }
+        this.shape = shape;
+        this.width = width;
+        this.height = height;
+        this.address = address;
+        this.delay = FrameServer.SECOND / rate;
+        this.selector = new Cached<>(
+            () -> {
+                try {
+                    return Selector.open();
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(
+                        "Couldn't open the selector", exception
+                    );
+                }
+            }
+        );
+        this.server = new Cached<>(
+            () -> {
+                try {
+                    final var result = ServerSocketChannel.open();
+                    result.bind(this.address);
+                    result.configureBlocking(false);
+                    result.register(
+                        this.selector.value(), SelectionKey.OP_ACCEPT
+                    );
+                    return result;
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(
+                        String.join(
+                            "",
+                            "Couldn't listen on ",
+                            this.address.toString()
+                        ),
+                        exception
+                    );
+                }
+            }
+        );
+        this.thread = null;
+        this.running = false;
+    }
+
+    /**
+     * Starts listening and streaming. This method is a no-op if the server is
+     * already started.
+     */
+    public final void start() {
+        if (this.thread == null) {
+            this.server.value();
+            this.running = true;
+            this.thread = new Thread(this::serve, "joop-frame-server");
+            this.thread.start();
+        }
+    }
+
+    /**
+     * Returns the port the server listens on. This is useful if the server
+     * was started with port 0.
+     * @return The port.
+     */
+    public final int port() {
+        try {
+            return ((InetSocketAddress) this.server.value().getLocalAddress())
+                .getPort();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't get the port of the server", exception
+            );
+        }
+    }
+
+    /**
+     * Stops the server and closes every connection.
+     */
+    @Override
+    public final void close() {
+        this.running = false;
+        if (this.thread != null) {
+            this.selector.value().wakeup();
+            try {
+                this.thread.join();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(
+                    "Interrupted while stopping the server", exception
+                );
+            }
+        }
+        try {
+            this.server.value().close();
+            this.selector.value().close();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't close the server", exception
+            );
+        }
+    }
+
+    /**
+     * Serves the clients until the server is closed.
+     */
+    private void serve() {
+        final var offscreen = new Offscreen(
+            this.shape, this.width, this.height
+        );
+        final var message = new Message();
+        final var delta = new TileDelta(message);
+        final var mouse = new RelayMouse();
+        final var source = new Container();
+        final Collection<Subscriber> subscribers = new ArrayList<>(1);
+        this.shape.registerFor(mouse);
+        long next = System.nanoTime();
+        try {
+            while (this.running) {
+                final long wait = TimeUnit.NANOSECONDS.toMillis(
+                    next - System.nanoTime()
+                );
+                if (wait > 0L) {
+                    this.selector.value().select(wait);
+                } else {
+                    this.selector.value().selectNow();
+                }
+                this.handle(subscribers, mouse, source);
+                final long now = System.nanoTime();
+                if (now - next >= 0L) {
+                    if (!subscribers.isEmpty()) {
+                        final BufferedImage frame = offscreen.image();
+                        delta.accept(frame);
+                        this.publish(
+                            subscribers,
+                            message.take(),
+                            new Cached<>(
+                                () -> {
+                                    final var key = new Message();
+                                    new TileDelta(FrameServer.TILE, 1, key)
+                                        .accept(frame);
+                                    return key.take();
+                                }
+                            )
+                        );
+                    }
+                    next = Math.max(next + this.delay, now);
+                }
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("The server failed", exception);
+        } finally {
+            for (final Subscriber subscriber : subscribers) {
+                this.quietlyClose(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Handles the selected channels: Accepts new clients, reads the input of
+     * the clients and continues writing pending frames.
+     * @param subscribers The connected clients.
+     * @param mouse The mouse to relay the input to.
+     * @param source The source component of the relayed mouse events.
+     * @throws IOException If accepting a client failed.
+     */
+    private void handle(
+        final Collection<Subscriber> subscribers,
+        final RelayMouse mouse,
+        final Container source
+    ) throws IOException {
+        final Iterator<SelectionKey> keys =
+            this.selector.value().selectedKeys().iterator();
+        while (keys.hasNext()) {
+            final SelectionKey key = keys.next();
+            keys.remove();
+            if (key.isValid() && key.isAcceptable()) {
+                final SocketChannel channel = this.server.value().accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    final var subscriber = new Subscriber(channel);
+                    channel.register(
+                        this.selector.value(), SelectionKey.OP_READ, subscriber
+                    );
+                    subscribers.add(subscriber);
+                }
+            } else {
+                final var subscriber = (Subscriber) key.attachment();
+                try {
+                    if (key.isValid() && key.isReadable()
+                        && !subscriber.read(mouse, source)) {
+                        throw new IOException("The client disconnected");
+                    }
+                    if (key.isValid() && key.isWritable()
+                        && !subscriber.flush()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                } catch (final IOException exception) {
+                    key.cancel();
+                    subscribers.remove(subscriber);
+                    this.quietlyClose(subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Offers the current frame to every client and starts writing it.
+     * @param subscribers The connected clients.
+     * @param changes The changed tiles of the frame or null if the frame
+     *  didn't change.
+     * @param key The key frame of the current frame.
+     */
+    private void publish(
+        final Collection<Subscriber> subscribers,
+        final ByteBuffer changes,
+        final Lazy<ByteBuffer> key
+    ) {
+        final Iterator<Subscriber> iterator = subscribers.iterator();
+        while (iterator.hasNext()) {
+            final Subscriber subscriber = iterator.next();
+            subscriber.offer(changes, key::value);
+            final SelectionKey selection = subscriber.key(
+                this.selector.value()
+            );
+            try {
+                if (subscriber.flush()) {
+                    selection.interestOps(
+                        SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    );
+                }
+            } catch (final IOException exception) {
+                selection.cancel();
+                iterator.remove();
+                this.quietlyClose(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Closes the connection to a client and ignores failures, because the
+     * client is gone either way.
+     * @param subscriber The client.
+     */
+    private void quietlyClose(final Subscriber subscriber) {
+        try {
+            subscriber.close();
+        } catch (final IOException ignored) {
+            // the connection is unusable anyway
+        }
+    }
+}
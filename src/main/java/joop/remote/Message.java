@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.remote;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import joop.image.Delta;
+
+/**
+ * The last delta as a message of the protocol: Its length followed by the
+ * written delta.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ */
+final class Message implements Consumer<Delta> {
+    /**
+     * The bytes of an int.
+     */
+    private static final int INT = 4;
+
+    /**
+     * The last message. It's null if there is no new message.
+     */
+    private ByteBuffer last;
+
+    /**
+     * Ctor.
+     */
+    Message() {
+        this.last = null;
+    }
+
+    @Override
+    public void accept(final Delta delta) {
+        final var bytes = new ByteArrayOutputStream();
+        try (var output = new DataOutputStream(bytes)) {
+            output.writeInt(0);
+            delta.write(output);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't write the delta into memory", exception
+            );
+        }
+        final ByteBuffer result = ByteBuffer.wrap(bytes.toByteArray());
+        result.putInt(0, result.capacity() - Message.INT);
+        this.last = result.asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the last message and forgets it.
+     * @return The last message or null if there is no new message.
+     */
+    ByteBuffer take() {
+        final ByteBuffer result = this.last;
+        this.last = null;
+        return result;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.remote;
+
+import java.awt.Component;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.function.Supplier;
+import joop.event.mouse.RelayMouse;
+
+/**
+ * A client connected to a {@link FrameServer}. It gets at most one frame at a
+ * time. While a frame is still being written, newer frames are skipped and
+ * the client gets a key frame afterwards to catch up.
+ * <p>This class is mutable and not thread-safe. It's confined to the thread
+ * of the server.</p>
+ * @since 0.47
+ */
+final class Subscriber {
+    /**
+     * The bytes of an input message.
+     */
+    private static final int INPUT = 16;
+
+    /**
+     * The channel to the client.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * The partially read input message.
+     */
+    private final ByteBuffer input;
+
+    /**
+     * The frame that is being written. It's null if there is none.
+     */
+    private ByteBuffer pending;
+
+    /**
+     * Whether the client missed a frame and needs a key frame.
+     */
+    private boolean stale;
+
+    /**
+     * Ctor. The client needs a key frame first.
+     * @param channel The channel to the client.
+     */
+    Subscriber(final SocketChannel channel) {
+        this.channel = channel;
+        this.input = ByteBuffer.allocate(Subscriber.INPUT);
+        this.pending = null;
+        this.stale = true;
+    }
+
+    /**
+     * Offers the current frame to the client. It's skipped, if the client
+     * still gets a previous frame.
+     * @param delta The delta to the previous frame or null if the frame
+     *  didn't change.
+     * @param key The key frame of the current frame.
+     */
+    void offer(final ByteBuffer delta, final Supplier<ByteBuffer> key) {
+        if (this.pending == null) {
+            if (this.stale) {
+                this.pending = key.get().duplicate();
+                this.stale = false;
+            } else if (delta != null) {
+                this.pending = delta.duplicate();
+            }
+        } else if (delta != null) {
+            this.stale = true;
+        }
+    }
+
+    /**
+     * Writes as much as possible of the pending frame.
+     * @return True if a part of the frame is left.
+     * @throws IOException If the writing failed.
+     */
+    boolean flush() throws IOException {
+        if (this.pending != null) {
+            this.channel.write(this.pending);
+            if (!this.pending.hasRemaining()) {
+                this.pending = null;
+            }
+        }
+        return this.pending != null;
+    }
+
+    /**
+     * Reads the available input and relays the complete mouse events. Mouse
+     * wheel events aren't supported.
+     * @param mouse The mouse to relay the events to.
+     * @param source The component to use as the source of the events.
+     * @return False if the client closed the connection.
+     * @throws IOException If the reading failed.
+     */
+    boolean read(final RelayMouse mouse, final Component source)
+        throws IOException {
+        int read = this.channel.read(this.input);
+        while (read > 0) {
+            if (!this.input.hasRemaining()) {
+                this.input.flip();
+                final int event = this.input.getInt();
+                if (event < MouseEvent.MOUSE_FIRST
+                    || event > MouseEvent.MOUSE_LAST
+                    || event == MouseEvent.MOUSE_WHEEL) {
+                    throw new IOException(
+                        String.join(
+                            "",
+                            "The client sent an unsupported mouse event: ",
+                            Integer.toString(event)
+                        )
+                    );
+                }
+                mouse.relay(
+                    new MouseEvent(
+                        source,
+                        event,
+                        System.currentTimeMillis(),
+                        0,
+                        this.input.getInt(),
+                        this.input.getInt(),
+                        1,
+                        false,
+                        this.input.getInt()
+                    )
+                );
+                this.input.clear();
+            }
+            read = this.channel.read(this.input);
+        }
+        return read >= 0;
+    }
+
+    /**
+     * Returns the selection key of the channel to the client.
+     * @param selector The selector the channel is registered with.
+     * @return The selection key.
+     */
+    SelectionKey key(final Selector selector) {
+        return this.channel.keyFor(selector);
+    }
+
+    /**
+     * Closes the connection to the client.
+     * @throws IOException If the closing failed.
+     */
+    void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A surface that records the drawings with their bounds, so that they can
+ * be replayed on other surfaces later. A replay can be restricted to a
+ * rectangle, which skips the drawings outside of it. The changes of the
+ * color, the font, the rendering hints and the clip are always replayed.
+ * <p>This class is mutable and not thread-safe while recording. Replaying
+ * doesn't change it, so the recorded drawings can be replayed by several
+ * threads at once.</p>
+ * @since 0.47
+ */
+final class DrawingLog implements Surface {
+    /**
+     * The recorded drawings and changes of the state.
+     */
+    private final List<Consumer<Surface>> commands;
+
+    /**
+     * The graphics for the shapes.
+     */
+    private final Lazy<Graphics> adapter;
+
+    /**
+     * The graphics to measure fonts with.
+     */
+    private final Lazy<Graphics2D> probe;
+
+    /**
+     * The current clip as left, top, width and height.
+     */
+    private final int[] clipping;
+
+    /**
+     * The left, top, right and bottom of each command.
+     */
+    private int[] bounds;
+
+    /**
+     * The current color.
+     */
+    private Color color;
+
+    /**
+     * The current font.
+     */
+    private Font font;
+
+    /**
+     * The current rendering hints.
+     */
+    private RenderingHints hints;
+
+    /**
+     * Ctor.
+     */
+    DrawingLog() {
+        this.commands = new ArrayList<>(0);
+        this.adapter = new Cached<>(() -> new SurfaceGraphics(this));
+        this.probe = new Cached<>(
+            () -> new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+                .createGraphics()
+        );
+        this.bounds = new int[0];
+        this.color = Color.BLACK;
+        // @checkstyle MagicNumber (1 line)
+        this.font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        this.hints = new RenderingHints(null);
+        this.clipping = new int[]{
+            0, 0, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2,
+        };
+    }
+
+    /**
+     * Removes the recorded drawings. The current state is recorded again,
+     * so that the next recording is complete on its own.
+     */
+    void clear() {
+        this.commands.clear();
+        final Color current = this.color;
+        final Font typeface = this.font;
+        final RenderingHints preferences = this.hints;
+        final int[] clip = this.clipping.clone();
+        this.state(surface -> surface.color(current));
+        this.state(surface -> surface.font(typeface));
+        this.state(surface -> surface.hints(preferences));
+        // @checkstyle MagicNumber (3 lines)
+        this.state(
+            surface -> surface.clip(clip[0], clip[1], clip[2], clip[3])
+        );
+    }
+
+    /**
+     * Replays the drawings that intersect a rectangle.
+     * @param target The surface to replay on.
+     * @param left The x coordinate of the rectangle.
+     * @param top The y coordinate of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    void replay(
+        final Surface target, final int left, final int top,
+        final int width, final int height
+    ) {
+        final int right = left + width;
+        final int bottom = top + height;
+        final int count = this.commands.size();
+        for (int index = 0; index < count; ++index) {
+            final int first = index * 4;
+            // @checkstyle MagicNumber (2 lines)
+            if (this.bounds[first] < right && this.bounds[first + 2] > left
+                && this.bounds[first + 1] < bottom
+                && this.bounds[first + 3] > top) {
+                this.commands.get(index).accept(target);
+            }
+        }
+    }
+
+    @Override
+    public Graphics graphics() {
+        return this.adapter.value();
+    }
+
+    @Override
+    public void color(final Color value) {
+        this.color = value;
+        this.state(surface -> surface.color(value));
+    }
+
+    @Override
+    public void font(final Font value) {
+        this.font = value;
+        this.state(surface -> surface.font(value));
+    }
+
+    @Override
+    public void hints(final RenderingHints value) {
+        this.hints = value;
+        this.state(surface -> surface.hints(value));
+    }
+
+    @Override
+    public FontMetrics metrics(final Font value) {
+        return this.probe.value().getFontMetrics(value);
+    }
+
+    @Override
+    public void clip(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.clipping[0] = left;
+        this.clipping[1] = top;
+        this.clipping[2] = width;
+        // @checkstyle MagicNumber (1 line)
+        this.clipping[3] = height;
+        this.state(surface -> surface.clip(left, top, width, height));
+    }
+
+    @Override
+    public void fill(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.record(
+            surface -> surface.fill(left, top, width, height),
+            left, top, left + width, top + height
+        );
+    }
+
+    // @checkstyle ParameterName (3 lines)
+    @Override
+    public void line(final int fx, final int fy, final int sx, final int sy) {
+        this.record(
+            surface -> surface.line(fx, fy, sx, sy),
+            Math.min(fx, sx), Math.min(fy, sy),
+            Math.max(fx, sx) + 1, Math.max(fy, sy) + 1
+        );
+    }
+
+    @Override
+    public void oval(
+        final int left, final int top, final int width, final int height,
+        final boolean filled
+    ) {
+        this.record(
+            surface -> surface.oval(left, top, width, height, filled),
+            left, top, left + width + 1, top + height + 1
+        );
+    }
+
+    @Override
+    public void polyline(
+        final int[] horizontal, final int[] vertical, final int count,
+        final boolean closed
+    ) {
+        final int[] columns = Arrays.copyOf(horizontal, count);
+        final int[] rows = Arrays.copyOf(vertical, count);
+        this.points(
+            surface -> surface.polyline(columns, rows, count, closed),
+            columns, rows
+        );
+    }
+
+    @Override
+    public void polygon(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        final int[] columns = Arrays.copyOf(horizontal, count);
+        final int[] rows = Arrays.copyOf(vertical, count);
+        this.points(
+            surface -> surface.polygon(columns, rows, count), columns, rows
+        );
+    }
+
+    @Override
+    public void area(final Shape shape) {
+        final Shape copy = new Path2D.Float(shape);
+        final var box = copy.getBounds();
+        this.record(
+            surface -> surface.area(copy),
+            box.x, box.y, box.x + box.width + 1, box.y + box.height + 1
+        );
+    }
+
+    @Override
+    public void image(
+        final Image image, final int[] target, final int[] source
+    ) {
+        final int[] to = target.clone();
+        final int[] from = source.clone();
+        // @checkstyle MagicNumber (3 lines)
+        this.record(
+            surface -> surface.image(image, to, from),
+            Math.min(to[0], to[2]), Math.min(to[1], to[3]),
+            Math.max(to[0], to[2]), Math.max(to[1], to[3])
+        );
+    }
+
+    @Override
+    public void text(final String text, final int left, final int top) {
+        final FontMetrics metrics = this.metrics(this.font);
+        this.record(
+            surface -> surface.text(text, left, top),
+            left - metrics.getMaxAdvance(), top - metrics.getMaxAscent(),
+            left + metrics.stringWidth(text) + metrics.getMaxAdvance(),
+            top + metrics.getMaxDescent() + 1
+        );
+    }
+
+    /**
+     * Records a drawing through points.
+     * @param command The drawing.
+     * @param columns The x coordinates of the points.
+     * @param rows The y coordinates of the points.
+     */
+    private void points(
+        final Consumer<Surface> command, final int[] columns,
+        final int[] rows
+    ) {
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = Integer.MIN_VALUE;
+        int bottom = Integer.MIN_VALUE;
+        for (int index = 0; index < columns.length; ++index) {
+            left = Math.min(left, columns[index]);
+            top = Math.min(top, rows[index]);
+            right = Math.max(right, columns[index] + 1);
+            bottom = Math.max(bottom, rows[index] + 1);
+        }
+        this.record(command, left, top, right, bottom);
+    }
+
+    /**
+     * Records a change of the state, which is replayed everywhere.
+     * @param command The change.
+     */
+    private void state(final Consumer<Surface> command) {
+        this.record(
+            command, Integer.MIN_VALUE, Integer.MIN_VALUE,
+            Integer.MAX_VALUE, Integer.MAX_VALUE
+        );
+    }
+
+    /**
+     * Records a command with its bounds.
+     * @param command The command.
+     * @param left The smallest x coordinate.
+     * @param top The smallest y coordinate.
+     * @param right The x coordinate after the largest one.
+     * @param bottom The y coordinate after the largest one.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private void record(
+        final Consumer<Surface> command, final int left, final int top,
+        final int right, final int bottom
+    ) {
+        final int first = this.commands.size() * 4;
+        if (first == this.bounds.length) {
+            // @checkstyle MagicNumber (1 line)
+            this.bounds = Arrays.copyOf(this.bounds, Math.max(64, first * 2));
+        }
+        this.bounds[first] = left;
+        this.bounds[first + 1] = top;
+        this.bounds[first + 2] = right;
+        // @checkstyle MagicNumber (1 line)
+        this.bounds[first + 3] = bottom;
+        this.commands.add(command);
+    }
+}
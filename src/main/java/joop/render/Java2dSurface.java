@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+
+/**
+ * The surface of Java2D graphics, as used by {@link joop.window.BaseWindow}.
+ * The shapes draw on the graphics themselves, so they keep every feature of
+ * Java2D. Areas and rendering hints are only used on {@link Graphics2D}.
+ * <p>This class doesn't change its own state, but it changes the state of
+ * the graphics.</p>
+ * @since 0.47
+ */
+public class Java2dSurface implements Surface {
+    /**
+     * The graphics to paint on.
+     */
+    private final Graphics target;
+
+    /**
+     * Ctor.
+     * @param target The graphics to paint on.
+     */
+    public Java2dSurface(final Graphics target) {
+        this.target = target;
+    }
+
+    @Override
+    public final Graphics graphics() {
+        return this.target;
+    }
+
+    @Override
+    public final void color(final Color color) {
+        this.target.setColor(color);
+    }
+
+    @Override
+    public final void font(final Font font) {
+        this.target.setFont(font);
+    }
+
+    @Override
+    public final void hints(final RenderingHints hints) {
+        if (this.target instanceof Graphics2D) {
+            ((Graphics2D) this.target).setRenderingHints(hints);
+        }
+    }
+
+    @Override
+    public final FontMetrics metrics(final Font font) {
+        return this.target.getFontMetrics(font);
+    }
+
+    @Override
+    public final void clip(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.target.setClip(left, top, width, height);
+    }
+
+    @Override
+    public final void fill(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.target.fillRect(left, top, width, height);
+    }
+
+    // @checkstyle ParameterName (3 lines)
+    @Override
+    public final void line(
+        final int fx, final int fy, final int sx, final int sy
+    ) {
+        this.target.drawLine(fx, fy, sx, sy);
+    }
+
+    @Override
+    public final void oval(
+        final int left, final int top, final int width, final int height,
+        final boolean filled
+    ) {
+        if (filled) {
+            this.target.fillOval(left, top, width, height);
+        } else {
+            this.target.drawOval(left, top, width, height);
+        }
+    }
+
+    @Override
+    public final void polyline(
+        final int[] horizontal, final int[] vertical, final int count,
+        final boolean closed
+    ) {
+        if (closed) {
+            this.target.drawPolygon(horizontal, vertical, count);
+        } else {
+            this.target.drawPolyline(horizontal, vertical, count);
+        }
+    }
+
+    @Override
+    public final void polygon(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        this.target.fillPolygon(horizontal, vertical, count);
+    }
+
+    @Override
+    public final void area(final Shape shape) {
+        if (this.target instanceof Graphics2D) {
+            ((Graphics2D) this.target).fill(shape);
+        }
+    }
+
+    @Override
+    public final void image(
+        final Image image, final int[] target, final int[] source
+    ) {
+        // @checkstyle MagicNumber (3 lines)
+        this.target.drawImage(
+            image, target[0], target[1], target[2], target[3],
+            source[0], source[1], source[2], source[3], null
+        );
+    }
+
+    @Override
+    public final void text(final String text, final int left, final int top) {
+        this.target.drawString(text, left, top);
+    }
+}
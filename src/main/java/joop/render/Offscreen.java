@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.image.BufferedImage;
+import java.util.function.Function;
+import joop.shape.Shape;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A shape rendered into an image instead of a window. The image and its
+ * surface are created once and reused for every frame, so rendering a frame
+ * doesn't allocate anything besides what the shape allocates itself.
+ * <p>This class is mutable and not thread-safe, because each call of
+ * {@link #image()} paints over the same image.</p>
+ * @since 0.47
+ */
+public class Offscreen {
+    /**
+     * The scene to paint.
+     */
+    private final Scene scene;
+
+    /**
+     * The image to paint on.
+     */
+    private final Lazy<BufferedImage> target;
+
+    /**
+     * The surface of the image.
+     */
+    private final Lazy<Surface> surface;
+
+    /**
+     * Ctor.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     */
+    public Offscreen(final Shape shape, final int width, final int height) {
+        this(
+            shape, width, height,
+            image -> new Java2dSurface(image.createGraphics())
+        );
+    }
+
+    /**
+     * Ctor. The backend paints the frames on the image, for example
+     * {@code RasterSurface::new} to rasterize in software.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param backend The creation of the surface of the image.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public Offscreen(
+        final Shape shape, final int width, final int height,
+        final Function<BufferedImage, Surface> backend
+    ) {
+        this(
+            new Scene(shape),
+            new Cached<>(
+                () -> new BufferedImage(
+                    width, height, BufferedImage.TYPE_INT_ARGB
+                )
+            ),
+            backend
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param scene The scene to paint.
+     * @param target The image to paint on.
+     * @param backend The creation of the surface of the image.
+     */
+    private Offscreen(
+        final Scene scene, final Lazy<BufferedImage> target,
+        final Function<BufferedImage, Surface> backend
+    ) {
+        this.scene = scene;
+        this.target = target;
+        this.surface = new Cached<>(
+            () -> backend.apply(this.target.value())
+        );
+    }
+
+    /**
+     * Renders a frame. The returned image is the same for each call and will
+     * be overwritten by the next call.
+     * @return The image with the rendered frame.
+     */
+    public final BufferedImage image() {
+        final BufferedImage result = this.target.value();
+        this.scene.paint(
+            this.surface.value(), result.getWidth(), result.getHeight()
+        );
+        return result;
+    }
+}
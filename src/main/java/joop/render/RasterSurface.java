@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import joop.image.Raster;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A surface that rasterizes rects, lines and filled ovals in software with
+ * a {@link Rasterizer} instead of Java2D. Everything else, like text,
+ * images, polygons and areas, is drawn by the Java2D graphics of the same
+ * image. Antialiased lines and ovals are drawn by Java2D as well, because the
+ * rasterizer doesn't antialias. It can be selected for an {@link Offscreen}
+ * with {@code RasterSurface::new}.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ */
+public class RasterSurface implements Surface {
+    /**
+     * The rasterizer of the pixels.
+     */
+    private final Rasterizer rasterizer;
+
+    /**
+     * The Java2D graphics of the same image.
+     */
+    private final Graphics2D fallback;
+
+    /**
+     * The graphics for the shapes.
+     */
+    private final Lazy<Graphics> adapter;
+
+    /**
+     * The current ARGB color.
+     */
+    private int argb;
+
+    /**
+     * Whether the shapes are antialiased.
+     */
+    private boolean smooth;
+
+    /**
+     * Ctor.
+     * @param image An image of the type {@link BufferedImage#TYPE_INT_ARGB}.
+     */
+    public RasterSurface(final BufferedImage image) {
+        this.rasterizer = new Rasterizer(
+            RasterSurface.pixels(image), image.getWidth(), image.getHeight()
+        );
+        this.fallback = image.createGraphics();
+        this.adapter = new Cached<>(() -> new SurfaceGraphics(this));
+        this.argb = this.fallback.getColor().getRGB();
+        this.smooth = false;
+    }
+
+    @Override
+    public final Graphics graphics() {
+        return this.adapter.value();
+    }
+
+    @Override
+    public final void color(final Color color) {
+        this.fallback.setColor(color);
+        this.argb = color.getRGB();
+    }
+
+    @Override
+    public final void font(final Font font) {
+        this.fallback.setFont(font);
+    }
+
+    @Override
+    public final void hints(final RenderingHints hints) {
+        this.fallback.setRenderingHints(hints);
+        this.smooth = RenderingHints.VALUE_ANTIALIAS_ON.equals(
+            hints.get(RenderingHints.KEY_ANTIALIASING)
+        );
+    }
+
+    @Override
+    public final FontMetrics metrics(final Font font) {
+        return this.fallback.getFontMetrics(font);
+    }
+
+    @Override
+    public final void clip(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.fallback.setClip(left, top, width, height);
+        this.rasterizer.clip(left, top, width, height);
+    }
+
+    @Override
+    public final void fill(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.rasterizer.fill(left, top, width, height, this.argb);
+    }
+
+    // @checkstyle ParameterName (3 lines)
+    @Override
+    public final void line(
+        final int fx, final int fy, final int sx, final int sy
+    ) {
+        if (this.smooth) {
+            this.fallback.drawLine(fx, fy, sx, sy);
+        } else {
+            this.rasterizer.line(fx, fy, sx, sy, this.argb);
+        }
+    }
+
+    @Override
+    public final void oval(
+        final int left, final int top, final int width, final int height,
+        final boolean filled
+    ) {
+        if (filled && !this.smooth) {
+            this.rasterizer.oval(left, top, width, height, this.argb);
+        } else if (filled) {
+            this.fallback.fillOval(left, top, width, height);
+        } else {
+            this.fallback.drawOval(left, top, width, height);
+        }
+    }
+
+    @Override
+    public final void polyline(
+        final int[] horizontal, final int[] vertical, final int count,
+        final boolean closed
+    ) {
+        if (this.smooth && closed) {
+            this.fallback.drawPolygon(horizontal, vertical, count);
+        } else if (this.smooth) {
+            this.fallback.drawPolyline(horizontal, vertical, count);
+        } else {
+            this.rasterized(horizontal, vertical, count, closed);
+        }
+    }
+
+    @Override
+    public final void polygon(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        this.fallback.fillPolygon(horizontal, vertical, count);
+    }
+
+    @Override
+    public final void area(final Shape shape) {
+        this.fallback.fill(shape);
+    }
+
+    @Override
+    public final void image(
+        final Image image, final int[] target, final int[] source
+    ) {
+        // @checkstyle MagicNumber (3 lines)
+        this.fallback.drawImage(
+            image, target[0], target[1], target[2], target[3],
+            source[0], source[1], source[2], source[3], null
+        );
+    }
+
+    @Override
+    public final void text(final String text, final int left, final int top) {
+        this.fallback.drawString(text, left, top);
+    }
+
+    /**
+     * Draws connected lines through points with the rasterizer, so that the
+     * shared points are blended only once.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     * @param closed Whether the last point is connected to the first one.
+     */
+    private void rasterized(
+        final int[] horizontal, final int[] vertical, final int count,
+        final boolean closed
+    ) {
+        if (count > 0) {
+            this.rasterizer.line(
+                horizontal[0], vertical[0], horizontal[0], vertical[0],
+                this.argb
+            );
+        }
+        for (int index = 1; index < count; ++index) {
+            this.rasterizer.joined(
+                horizontal[index - 1], vertical[index - 1],
+                horizontal[index], vertical[index], this.argb, false
+            );
+        }
+        if (closed && count > 2) {
+            this.rasterizer.joined(
+                horizontal[count - 1], vertical[count - 1],
+                horizontal[0], vertical[0], this.argb, true
+            );
+        }
+    }
+
+    /**
+     * Returns the backing pixels of an image.
+     * @param image The image to draw on.
+     * @return The pixels.
+     */
+    private static int[] pixels(final BufferedImage image) {
+        final var raster = new Raster(image);
+        if (!raster.direct()) {
+            throw new IllegalArgumentException(
+                "Only plain TYPE_INT_ARGB images can be rasterized"
+            );
+        }
+        return raster.pixels();
+    }
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.util.Arrays;
+
+/**
+ * Rasterizes axis-aligned primitives straight into ARGB pixels, without the
+ * pipeline of Java2D. Fills are written row by row, lines with Bresenham's
+ * algorithm and ovals as spans per row, sampled like Java2D does. Everything
+ * is clipped to a rectangle. Colors with an alpha below 255 are blended over
+ * the pixels.
+ * <p>This class is mutable and not thread-safe, because of its clip.</p>
+ * @since 0.47
+ */
+public class Rasterizer {
+    /**
+     * The maximum value of a channel.
+     */
+    private static final int MAX = 255;
+
+    /**
+     * How much an oval is shrunk on each side to match the ovals of Java2D,
+     * which samples the pixels at their corners.
+     */
+    private static final double INSET = 0.125;
+
+    /**
+     * The ARGB pixels row by row.
+     */
+    private final int[] pixels;
+
+    /**
+     * The amount of pixels per row.
+     */
+    private final int width;
+
+    /**
+     * The amount of rows.
+     */
+    private final int height;
+
+    /**
+     * The left column of the clip.
+     */
+    private int left;
+
+    /**
+     * The top row of the clip.
+     */
+    private int top;
+
+    /**
+     * The column after the clip.
+     */
+    private int right;
+
+    /**
+     * The row after the clip.
+     */
+    private int bottom;
+
+    /**
+     * Ctor.
+     * @param pixels The ARGB pixels row by row.
+     * @param width The amount of pixels per row.
+     * @param height The amount of rows.
+     */
+    public Rasterizer(final int[] pixels, final int width, final int height) {
+        this.pixels = pixels;
+        this.width = width;
+        this.height = height;
+        this.left = 0;
+        this.top = 0;
+        this.right = width;
+        this.bottom = height;
+    }
+
+    /**
+     * Restricts the drawing to a rectangle of the pixels.
+     * @param column The left column of the clip.
+     * @param row The top row of the clip.
+     * @param columns The width of the clip.
+     * @param rows The height of the clip.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final void clip(
+        final int column, final int row, final int columns, final int rows
+    ) {
+        this.left = Math.max(0, column);
+        this.top = Math.max(0, row);
+        this.right = Math.min(this.width, column + columns);
+        this.bottom = Math.min(this.height, row + rows);
+    }
+
+    /**
+     * Fills a rectangle.
+     * @param column The left column.
+     * @param row The top row.
+     * @param columns The width.
+     * @param rows The height.
+     * @param argb The ARGB color.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final void fill(
+        final int column, final int row, final int columns, final int rows,
+        final int argb
+    ) {
+        final int first = Math.max(this.left, column);
+        final int last = Math.min(this.right, column + columns);
+        final int upper = Math.max(this.top, row);
+        final int lower = Math.min(this.bottom, row + rows);
+        for (int line = upper; line < lower; ++line) {
+            this.span(line, first, last, argb);
+        }
+    }
+
+    /**
+     * Draws a line including both ends.
+     * @param fx The first column.
+     * @param fy The first row.
+     * @param sx The second column.
+     * @param sy The second row.
+     * @param argb The ARGB color.
+     * @checkstyle ParameterNumber (4 lines)
+     * @checkstyle ParameterName (3 lines)
+     */
+    public final void line(
+        final int fx, final int fy, final int sx, final int sy, final int argb
+    ) {
+        this.walk(fx, fy, sx, sy, argb, 0L, 0L);
+    }
+
+    /**
+     * Draws a line that continues a polyline. Its first point is left out,
+     * because the previous line already drew it, so that a translucent color
+     * isn't blended twice there. The line that closes a polyline also leaves
+     * out its last point, which is the first point of the polyline.
+     * @param fx The first column.
+     * @param fy The first row.
+     * @param sx The second column.
+     * @param sy The second row.
+     * @param argb The ARGB color.
+     * @param closing Whether the line closes the polyline.
+     * @checkstyle ParameterNumber (5 lines)
+     * @checkstyle ParameterName (4 lines)
+     */
+    public final void joined(
+        final int fx, final int fy, final int sx, final int sy, final int argb,
+        final boolean closing
+    ) {
+        final long tail;
+        if (closing) {
+            tail = 1L;
+        } else {
+            tail = 0L;
+        }
+        this.walk(fx, fy, sx, sy, argb, 1L, tail);
+    }
+
+    /**
+     * Draws the steps of a line inside of the clip. The first and the last
+     * of them are solved from the closed form of Bresenham's algorithm,
+     * which gives the same pixels as walking the whole line. Lines longer
+     * than the int range are first shortened to the clip like Liang and
+     * Barsky do.
+     * @param fx The first column.
+     * @param fy The first row.
+     * @param sx The second column.
+     * @param sy The second row.
+     * @param argb The ARGB color.
+     * @param head The amount of steps to leave out at the start.
+     * @param tail The amount of steps to leave out at the end.
+     * @checkstyle ParameterNumber (5 lines)
+     * @checkstyle ParameterName (4 lines)
+     * @checkstyle ExecutableStatementCount (60 lines)
+     */
+    private void walk(
+        final int fx, final int fy, final int sx, final int sy, final int argb,
+        final long head, final long tail
+    ) {
+        final long horizontal = Math.abs((long) sx - fx);
+        final long vertical = Math.abs((long) sy - fy);
+        if (horizontal > Integer.MAX_VALUE || vertical > Integer.MAX_VALUE) {
+            this.shortened(fx, fy, sx, sy, argb, head, tail);
+        } else {
+            final int right = Long.signum((long) sx - fx);
+            final int down = Long.signum((long) sy - fy);
+            final boolean steep = vertical > horizontal;
+            final long length = Math.max(horizontal, vertical);
+            final long across = Math.min(horizontal, vertical);
+            long first;
+            long last;
+            long lowest;
+            long highest;
+            if (steep) {
+                first = Rasterizer.lowest(fy, down, this.top, this.bottom);
+                last = Rasterizer.highest(fy, down, this.top, this.bottom);
+                lowest = Rasterizer.lowest(fx, right, this.left, this.right);
+                highest = Rasterizer.highest(
+                    fx, right, this.left, this.right
+                );
+            } else {
+                first = Rasterizer.lowest(fx, right, this.left, this.right);
+                last = Rasterizer.highest(fx, right, this.left, this.right);
+                lowest = Rasterizer.lowest(fy, down, this.top, this.bottom);
+                highest = Rasterizer.highest(
+                    fy, down, this.top, this.bottom
+                );
+            }
+            lowest = Math.max(0L, lowest);
+            highest = Math.min(across, highest);
+            first = Math.max(head, first);
+            last = Math.min(length - tail, last);
+            final long twice = length * 2L;
+            if (lowest > highest) {
+                last = -1L;
+            } else if (across > 0L) {
+                final long doubled = across * 2L;
+                first = Math.max(
+                    first, Rasterizer.ceil(twice * lowest - length, doubled)
+                );
+                last = Math.min(
+                    last,
+                    Rasterizer.ceil(twice * (highest + 1L) - length, doubled)
+                        - 1L
+                );
+            }
+            if (first <= last) {
+                final long numerator = across * 2L * first + length;
+                long minor = numerator / Math.max(1L, twice);
+                long remainder = numerator % Math.max(1L, twice);
+                for (long step = first; step <= last; ++step) {
+                    final int column;
+                    final int row;
+                    if (steep) {
+                        column = (int) (fx + right * minor);
+                        row = (int) (fy + down * step);
+                    } else {
+                        column = (int) (fx + right * step);
+                        row = (int) (fy + down * minor);
+                    }
+                    this.span(row, column, column + 1, argb);
+                    remainder += across * 2L;
+                    if (remainder >= twice) {
+                        remainder -= twice;
+                        ++minor;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the oval inside of a rectangle.
+     * @param column The left column of the rectangle.
+     * @param row The top row of the rectangle.
+     * @param columns The width of the rectangle.
+     * @param rows The height of the rectangle.
+     * @param argb The ARGB color.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final void oval(
+        final int column, final int row, final int columns, final int rows,
+        final int argb
+    ) {
+        final double radius = columns / 2.0 - Rasterizer.INSET;
+        final double vertical = rows / 2.0 - Rasterizer.INSET;
+        final double center = column + columns / 2.0;
+        final double middle = row + rows / 2.0;
+        final int upper = Math.max(this.top, row);
+        final int lower = Math.min(this.bottom, row + rows);
+        for (int line = upper; line < lower; ++line) {
+            final double distance = (line - middle) / vertical;
+            if (distance * distance <= 1.0) {
+                final double half = radius * Math.sqrt(
+                    1.0 - distance * distance
+                );
+                this.span(
+                    line,
+                    Math.max(this.left, (int) Math.ceil(center - half)),
+                    Math.min(this.right, (int) Math.floor(center + half) + 1),
+                    argb
+                );
+            }
+        }
+    }
+
+    /**
+     * Writes a span of a row that lies inside of the clip.
+     * @param row The row.
+     * @param first The first column.
+     * @param last The column after the last one.
+     * @param argb The ARGB color.
+     */
+    private void span(
+        final int row, final int first, final int last, final int argb
+    ) {
+        if (first < last) {
+            final int offset = row * this.width;
+            // @checkstyle MagicNumber (1 line)
+            if (argb >>> 24 == Rasterizer.MAX) {
+                Arrays.fill(this.pixels, offset + first, offset + last, argb);
+            } else {
+                for (int column = first; column < last; ++column) {
+                    this.pixels[offset + column] = Rasterizer.blend(
+                        this.pixels[offset + column], argb
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Shortens a line to the clip grown by a pixel on each side, like Liang
+     * and Barsky do, and draws the rest. It's only used for lines that are
+     * too long to be walked with exact long arithmetic.
+     * @param fx The first column.
+     * @param fy The first row.
+     * @param sx The second column.
+     * @param sy The second row.
+     * @param argb The ARGB color.
+     * @param head The amount of steps to leave out at the start.
+     * @param tail The amount of steps to leave out at the end.
+     * @checkstyle ParameterNumber (5 lines)
+     * @checkstyle ParameterName (4 lines)
+     */
+    private void shortened(
+        final int fx, final int fy, final int sx, final int sy, final int argb,
+        final long head, final long tail
+    ) {
+        final double horizontal = (double) sx - fx;
+        final double vertical = (double) sy - fy;
+        final double[] edges = {
+            -horizontal, fx - (this.left - 1.0),
+            horizontal, this.right - (double) fx,
+            -vertical, fy - (this.top - 1.0),
+            vertical, this.bottom - (double) fy,
+        };
+        double enter = 0.0;
+        double leave = 1.0;
+        for (int edge = 0; edge < edges.length; edge += 2) {
+            final double direction = edges[edge];
+            final double distance = edges[edge + 1];
+            if (direction == 0.0) {
+                if (distance < 0.0) {
+                    leave = -1.0;
+                }
+            } else if (direction < 0.0) {
+                enter = Math.max(enter, distance / direction);
+            } else {
+                leave = Math.min(leave, distance / direction);
+            }
+        }
+        if (enter <= leave) {
+            this.walk(
+                (int) Math.round(fx + enter * horizontal),
+                (int) Math.round(fy + enter * vertical),
+                (int) Math.round(fx + leave * horizontal),
+                (int) Math.round(fy + leave * vertical),
+                argb,
+                Rasterizer.kept(enter == 0.0, head),
+                Rasterizer.kept(leave == 1.0, tail)
+            );
+        }
+    }
+
+    /**
+     * Returns the amount of left out steps at an end of a shortened line.
+     * @param kept Whether the end of the line was kept by the shortening.
+     * @param steps The amount of left out steps of the original end.
+     * @return The amount of left out steps.
+     */
+    private static long kept(final boolean kept, final long steps) {
+        final long result;
+        if (kept) {
+            result = steps;
+        } else {
+            result = 0L;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the first step from a start in a direction that reaches the
+     * range of a clip.
+     * @param start The start.
+     * @param direction The direction, which is -1, 0 or 1.
+     * @param low The first value of the clip.
+     * @param high The value after the clip.
+     * @return The step. It's the maximum long if the range is never reached.
+     */
+    private static long lowest(
+        final int start, final int direction, final int low, final int high
+    ) {
+        final long result;
+        if (direction > 0) {
+            result = (long) low - start;
+        } else if (direction < 0) {
+            result = (long) start - high + 1L;
+        } else if (start >= low && start < high) {
+            result = Long.MIN_VALUE;
+        } else {
+            result = Long.MAX_VALUE;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the last step from a start in a direction that is still in the
+     * range of a clip.
+     * @param start The start.
+     * @param direction The direction, which is -1, 0 or 1.
+     * @param low The first value of the clip.
+     * @param high The value after the clip.
+     * @return The step. It's the minimum long if the range is never reached.
+     */
+    private static long highest(
+        final int start, final int direction, final int low, final int high
+    ) {
+        final long result;
+        if (direction > 0) {
+            result = (long) high - 1L - start;
+        } else if (direction < 0) {
+            result = (long) start - low;
+        } else if (start >= low && start < high) {
+            result = Long.MAX_VALUE;
+        } else {
+            result = Long.MIN_VALUE;
+        }
+        return result;
+    }
+
+    /**
+     * Divides and rounds up.
+     * @param dividend The dividend.
+     * @param divisor The positive divisor.
+     * @return The rounded quotient.
+     */
+    private static long ceil(final long dividend, final long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    /**
+     * Blends a color over a pixel.
+     * @param below The ARGB pixel.
+     * @param above The ARGB color.
+     * @return The blended ARGB pixel.
+     * @checkstyle MagicNumber (30 lines)
+     */
+    private static int blend(final int below, final int above) {
+        final int alpha = above >>> 24;
+        final int result;
+        if (alpha == 0) {
+            result = below;
+        } else {
+            final int behind = (below >>> 24) * (Rasterizer.MAX - alpha)
+                / Rasterizer.MAX;
+            final int total = alpha + behind;
+            int argb = total;
+            for (int shift = 16; shift >= 0; shift -= 8) {
+                final int channel = ((above >>> shift & Rasterizer.MAX) * alpha
+                    + (below >>> shift & Rasterizer.MAX) * behind) / total;
+                argb = argb << 8 | channel;
+            }
+            result = argb;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import joop.image.Png;
+import joop.image.Raster;
+import joop.shape.Shape;
+import joop.time.Clock;
+import joop.time.SwingClock;
+
+/**
+ * A pool of threads that render independent shapes into images, for example
+ * to generate reports with many charts. Each thread paints on its own reused
+ * image, which only grows if a bigger size is requested. So a rendering only
+ * allocates the returned result: a copy of the rendered part or the png
+ * bytes, which are both read straight from the pixels of the reused image.
+ * <p>Only a limited amount of renderings can wait for a thread. If that many
+ * are waiting, the submitting thread blocks until one of them is done. So a
+ * fast producer can't fill the memory with pending renderings.</p>
+ * <p>The shapes are drawn on the threads of the pool, so a shape must not
+ * be rendered twice at the same time, unless it's immutable.</p>
+ * <p>This class is mutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class RenderPool implements AutoCloseable {
+    /**
+     * The threads that render.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * The permits for renderings that are pending.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The reused image of each thread.
+     */
+    private final ThreadLocal<Slot> slots;
+
+    /**
+     * The clock to measure the throughput with.
+     */
+    private final Clock clock;
+
+    /**
+     * The time of the creation of this pool.
+     */
+    private final long start;
+
+    /**
+     * The amount of finished renderings.
+     */
+    private final LongAdder finished;
+
+    /**
+     * The amount of failed renderings.
+     */
+    private final LongAdder failures;
+
+    /**
+     * The amount of pending renderings.
+     */
+    private final AtomicInteger waiting;
+
+    /**
+     * Ctor. It uses a thread per processor and lets twice as many renderings
+     * wait.
+     */
+    public RenderPool() {
+        this(
+            Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().availableProcessors() * 2
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param threads The amount of threads that render.
+     * @param queue The amount of renderings that can wait for a thread
+     *  before the submitting thread blocks.
+     */
+    public RenderPool(final int threads, final int queue) {
+        this(threads, queue, new SwingClock());
+    }
+
+    /**
+     * Ctor.
+     * @param threads The amount of threads that render.
+     * @param queue The amount of renderings that can wait for a thread
+     *  before the submitting thread blocks.
+     * @param clock The clock to measure the throughput with.
+     */
+    public RenderPool(final int threads, final int queue, final Clock clock) {
+        final var number = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+                final var thread = new Thread(
+                    runnable,
+                    String.join(
+                        "", "joop-render-",
+                        Integer.toString(number.getAndIncrement())
+                    )
+                );
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.permits = new Semaphore(threads + queue);
+        this.slots = ThreadLocal.withInitial(Slot::new);
+        this.clock = clock;
+        this.start = clock.nanos();
+        this.finished = new LongAdder();
+        this.failures = new LongAdder();
+        this.waiting = new AtomicInteger();
+    }
+
+    /**
+     * Renders a shape into a new image.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return The future of the image.
+     */
+    public final CompletableFuture<BufferedImage> image(
+        final Shape shape, final int width, final int height
+    ) {
+        return this.submit(shape, width, height, Slot::copy);
+    }
+
+    /**
+     * Renders a shape and encodes it as png.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return The future of the png bytes.
+     */
+    public final CompletableFuture<byte[]> png(
+        final Shape shape, final int width, final int height
+    ) {
+        return this.submit(shape, width, height, Slot::png);
+    }
+
+    /**
+     * Returns the amount of renderings that finished successfully.
+     * @return The amount of renderings.
+     */
+    public final long rendered() {
+        return this.finished.sum();
+    }
+
+    /**
+     * Returns the amount of renderings that failed with an exception.
+     * @return The amount of renderings.
+     */
+    public final long failed() {
+        return this.failures.sum();
+    }
+
+    /**
+     * Returns the amount of renderings that were submitted, but aren't
+     * finished yet.
+     * @return The amount of renderings.
+     */
+    public final int pending() {
+        return this.waiting.get();
+    }
+
+    /**
+     * Returns the average throughput since the pool was created. Failed
+     * renderings aren't counted.
+     * @return The finished renderings per second.
+     */
+    public final double perSecond() {
+        final long elapsed = Math.max(1L, this.clock.nanos() - this.start);
+        return this.finished.sum() * (double) TimeUnit.SECONDS.toNanos(1L)
+            / elapsed;
+    }
+
+    /**
+     * Waits until the pending renderings are finished and stops the threads.
+     * Later renderings are rejected.
+     */
+    @Override
+    public final void close() {
+        this.workers.shutdown();
+        try {
+            this.workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the pending renderings",
+                exception
+            );
+        }
+    }
+
+    /**
+     * Submits a rendering, after waiting for a permit.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param result The result of the slot with the rendering.
+     * @param <T> The type of the result.
+     * @return The future of the result.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private <T> CompletableFuture<T> submit(
+        final Shape shape, final int width, final int height,
+        final Function<Slot, T> result
+    ) {
+        try {
+            this.permits.acquire();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for a free rendering", exception
+            );
+        }
+        this.waiting.incrementAndGet();
+        try {
+            return CompletableFuture.supplyAsync(
+                () -> {
+                    final Slot slot = this.slots.get();
+                    slot.paint(new Scene(shape), width, height);
+                    return result.apply(slot);
+                },
+                this.workers
+            ).whenComplete(
+                (value, error) -> {
+                    if (error == null) {
+                        this.finished.increment();
+                    } else {
+                        this.failures.increment();
+                    }
+                    this.release();
+                }
+            );
+        } catch (final RejectedExecutionException exception) {
+            this.release();
+            throw new IllegalStateException(
+                "The render pool is closed", exception
+            );
+        }
+    }
+
+    /**
+     * Gives the permit of a rendering back.
+     */
+    private void release() {
+        this.waiting.decrementAndGet();
+        this.permits.release();
+    }
+
+    /**
+     * The reused image of a thread.
+     * <p>This class is mutable and not thread-safe. It's confined to its
+     * thread.</p>
+     * @since 0.47
+     */
+    private static final class Slot {
+        /**
+         * The reused image.
+         */
+        private BufferedImage image;
+
+        /**
+         * The surface of the image.
+         */
+        private Surface surface;
+
+        /**
+         * The width of the last painted area.
+         */
+        private int width;
+
+        /**
+         * The height of the last painted area.
+         */
+        private int height;
+
+        /**
+         * Ctor.
+         */
+        Slot() {
+            this.image = new BufferedImage(
+                1, 1, BufferedImage.TYPE_INT_ARGB
+            );
+            this.surface = new Java2dSurface(this.image.createGraphics());
+            this.width = 0;
+            this.height = 0;
+        }
+
+        /**
+         * Paints a scene on the top left area of the reused image, which
+         * grows if it's too small.
+         * @param scene The scene to paint.
+         * @param columns The width of the painted area.
+         * @param rows The height of the painted area.
+         */
+        void paint(final Scene scene, final int columns, final int rows) {
+            if (columns > this.image.getWidth()
+                || rows > this.image.getHeight()) {
+                this.image = new BufferedImage(
+                    Math.max(columns, this.image.getWidth()),
+                    Math.max(rows, this.image.getHeight()),
+                    BufferedImage.TYPE_INT_ARGB
+                );
+                this.surface = new Java2dSurface(this.image.createGraphics());
+            }
+            this.surface.clip(0, 0, columns, rows);
+            scene.paint(this.surface, columns, rows);
+            this.width = columns;
+            this.height = rows;
+        }
+
+        /**
+         * Copies the last painted area row by row.
+         * @return The copy.
+         */
+        BufferedImage copy() {
+            final var result = new BufferedImage(
+                this.width, this.height, BufferedImage.TYPE_INT_ARGB
+            );
+            final int[] source = new Raster(this.image).pixels();
+            final int[] target = new Raster(result).pixels();
+            final int scanline = this.image.getWidth();
+            for (int row = 0; row < this.height; ++row) {
+                System.arraycopy(
+                    source, row * scanline, target, row * this.width,
+                    this.width
+                );
+            }
+            return result;
+        }
+
+        /**
+         * Encodes the last painted area as png.
+         * @return The png bytes.
+         */
+        byte[] png() {
+            return new Png().bytes(
+                new Raster(this.image).pixels(), this.image.getWidth(),
+                this.width, this.height
+            );
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import joop.shape.Shape;
+import joop.shape.layout.Adjustment;
+import joop.shape.layout.NoAdjustment;
+
+/**
+ * The paint path of a window: A white background with the shape drawn on it.
+ * It is shared by {@link joop.window.BaseWindow} and {@link Offscreen}, so
+ * that both produce the same pixels.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given shape.</p>
+ * @since 0.47
+ */
+public class Scene {
+    /**
+     * The shape to paint.
+     */
+    private final Shape shape;
+
+    /**
+     * The adjustment for the shape. It's kept to avoid creating a new one for
+     * each frame.
+     */
+    private final Adjustment adjustment;
+
+    /**
+     * Ctor.
+     * @param shape The shape to paint.
+     */
+    public Scene(final Shape shape) {
+        this(shape, new NoAdjustment());
+    }
+
+    /**
+     * Ctor.
+     * @param shape The shape to paint.
+     * @param adjustment The adjustment for the shape.
+     */
+    private Scene(final Shape shape, final Adjustment adjustment) {
+        this.shape = shape;
+        this.adjustment = adjustment;
+    }
+
+    /**
+     * Paints the background and the shape on it.
+     * @param surface The surface to paint on.
+     * @param width The width of the painted area.
+     * @param height The height of the painted area.
+     */
+    public final void paint(
+        final Surface surface, final int width, final int height
+    ) {
+        surface.color(Color.WHITE);
+        surface.fill(0, 0, width, height);
+        this.shape.draw(surface.graphics(), this.adjustment);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+
+/**
+ * A backend that frames are painted on, like Java2D, a software rasterizer
+ * or a vector format. Shapes still draw on {@link Graphics}: Each surface
+ * gives the graphics for its shapes, either its own Java2D graphics or a
+ * {@link SurfaceGraphics} that maps the calls onto the surface. So new
+ * backends can be added without changing the shapes. All coordinates are
+ * the coordinates of the surface.
+ * @since 0.47
+ */
+public interface Surface {
+    /**
+     * Returns the graphics for the shapes that draw on this surface.
+     * @return The graphics.
+     */
+    Graphics graphics();
+
+    /**
+     * Sets the color of the following drawings.
+     * @param color The color.
+     */
+    void color(Color color);
+
+    /**
+     * Sets the font of the following texts.
+     * @param font The font.
+     */
+    void font(Font font);
+
+    /**
+     * Sets the rendering hints of the following drawings, like the
+     * antialiasing. A surface may ignore the hints it has no use for. The
+     * hints aren't changed after the call, so they can be kept.
+     * @param hints The hints.
+     */
+    void hints(RenderingHints hints);
+
+    /**
+     * Returns the metrics of a font on this surface.
+     * @param font The font.
+     * @return The metrics.
+     */
+    FontMetrics metrics(Font font);
+
+    /**
+     * Restricts the following drawings to a rectangle.
+     * @param left The x coordinate of the rectangle.
+     * @param top The y coordinate of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @checkstyle ParameterNumber (2 lines)
+     */
+    void clip(int left, int top, int width, int height);
+
+    /**
+     * Fills a rectangle.
+     * @param left The x coordinate of the rectangle.
+     * @param top The y coordinate of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @checkstyle ParameterNumber (2 lines)
+     */
+    void fill(int left, int top, int width, int height);
+
+    /**
+     * Draws a line including both ends.
+     * @param fx The first x coordinate.
+     * @param fy The first y coordinate.
+     * @param sx The second x coordinate.
+     * @param sy The second y coordinate.
+     * @checkstyle ParameterNumber (3 lines)
+     * @checkstyle ParameterName (2 lines)
+     */
+    void line(int fx, int fy, int sx, int sy);
+
+    /**
+     * Draws or fills the oval inside of a rectangle.
+     * @param left The x coordinate of the rectangle.
+     * @param top The y coordinate of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param filled Whether the oval is filled instead of outlined.
+     * @checkstyle ParameterNumber (2 lines)
+     */
+    void oval(int left, int top, int width, int height, boolean filled);
+
+    /**
+     * Draws connected lines through points.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     * @param closed Whether the last point is connected to the first one.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    void polyline(
+        int[] horizontal, int[] vertical, int count, boolean closed
+    );
+
+    /**
+     * Fills the polygon of points.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     */
+    void polygon(int[] horizontal, int[] vertical, int count);
+
+    /**
+     * Fills a geometric shape by its winding rule. This is the fallback for
+     * everything that has no simpler method, like strokes, curves and
+     * glyphs.
+     * @param shape The shape.
+     */
+    void area(Shape shape);
+
+    /**
+     * Draws a part of an image scaled into a rectangle. The arrays may be
+     * reused by the caller after the call.
+     * @param image The image.
+     * @param target The left, top, right and bottom of the rectangle.
+     * @param source The left, top, right and bottom of the part.
+     */
+    void image(Image image, int[] target, int[] source);
+
+    /**
+     * Draws a text.
+     * @param text The text.
+     * @param left The x coordinate of the baseline.
+     * @param top The y coordinate of the baseline.
+     */
+    void text(String text, int left, int top);
+}
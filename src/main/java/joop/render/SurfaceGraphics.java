@@ -0,0 +1,1258 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Paint;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Arc2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.geom.Path2D;
+import java.awt.geom.RoundRectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.awt.image.ImageObserver;
+import java.awt.image.RenderedImage;
+import java.awt.image.renderable.RenderableImage;
+import java.text.AttributedCharacterIterator;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Consumer;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * Graphics that map the calls of the shapes onto a {@link Surface}. The
+ * transform, the clip, the color, the font and the rendering hints are kept
+ * here and handed to the surface in its coordinates. Strokes, curves, glyphs
+ * and everything drawn with a transform other than a translation by whole
+ * pixels become areas of the surface. The opacity of an
+ * {@link AlphaComposite} is applied to the color. Paints that aren't colors
+ * and rotated or flipped images are drawn by Java2D onto an image, which is
+ * then drawn on the surface. A clip is kept as the bounds of its shape on
+ * the surface. The XOR mode and {@link #copyArea} would need the pixels of
+ * the surface, so they throw an {@link UnsupportedOperationException}.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ * @checkstyle MethodCount (700 lines)
+ * @checkstyle ParameterName (700 lines)
+ * @checkstyle ParameterNumber (700 lines)
+ * @checkstyle ClassFanOutComplexity (700 lines)
+ */
+public class SurfaceGraphics extends Graphics2D {
+    /**
+     * The amount of segments of a full arc.
+     */
+    private static final int SEGMENTS = 64;
+
+    /**
+     * The largest translation that is handed to the surface as it is.
+     */
+    private static final double LIMIT = 1 << 30;
+
+    /**
+     * The surface to draw on.
+     */
+    private final Surface surface;
+
+    /**
+     * The graphics whose state the surface has, shared by all graphics of
+     * the surface.
+     */
+    private final SurfaceGraphics[] owner;
+
+    /**
+     * The rendering hints that the surface has, shared by all graphics of
+     * the surface.
+     */
+    private final RenderingHints[] handed;
+
+    /**
+     * The configuration of an image device, shared by all graphics of the
+     * surface.
+     */
+    private final Lazy<GraphicsConfiguration> configuration;
+
+    /**
+     * The reused coordinates of an image rectangle on the surface.
+     */
+    private final int[] target;
+
+    /**
+     * The reused coordinates of an image part.
+     */
+    private final int[] source;
+
+    /**
+     * The rendering hints.
+     */
+    private final RenderingHints hints;
+
+    /**
+     * The transform from the coordinates of the shapes to the surface.
+     */
+    private final AffineTransform transform;
+
+    /**
+     * Whether the transform is a translation by whole pixels. Only then the
+     * simple drawings of the surface are used.
+     */
+    private boolean integral;
+
+    /**
+     * The horizontal translation, if the transform is integral.
+     */
+    private int horizontal;
+
+    /**
+     * The vertical translation, if the transform is integral.
+     */
+    private int vertical;
+
+    /**
+     * The current color.
+     */
+    private Color color;
+
+    /**
+     * The current paint. Paints that aren't colors are drawn by Java2D.
+     */
+    private Paint paint;
+
+    /**
+     * The background color for clearing.
+     */
+    private Color background;
+
+    /**
+     * The current font.
+     */
+    private Font font;
+
+    /**
+     * The current composite, whose opacity is applied to the color.
+     */
+    private Composite composite;
+
+    /**
+     * The current stroke for outlines of areas.
+     */
+    private Stroke stroke;
+
+    /**
+     * The clip on the surface or null for no clip.
+     */
+    private Rectangle clip;
+
+    /**
+     * The reused x coordinates of points on the surface.
+     */
+    private int[] columns;
+
+    /**
+     * The reused y coordinates of points on the surface.
+     */
+    private int[] rows;
+
+    /**
+     * Ctor.
+     * @param surface The surface to draw on.
+     */
+    public SurfaceGraphics(final Surface surface) {
+        this(
+            surface, new SurfaceGraphics[1],
+            new RenderingHints[]{new RenderingHints(null)},
+            new Cached<>(SurfaceGraphics::imageConfiguration)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param surface The surface to draw on.
+     * @param owner The graphics whose state the surface has.
+     * @param handed The rendering hints that the surface has.
+     * @param configuration The configuration of an image device.
+     */
+    private SurfaceGraphics(
+        final Surface surface, final SurfaceGraphics[] owner,
+        final RenderingHints[] handed,
+        final Lazy<GraphicsConfiguration> configuration
+    ) {
+        super();
+        this.surface = surface;
+        this.owner = owner;
+        this.handed = handed;
+        this.configuration = configuration;
+        this.target = new int[4];
+        this.source = new int[4];
+        this.hints = new RenderingHints(null);
+        this.transform = new AffineTransform();
+        this.integral = true;
+        this.horizontal = 0;
+        this.vertical = 0;
+        this.color = Color.BLACK;
+        this.paint = Color.BLACK;
+        this.background = Color.WHITE;
+        // @checkstyle MagicNumber (1 line)
+        this.font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        this.composite = AlphaComposite.SrcOver;
+        this.stroke = new BasicStroke();
+        this.clip = null;
+        this.columns = new int[0];
+        this.rows = new int[0];
+    }
+
+    @Override
+    public final Graphics create() {
+        final var result = new SurfaceGraphics(
+            this.surface, this.owner, this.handed, this.configuration
+        );
+        result.hints.putAll(this.hints);
+        result.transform.setTransform(this.transform);
+        result.transformed();
+        result.color = this.color;
+        result.paint = this.paint;
+        result.background = this.background;
+        result.font = this.font;
+        result.composite = this.composite;
+        result.stroke = this.stroke;
+        if (this.clip != null) {
+            result.clip = new Rectangle(this.clip);
+        }
+        return result;
+    }
+
+    @Override
+    public final void translate(final int left, final int top) {
+        this.transform.translate(left, top);
+        this.transformed();
+    }
+
+    @Override
+    public final Color getColor() {
+        return this.color;
+    }
+
+    @Override
+    public final void setColor(final Color value) {
+        if (value != null) {
+            this.color = value;
+            this.paint = value;
+            this.colored();
+        }
+    }
+
+    @Override
+    public final void setPaintMode() {
+        // the paint mode is the only supported mode
+    }
+
+    @Override
+    public final void setXORMode(final Color other) {
+        throw new UnsupportedOperationException(
+            "The XOR mode needs the pixels of the surface, which aren't read"
+        );
+    }
+
+    @Override
+    public final Font getFont() {
+        return this.font;
+    }
+
+    @Override
+    public final void setFont(final Font value) {
+        if (value != null) {
+            this.font = value;
+            if (this.owner[0] == this) {
+                this.surface.font(value);
+            }
+        }
+    }
+
+    @Override
+    public final FontMetrics getFontMetrics(final Font value) {
+        return this.surface.metrics(value);
+    }
+
+    @Override
+    public final Rectangle getClipBounds() {
+        Rectangle result = null;
+        if (this.clip != null && this.integral) {
+            result = new Rectangle(
+                this.clip.x - this.horizontal, this.clip.y - this.vertical,
+                this.clip.width, this.clip.height
+            );
+        } else if (this.clip != null) {
+            try {
+                result = this.transform.createInverse()
+                    .createTransformedShape(this.clip).getBounds();
+            } catch (final NoninvertibleTransformException exception) {
+                result = new Rectangle();
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public final void clipRect(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.narrowed(this.device(left, top, width, height));
+    }
+
+    @Override
+    public final void setClip(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.clipped(this.device(left, top, width, height));
+    }
+
+    @Override
+    public final Shape getClip() {
+        return this.getClipBounds();
+    }
+
+    @Override
+    public final void setClip(final Shape value) {
+        if (value == null) {
+            this.clipped(null);
+        } else {
+            this.clipped(this.device(value));
+        }
+    }
+
+    @Override
+    public final void copyArea(
+        final int left, final int top, final int width, final int height,
+        final int right, final int down
+    ) {
+        throw new UnsupportedOperationException(
+            "Copying areas needs the pixels of the surface, which aren't read"
+        );
+    }
+
+    @Override
+    public final void drawLine(
+        final int fx, final int fy, final int sx, final int sy
+    ) {
+        if (this.simple() && this.thin()) {
+            this.claim();
+            this.surface.line(
+                fx + this.horizontal, fy + this.vertical,
+                sx + this.horizontal, sy + this.vertical
+            );
+        } else {
+            this.draw(new Line2D.Float(fx, fy, sx, sy));
+        }
+    }
+
+    @Override
+    public final void fillRect(
+        final int left, final int top, final int width, final int height
+    ) {
+        if (this.simple()) {
+            this.claim();
+            this.surface.fill(
+                left + this.horizontal, top + this.vertical, width, height
+            );
+        } else {
+            this.fill(new Rectangle(left, top, width, height));
+        }
+    }
+
+    @Override
+    public final void clearRect(
+        final int left, final int top, final int width, final int height
+    ) {
+        this.claim();
+        this.surface.color(this.background);
+        if (this.integral) {
+            this.surface.fill(
+                left + this.horizontal, top + this.vertical, width, height
+            );
+        } else {
+            this.surface.area(
+                this.transform.createTransformedShape(
+                    new Rectangle(left, top, width, height)
+                )
+            );
+        }
+        this.colored();
+    }
+
+    @Override
+    public final void drawRoundRect(
+        final int left, final int top, final int width, final int height,
+        final int arcs, final int bows
+    ) {
+        if (arcs == 0 || bows == 0) {
+            this.drawRect(left, top, width, height);
+        } else {
+            this.draw(
+                new RoundRectangle2D.Float(left, top, width, height, arcs, bows)
+            );
+        }
+    }
+
+    @Override
+    public final void fillRoundRect(
+        final int left, final int top, final int width, final int height,
+        final int arcs, final int bows
+    ) {
+        if (arcs == 0 || bows == 0) {
+            this.fillRect(left, top, width, height);
+        } else {
+            this.fill(
+                new RoundRectangle2D.Float(left, top, width, height, arcs, bows)
+            );
+        }
+    }
+
+    @Override
+    public final void drawOval(
+        final int left, final int top, final int width, final int height
+    ) {
+        if (this.simple() && this.thin()) {
+            this.claim();
+            this.surface.oval(
+                left + this.horizontal, top + this.vertical, width, height,
+                false
+            );
+        } else {
+            this.draw(new Ellipse2D.Float(left, top, width, height));
+        }
+    }
+
+    @Override
+    public final void fillOval(
+        final int left, final int top, final int width, final int height
+    ) {
+        if (this.simple()) {
+            this.claim();
+            this.surface.oval(
+                left + this.horizontal, top + this.vertical, width, height,
+                true
+            );
+        } else {
+            this.fill(new Ellipse2D.Float(left, top, width, height));
+        }
+    }
+
+    @Override
+    public final void drawArc(
+        final int left, final int top, final int width, final int height,
+        final int start, final int angle
+    ) {
+        if (this.simple() && this.thin()) {
+            final int count = this.arc(
+                left, top, width, height, start, angle, 0
+            );
+            this.claim();
+            this.surface.polyline(this.columns, this.rows, count, false);
+        } else {
+            this.draw(
+                new Arc2D.Float(
+                    left, top, width, height, start, angle, Arc2D.OPEN
+                )
+            );
+        }
+    }
+
+    @Override
+    public final void fillArc(
+        final int left, final int top, final int width, final int height,
+        final int start, final int angle
+    ) {
+        if (this.simple()) {
+            final int count = this.arc(
+                left, top, width, height, start, angle, 1
+            );
+            this.columns[0] = left + width / 2 + this.horizontal;
+            this.rows[0] = top + height / 2 + this.vertical;
+            this.claim();
+            this.surface.polygon(this.columns, this.rows, count);
+        } else {
+            this.fill(
+                new Arc2D.Float(
+                    left, top, width, height, start, angle, Arc2D.PIE
+                )
+            );
+        }
+    }
+
+    @Override
+    public final void drawPolyline(
+        final int[] xpoints, final int[] ypoints, final int count
+    ) {
+        if (this.simple() && this.thin()) {
+            this.points(xpoints, ypoints, count);
+            this.claim();
+            this.surface.polyline(this.columns, this.rows, count, false);
+        } else {
+            this.draw(SurfaceGraphics.path(xpoints, ypoints, count, false));
+        }
+    }
+
+    @Override
+    public final void drawPolygon(
+        final int[] xpoints, final int[] ypoints, final int count
+    ) {
+        if (this.simple() && this.thin()) {
+            this.points(xpoints, ypoints, count);
+            this.claim();
+            this.surface.polyline(this.columns, this.rows, count, true);
+        } else {
+            this.draw(SurfaceGraphics.path(xpoints, ypoints, count, true));
+        }
+    }
+
+    @Override
+    public final void fillPolygon(
+        final int[] xpoints, final int[] ypoints, final int count
+    ) {
+        if (this.simple()) {
+            this.points(xpoints, ypoints, count);
+            this.claim();
+            this.surface.polygon(this.columns, this.rows, count);
+        } else {
+            this.fill(new Polygon(xpoints, ypoints, count));
+        }
+    }
+
+    @Override
+    public final void drawString(
+        final String text, final int left, final int top
+    ) {
+        if (this.simple()) {
+            this.claim();
+            this.surface.text(
+                text, left + this.horizontal, top + this.vertical
+            );
+        } else {
+            this.fill(
+                this.font.createGlyphVector(this.getFontRenderContext(), text)
+                    .getOutline(left, top)
+            );
+        }
+    }
+
+    @Override
+    public final void drawString(
+        final AttributedCharacterIterator text, final int left, final int top
+    ) {
+        final var builder = new StringBuilder(
+            text.getEndIndex() - text.getBeginIndex()
+        );
+        for (char letter = text.first();
+            letter != AttributedCharacterIterator.DONE;
+            letter = text.next()) {
+            builder.append(letter);
+        }
+        this.drawString(builder.toString(), left, top);
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int left, final int top,
+        final ImageObserver observer
+    ) {
+        return this.drawImage(
+            image, left, top, image.getWidth(observer),
+            image.getHeight(observer), observer
+        );
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int left, final int top, final int width,
+        final int height, final ImageObserver observer
+    ) {
+        return this.drawImage(
+            image, left, top, left + width, top + height, 0, 0,
+            image.getWidth(observer), image.getHeight(observer), observer
+        );
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int left, final int top,
+        final Color background, final ImageObserver observer
+    ) {
+        return this.drawImage(image, left, top, observer);
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int left, final int top, final int width,
+        final int height, final Color background,
+        final ImageObserver observer
+    ) {
+        return this.drawImage(image, left, top, width, height, observer);
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int dfx, final int dfy, final int dsx,
+        final int dsy, final int sfx, final int sfy, final int ssx,
+        final int ssy, final ImageObserver observer
+    ) {
+        if (this.integral || this.straight()) {
+            this.target[0] = this.column(dfx, dfy);
+            this.target[1] = this.row(dfx, dfy);
+            this.target[2] = this.column(dsx, dsy);
+            // @checkstyle MagicNumber (5 lines)
+            this.target[3] = this.row(dsx, dsy);
+            this.source[0] = sfx;
+            this.source[1] = sfy;
+            this.source[2] = ssx;
+            this.source[3] = ssy;
+            this.claim();
+            this.surface.image(image, this.target, this.source);
+        } else {
+            this.rasterized(
+                new Rectangle(
+                    Math.min(dfx, dsx), Math.min(dfy, dsy),
+                    Math.abs(dsx - dfx), Math.abs(dsy - dfy)
+                ),
+                graphics -> graphics.drawImage(
+                    image, dfx, dfy, dsx, dsy, sfx, sfy, ssx, ssy, null
+                )
+            );
+        }
+        return true;
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final int dfx, final int dfy, final int dsx,
+        final int dsy, final int sfx, final int sfy, final int ssx,
+        final int ssy, final Color background, final ImageObserver observer
+    ) {
+        return this.drawImage(
+            image, dfx, dfy, dsx, dsy, sfx, sfy, ssx, ssy, observer
+        );
+    }
+
+    @Override
+    public final void draw(final Shape shape) {
+        this.fill(this.stroke.createStrokedShape(shape));
+    }
+
+    @Override
+    public final void fill(final Shape shape) {
+        if (this.paint instanceof Color) {
+            this.claim();
+            this.surface.area(this.transform.createTransformedShape(shape));
+        } else {
+            this.rasterized(shape, graphics -> graphics.fill(shape));
+        }
+    }
+
+    @Override
+    public final boolean hit(
+        final Rectangle rect, final Shape shape, final boolean outline
+    ) {
+        Shape area = shape;
+        if (outline) {
+            area = this.stroke.createStrokedShape(shape);
+        }
+        return this.transform.createTransformedShape(area).intersects(rect);
+    }
+
+    @Override
+    public final boolean drawImage(
+        final Image image, final AffineTransform transform,
+        final ImageObserver observer
+    ) {
+        final var previous = new AffineTransform(this.transform);
+        this.transform.concatenate(transform);
+        this.transformed();
+        try {
+            this.drawImage(image, 0, 0, observer);
+        } finally {
+            this.transform.setTransform(previous);
+            this.transformed();
+        }
+        return true;
+    }
+
+    @Override
+    public final void drawImage(
+        final BufferedImage image, final BufferedImageOp operation,
+        final int left, final int top
+    ) {
+        BufferedImage filtered = image;
+        if (operation != null) {
+            filtered = operation.filter(image, null);
+        }
+        this.drawImage(filtered, left, top, null);
+    }
+
+    @Override
+    public final void drawRenderedImage(
+        final RenderedImage image, final AffineTransform transform
+    ) {
+        if (image instanceof BufferedImage) {
+            this.drawImage((BufferedImage) image, transform, null);
+        }
+    }
+
+    @Override
+    public final void drawRenderableImage(
+        final RenderableImage image, final AffineTransform transform
+    ) {
+        this.drawRenderedImage(image.createDefaultRendering(), transform);
+    }
+
+    @Override
+    public final void drawString(
+        final String text, final float left, final float top
+    ) {
+        this.drawString(text, Math.round(left), Math.round(top));
+    }
+
+    @Override
+    public final void drawString(
+        final AttributedCharacterIterator text, final float left,
+        final float top
+    ) {
+        this.drawString(text, Math.round(left), Math.round(top));
+    }
+
+    @Override
+    public final void drawGlyphVector(
+        final GlyphVector glyphs, final float left, final float top
+    ) {
+        this.fill(glyphs.getOutline(left, top));
+    }
+
+    @Override
+    public final GraphicsConfiguration getDeviceConfiguration() {
+        return this.configuration.value();
+    }
+
+    @Override
+    public final void setComposite(final Composite value) {
+        this.composite = value;
+        this.colored();
+    }
+
+    @Override
+    public final Composite getComposite() {
+        return this.composite;
+    }
+
+    @Override
+    public final void setPaint(final Paint value) {
+        if (value instanceof Color) {
+            this.setColor((Color) value);
+        } else if (value != null) {
+            this.paint = value;
+        }
+    }
+
+    @Override
+    public final Paint getPaint() {
+        return this.paint;
+    }
+
+    @Override
+    public final void setStroke(final Stroke value) {
+        this.stroke = value;
+    }
+
+    @Override
+    public final Stroke getStroke() {
+        return this.stroke;
+    }
+
+    @Override
+    public final void setBackground(final Color value) {
+        this.background = value;
+    }
+
+    @Override
+    public final Color getBackground() {
+        return this.background;
+    }
+
+    @Override
+    public final void setRenderingHint(
+        final RenderingHints.Key key, final Object value
+    ) {
+        this.hints.put(key, value);
+        this.hinted();
+    }
+
+    @Override
+    public final Object getRenderingHint(final RenderingHints.Key key) {
+        return this.hints.get(key);
+    }
+
+    @Override
+    public final void setRenderingHints(final Map<?, ?> values) {
+        this.hints.clear();
+        this.hints.putAll(values);
+        this.hinted();
+    }
+
+    @Override
+    public final void addRenderingHints(final Map<?, ?> values) {
+        this.hints.putAll(values);
+        this.hinted();
+    }
+
+    @Override
+    public final RenderingHints getRenderingHints() {
+        return (RenderingHints) this.hints.clone();
+    }
+
+    @Override
+    public final void translate(final double left, final double top) {
+        this.transform.translate(left, top);
+        this.transformed();
+    }
+
+    @Override
+    public final void rotate(final double theta) {
+        this.transform.rotate(theta);
+        this.transformed();
+    }
+
+    @Override
+    public final void rotate(
+        final double theta, final double left, final double top
+    ) {
+        this.transform.rotate(theta, left, top);
+        this.transformed();
+    }
+
+    @Override
+    public final void scale(
+        final double horizontally, final double vertically
+    ) {
+        this.transform.scale(horizontally, vertically);
+        this.transformed();
+    }
+
+    @Override
+    public final void shear(
+        final double horizontally, final double vertically
+    ) {
+        this.transform.shear(horizontally, vertically);
+        this.transformed();
+    }
+
+    @Override
+    public final void transform(final AffineTransform transform) {
+        this.transform.concatenate(transform);
+        this.transformed();
+    }
+
+    @Override
+    public final void setTransform(final AffineTransform transform) {
+        this.transform.setTransform(transform);
+        this.transformed();
+    }
+
+    @Override
+    public final AffineTransform getTransform() {
+        return new AffineTransform(this.transform);
+    }
+
+    @Override
+    public final void clip(final Shape value) {
+        if (value == null) {
+            this.setClip(null);
+        } else {
+            this.narrowed(this.device(value));
+        }
+    }
+
+    @Override
+    public final FontRenderContext getFontRenderContext() {
+        return new FontRenderContext(null, false, false);
+    }
+
+    @Override
+    public final void dispose() {
+        // nothing to release
+    }
+
+    /**
+     * Hands the state of these graphics to the surface, unless it already
+     * has it.
+     */
+    private void claim() {
+        if (this.owner[0] != this) {
+            this.surface.font(this.font);
+            this.owner[0] = this;
+            this.colored();
+            this.clipped(this.clip);
+            this.hinted();
+        }
+    }
+
+    /**
+     * Hands the color with the opacity of the composite to the surface, if
+     * it has the state of these graphics.
+     */
+    private void colored() {
+        if (this.owner[0] == this) {
+            Color value = this.color;
+            if (this.composite instanceof AlphaComposite) {
+                final float opacity =
+                    ((AlphaComposite) this.composite).getAlpha();
+                if (opacity < 1.0f) {
+                    value = new Color(
+                        value.getRed(), value.getGreen(), value.getBlue(),
+                        Math.round(value.getAlpha() * opacity)
+                    );
+                }
+            }
+            this.surface.color(value);
+        }
+    }
+
+    /**
+     * Sets the clip and hands it to the surface, if it has the state of
+     * these graphics.
+     * @param value The clip on the surface or null for no clip.
+     */
+    private void clipped(final Rectangle value) {
+        this.clip = value;
+        if (this.owner[0] == this) {
+            if (value == null) {
+                this.surface.clip(
+                    0, 0, Integer.MAX_VALUE / 2, Integer.MAX_VALUE / 2
+                );
+            } else {
+                this.surface.clip(value.x, value.y, value.width, value.height);
+            }
+        }
+    }
+
+    /**
+     * Hands the rendering hints to the surface, if it has the state of these
+     * graphics, but other hints.
+     */
+    private void hinted() {
+        if (this.owner[0] == this && !this.hints.equals(this.handed[0])) {
+            this.handed[0] = (RenderingHints) this.hints.clone();
+            this.surface.hints(this.handed[0]);
+        }
+    }
+
+    /**
+     * Intersects the clip with a rectangle.
+     * @param area The rectangle on the surface.
+     */
+    private void narrowed(final Rectangle area) {
+        if (this.clip == null) {
+            this.clipped(area);
+        } else {
+            this.clipped(this.clip.intersection(area));
+        }
+    }
+
+    /**
+     * Brings the translation up to date after a change of the transform.
+     */
+    private void transformed() {
+        final double left = this.transform.getTranslateX();
+        final double top = this.transform.getTranslateY();
+        this.integral = (this.transform.getType()
+            & ~AffineTransform.TYPE_TRANSLATION) == 0
+            && left == Math.rint(left) && top == Math.rint(top)
+            && Math.abs(left) <= SurfaceGraphics.LIMIT
+            && Math.abs(top) <= SurfaceGraphics.LIMIT;
+        this.horizontal = (int) left;
+        this.vertical = (int) top;
+    }
+
+    /**
+     * Returns whether the simple drawings of the surface can be used, because
+     * the transform is integral and the paint is a color.
+     * @return True if the surface can draw directly.
+     */
+    private boolean simple() {
+        return this.integral && this.paint instanceof Color;
+    }
+
+    /**
+     * Returns whether the transform keeps images upright and unflipped, so
+     * that they are only scaled and moved.
+     * @return True if images can be drawn into a rectangle of the surface.
+     */
+    private boolean straight() {
+        return this.transform.getShearX() == 0.0
+            && this.transform.getShearY() == 0.0
+            && this.transform.getScaleX() > 0.0
+            && this.transform.getScaleY() > 0.0;
+    }
+
+    /**
+     * Returns the x coordinate of a point on the surface, if the transform
+     * is straight.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     * @return The x coordinate on the surface.
+     */
+    private int column(final int left, final int top) {
+        final int result;
+        if (this.integral) {
+            result = left + this.horizontal;
+        } else {
+            result = (int) Math.round(
+                left * this.transform.getScaleX()
+                    + top * this.transform.getShearX()
+                    + this.transform.getTranslateX()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the y coordinate of a point on the surface, if the transform
+     * is straight.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     * @return The y coordinate on the surface.
+     */
+    private int row(final int left, final int top) {
+        final int result;
+        if (this.integral) {
+            result = top + this.vertical;
+        } else {
+            result = (int) Math.round(
+                left * this.transform.getShearY()
+                    + top * this.transform.getScaleY()
+                    + this.transform.getTranslateY()
+            );
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bounds of a rectangle on the surface.
+     * @param left The x coordinate of the rectangle.
+     * @param top The y coordinate of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return The bounds on the surface.
+     */
+    private Rectangle device(
+        final int left, final int top, final int width, final int height
+    ) {
+        final Rectangle result;
+        if (this.integral) {
+            result = new Rectangle(
+                left + this.horizontal, top + this.vertical, width, height
+            );
+        } else {
+            result = this.device(new Rectangle(left, top, width, height));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the bounds of a shape on the surface.
+     * @param shape The shape.
+     * @return The bounds on the surface.
+     */
+    private Rectangle device(final Shape shape) {
+        return this.transform.createTransformedShape(shape).getBounds();
+    }
+
+    /**
+     * Draws by Java2D onto an image, which is then drawn on the surface.
+     * This is the fallback for what a surface can't draw, like paints that
+     * aren't colors and rotated images.
+     * @param bounds The bounds of the drawing.
+     * @param drawing The drawing on Java2D graphics with the state of these
+     *  graphics.
+     */
+    private void rasterized(
+        final Shape bounds, final Consumer<Graphics2D> drawing
+    ) {
+        Rectangle area = this.device(bounds);
+        if (this.clip != null) {
+            area = area.intersection(this.clip);
+        }
+        if (!area.isEmpty()) {
+            final var image = new BufferedImage(
+                area.width, area.height, BufferedImage.TYPE_INT_ARGB
+            );
+            final Graphics2D graphics = image.createGraphics();
+            graphics.setRenderingHints(this.hints);
+            graphics.translate(-area.x, -area.y);
+            graphics.transform(this.transform);
+            graphics.setPaint(this.paint);
+            graphics.setComposite(this.composite);
+            graphics.setStroke(this.stroke);
+            graphics.setFont(this.font);
+            drawing.accept(graphics);
+            graphics.dispose();
+            this.target[0] = area.x;
+            this.target[1] = area.y;
+            this.target[2] = area.x + area.width;
+            // @checkstyle MagicNumber (5 lines)
+            this.target[3] = area.y + area.height;
+            this.source[0] = 0;
+            this.source[1] = 0;
+            this.source[2] = area.width;
+            this.source[3] = area.height;
+            this.claim();
+            this.surface.image(image, this.target, this.source);
+        }
+    }
+
+    /**
+     * Puts translated points into the reused coordinates.
+     * @param xpoints The x coordinates.
+     * @param ypoints The y coordinates.
+     * @param count The amount of points.
+     */
+    private void points(
+        final int[] xpoints, final int[] ypoints, final int count
+    ) {
+        this.reserve(count);
+        for (int index = 0; index < count; ++index) {
+            this.columns[index] = xpoints[index] + this.horizontal;
+            this.rows[index] = ypoints[index] + this.vertical;
+        }
+    }
+
+    /**
+     * Puts the points of an arc into the reused coordinates.
+     * @param left The x coordinate of the rectangle of the oval.
+     * @param top The y coordinate of the rectangle of the oval.
+     * @param width The width of the rectangle of the oval.
+     * @param height The height of the rectangle of the oval.
+     * @param start The start angle in degrees.
+     * @param angle The angular extent in degrees.
+     * @param first The index of the first point.
+     * @return The index after the last point.
+     */
+    private int arc(
+        final int left, final int top, final int width, final int height,
+        final int start, final int angle, final int first
+    ) {
+        final int segments = Math.max(
+            1, Math.abs(angle) * SurfaceGraphics.SEGMENTS / 360
+        );
+        this.reserve(first + segments + 1);
+        final double radius = width / 2.0;
+        final double vertical = height / 2.0;
+        final double center = left + radius + this.horizontal;
+        final double middle = top + vertical + this.vertical;
+        for (int segment = 0; segment <= segments; ++segment) {
+            final double theta = Math.toRadians(
+                start + (double) angle * segment / segments
+            );
+            this.columns[first + segment] = (int) Math.round(
+                center + radius * Math.cos(theta)
+            );
+            this.rows[first + segment] = (int) Math.round(
+                middle - vertical * Math.sin(theta)
+            );
+        }
+        return first + segments + 1;
+    }
+
+    /**
+     * Returns whether the stroke is thin enough for the simple outlines of
+     * the surface.
+     * @return True if the stroke is a solid line of at most one pixel.
+     */
+    private boolean thin() {
+        return this.stroke instanceof BasicStroke
+            && ((BasicStroke) this.stroke).getLineWidth() <= 1.0f
+            && ((BasicStroke) this.stroke).getDashArray() == null;
+    }
+
+    /**
+     * Creates the path through points.
+     * @param xpoints The x coordinates.
+     * @param ypoints The y coordinates.
+     * @param count The amount of points.
+     * @param closed Whether the last point is connected to the first one.
+     * @return The path.
+     */
+    private static Path2D path(
+        final int[] xpoints, final int[] ypoints, final int count,
+        final boolean closed
+    ) {
+        final var result = new Path2D.Float();
+        if (count > 0) {
+            result.moveTo(xpoints[0], ypoints[0]);
+            for (int index = 1; index < count; ++index) {
+                result.lineTo(xpoints[index], ypoints[index]);
+            }
+            if (closed) {
+                result.closePath();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Makes sure that the reused coordinates hold enough points.
+     * @param count The amount of points.
+     */
+    private void reserve(final int count) {
+        if (this.columns.length < count) {
+            this.columns = Arrays.copyOf(this.columns, count);
+            this.rows = Arrays.copyOf(this.rows, count);
+        }
+    }
+
+    /**
+     * Returns the configuration of an ARGB image device.
+     * @return The configuration.
+     */
+    private static GraphicsConfiguration imageConfiguration() {
+        final var probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+            .createGraphics();
+        final var result = probe.getDeviceConfiguration();
+        probe.dispose();
+        return result;
+    }
+}
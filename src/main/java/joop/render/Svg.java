@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import joop.shape.Shape;
+
+/**
+ * A shape exported as an SVG document. The shape is painted like in a
+ * window, but each drawing is streamed as a vector element, so even scenes
+ * with many thousands of shapes are exported without holding the document
+ * in memory. Repeated styles and images are only written once.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given shape.</p>
+ * @since 0.47
+ */
+public class Svg {
+    /**
+     * The scene to export.
+     */
+    private final Scene scene;
+
+    /**
+     * The width of the document.
+     */
+    private final int width;
+
+    /**
+     * The height of the document.
+     */
+    private final int height;
+
+    /**
+     * Ctor.
+     * @param shape The shape to export.
+     * @param width The width of the document.
+     * @param height The height of the document.
+     */
+    public Svg(final Shape shape, final int width, final int height) {
+        this.scene = new Scene(shape);
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Writes the document as UTF-8. The stream is flushed, but not closed.
+     * @param out The stream to write to.
+     */
+    public final void write(final OutputStream out) {
+        this.write(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the document. The writer is flushed, but not closed.
+     * @param out The writer to write to.
+     */
+    public final void write(final Writer out) {
+        final var surface = new SvgSurface(
+            new BufferedWriter(out), this.width, this.height
+        );
+        surface.open();
+        this.scene.paint(surface, this.width, this.height);
+        surface.close();
+    }
+}
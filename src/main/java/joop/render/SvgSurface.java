@@ -0,0 +1,763 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import joop.image.Png;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A surface that streams each drawing as an SVG element to a writer, so
+ * the document is never held in memory. Styles are written once as CSS
+ * classes and referenced by the following elements. Images are embedded as
+ * png once and then referenced by their identity. Only the current clip is
+ * kept, so the used memory depends on the amount of different styles and
+ * images, but not on the amount of drawings. Of the rendering hints, only
+ * switching the antialiasing off is kept, as crisp edges of the shapes.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ * @checkstyle ClassDataAbstractionCoupling (2 lines)
+ */
+final class SvgSurface implements Surface {
+    /**
+     * The writer of the document.
+     */
+    private final Writer out;
+
+    /**
+     * The width of the document.
+     */
+    private final int width;
+
+    /**
+     * The height of the document.
+     */
+    private final int height;
+
+    /**
+     * The reused text of the current element.
+     */
+    private final StringBuilder element;
+
+    /**
+     * The reused coordinates of the path segments.
+     */
+    private final float[] coords;
+
+    /**
+     * The class names of the written styles.
+     */
+    private final Map<String, String> styles;
+
+    /**
+     * The ids of the written images.
+     */
+    private final Map<Image, String> images;
+
+    /**
+     * The current clip as left, top, width and height. It's only valid
+     * while a group of the clip is open.
+     */
+    private final int[] clipping;
+
+    /**
+     * The graphics for the shapes.
+     */
+    private final Lazy<Graphics> adapter;
+
+    /**
+     * The graphics to measure fonts with.
+     */
+    private final Lazy<Graphics2D> probe;
+
+    /**
+     * The current color.
+     */
+    private Color color;
+
+    /**
+     * The current font.
+     */
+    private Font font;
+
+    /**
+     * The style of the edges of the shapes, empty for the default.
+     */
+    private String edges;
+
+    /**
+     * The class of filled elements or null if it has to be looked up.
+     */
+    private String filling;
+
+    /**
+     * The class of outlined elements or null if it has to be looked up.
+     */
+    private String stroking;
+
+    /**
+     * The class of texts or null if it has to be looked up.
+     */
+    private String writing;
+
+    /**
+     * Whether a group of the current clip is open.
+     */
+    private boolean grouped;
+
+    /**
+     * The amount of written clip paths.
+     */
+    private int clips;
+
+    /**
+     * Ctor.
+     * @param out The writer of the document.
+     * @param width The width of the document.
+     * @param height The height of the document.
+     */
+    SvgSurface(final Writer out, final int width, final int height) {
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.element = new StringBuilder();
+        // @checkstyle MagicNumber (1 line)
+        this.coords = new float[6];
+        this.styles = new HashMap<>();
+        this.images = new IdentityHashMap<>();
+        this.adapter = new Cached<>(() -> new SurfaceGraphics(this));
+        this.probe = new Cached<>(
+            () -> new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+                .createGraphics()
+        );
+        this.color = Color.BLACK;
+        // @checkstyle MagicNumber (1 line)
+        this.font = new Font(Font.DIALOG, Font.PLAIN, 12);
+        this.edges = "";
+        // @checkstyle MagicNumber (1 line)
+        this.clipping = new int[4];
+        this.grouped = false;
+        this.clips = 0;
+    }
+
+    /**
+     * Writes the start of the document.
+     */
+    void open() {
+        this.element.setLength(0);
+        this.element
+            .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<svg xmlns=\"http://www.w3.org/2000/svg\"")
+            .append(" xmlns:xlink=\"http://www.w3.org/1999/xlink\"")
+            .append(" width=\"").append(this.width)
+            .append("\" height=\"").append(this.height)
+            .append("\" viewBox=\"0 0 ").append(this.width).append(' ')
+            .append(this.height).append("\">\n");
+        this.write();
+    }
+
+    /**
+     * Writes the end of the document and flushes the writer. The writer
+     * isn't closed.
+     */
+    void close() {
+        this.element.setLength(0);
+        this.ungroup();
+        this.element.append("</svg>\n");
+        this.write();
+        try {
+            this.out.flush();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't write the svg document", exception
+            );
+        }
+    }
+
+    @Override
+    public Graphics graphics() {
+        return this.adapter.value();
+    }
+
+    @Override
+    public void color(final Color value) {
+        if (!value.equals(this.color)) {
+            this.color = value;
+            this.filling = null;
+            this.stroking = null;
+            this.writing = null;
+        }
+    }
+
+    @Override
+    public void font(final Font value) {
+        if (!value.equals(this.font)) {
+            this.font = value;
+            this.writing = null;
+        }
+    }
+
+    @Override
+    public void hints(final RenderingHints value) {
+        final String style;
+        if (RenderingHints.VALUE_ANTIALIAS_OFF.equals(
+            value.get(RenderingHints.KEY_ANTIALIASING)
+        )) {
+            style = "shape-rendering:crispEdges;";
+        } else {
+            style = "";
+        }
+        if (!style.equals(this.edges)) {
+            this.edges = style;
+            this.filling = null;
+            this.stroking = null;
+        }
+    }
+
+    @Override
+    public FontMetrics metrics(final Font value) {
+        return this.probe.value().getFontMetrics(value);
+    }
+
+    @Override
+    public void clip(
+        final int left, final int top, final int width, final int height
+    ) {
+        final boolean whole = left <= 0 && top <= 0
+            && (long) left + width >= this.width
+            && (long) top + height >= this.height;
+        if (whole && this.grouped || !whole
+            && !(this.clipped(left, top) && this.sized(width, height))) {
+            this.element.setLength(0);
+            this.ungroup();
+            if (!whole) {
+                this.clipping[0] = left;
+                this.clipping[1] = top;
+                this.clipping[2] = width;
+                // @checkstyle MagicNumber (1 line)
+                this.clipping[3] = height;
+                final String id = String.join(
+                    "", "c", Integer.toString(this.clips)
+                );
+                this.clips += 1;
+                this.element
+                    .append("<clipPath id=\"").append(id).append("\">");
+                this.rect(left, top, width, height).append("/></clipPath>")
+                    .append("<g clip-path=\"url(#").append(id)
+                    .append(")\">\n");
+                this.grouped = true;
+            }
+            this.write();
+        }
+    }
+
+    @Override
+    public void fill(
+        final int left, final int top, final int width, final int height
+    ) {
+        final String style = this.filled();
+        this.rect(left, top, width, height);
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    // @checkstyle ParameterName (3 lines)
+    @Override
+    public void line(final int fx, final int fy, final int sx, final int sy) {
+        final String style = this.stroked();
+        this.element.append("<line x1=\"");
+        SvgSurface.center(this.element, fx).append("\" y1=\"");
+        SvgSurface.center(this.element, fy).append("\" x2=\"");
+        SvgSurface.center(this.element, sx).append("\" y2=\"");
+        SvgSurface.center(this.element, sy).append('"');
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    @Override
+    public void oval(
+        final int left, final int top, final int width, final int height,
+        final boolean filled
+    ) {
+        final String style;
+        final double inset;
+        if (filled) {
+            style = this.filled();
+            inset = 0.0;
+        } else {
+            style = this.stroked();
+            inset = 1.0;
+        }
+        final double horizontal = (width + inset) / 2.0;
+        final double vertical = (height + inset) / 2.0;
+        this.element.append("<ellipse cx=\"");
+        SvgSurface.number(this.element, left + horizontal).append("\" cy=\"");
+        SvgSurface.number(this.element, top + vertical).append("\" rx=\"");
+        SvgSurface.number(this.element, horizontal - inset / 2.0)
+            .append("\" ry=\"");
+        SvgSurface.number(this.element, vertical - inset / 2.0).append('"');
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    @Override
+    public void polyline(
+        final int[] horizontal, final int[] vertical, final int count,
+        final boolean closed
+    ) {
+        final String style = this.stroked();
+        if (closed) {
+            this.element.append("<polygon points=\"");
+        } else {
+            this.element.append("<polyline points=\"");
+        }
+        for (int index = 0; index < count; ++index) {
+            if (index > 0) {
+                this.element.append(' ');
+            }
+            SvgSurface.center(this.element, horizontal[index]).append(',');
+            SvgSurface.center(this.element, vertical[index]);
+        }
+        this.element.append('"');
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    @Override
+    public void polygon(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        final String style = this.filled();
+        this.element.append("<polygon points=\"");
+        for (int index = 0; index < count; ++index) {
+            if (index > 0) {
+                this.element.append(' ');
+            }
+            this.element.append(horizontal[index]).append(',')
+                .append(vertical[index]);
+        }
+        this.element.append('"');
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    @Override
+    public void area(final Shape shape) {
+        final String style = this.filled();
+        final PathIterator path = shape.getPathIterator(null);
+        this.element.append("<path");
+        if (path.getWindingRule() == PathIterator.WIND_EVEN_ODD) {
+            this.element.append(" fill-rule=\"evenodd\"");
+        }
+        this.element.append(" d=\"");
+        while (!path.isDone()) {
+            this.segment(path.currentSegment(this.coords));
+            path.next();
+        }
+        this.element.append('"');
+        this.styled(style).append("/>\n");
+        this.write();
+    }
+
+    @Override
+    public void image(
+        final Image image, final int[] target, final int[] source
+    ) {
+        final String id = this.embedded(image);
+        // @checkstyle MagicNumber (9 lines)
+        this.element.append("<svg x=\"").append(target[0])
+            .append("\" y=\"").append(target[1])
+            .append("\" width=\"").append(target[2] - target[0])
+            .append("\" height=\"").append(target[3] - target[1])
+            .append("\" viewBox=\"").append(source[0]).append(' ')
+            .append(source[1]).append(' ').append(source[2] - source[0])
+            .append(' ').append(source[3] - source[1])
+            .append("\" preserveAspectRatio=\"none\"><use xlink:href=\"#")
+            .append(id).append("\"/></svg>\n");
+        this.write();
+    }
+
+    @Override
+    public void text(final String text, final int left, final int top) {
+        final String style = this.written();
+        this.element.append("<text x=\"").append(left).append("\" y=\"")
+            .append(top).append('"');
+        this.styled(style).append('>');
+        SvgSurface.escaped(this.element, text).append("</text>\n");
+        this.write();
+    }
+
+    /**
+     * Returns the class of filled elements in the current color and starts
+     * the element.
+     * @return The class name.
+     */
+    private String filled() {
+        this.element.setLength(0);
+        if (this.filling == null) {
+            this.filling = this.style(
+                SvgSurface.paint(
+                    new StringBuilder(this.edges).append("fill:"), this.color
+                )
+                    .append(";fill-opacity:")
+            );
+        }
+        return this.filling;
+    }
+
+    /**
+     * Returns the class of outlined elements in the current color and
+     * starts the element.
+     * @return The class name.
+     */
+    private String stroked() {
+        this.element.setLength(0);
+        if (this.stroking == null) {
+            this.stroking = this.style(
+                SvgSurface.paint(
+                    new StringBuilder(this.edges).append("fill:none;stroke:"),
+                    this.color
+                )
+                    .append(";stroke-linecap:square;stroke-opacity:")
+            );
+        }
+        return this.stroking;
+    }
+
+    /**
+     * Returns the class of texts in the current color and font and starts
+     * the element.
+     * @return The class name.
+     */
+    private String written() {
+        this.element.setLength(0);
+        if (this.writing == null) {
+            final var css = new StringBuilder("font-family:'")
+                .append(this.font.getFamily().replace("'", ""))
+                .append("';font-size:").append(this.font.getSize())
+                .append("px;");
+            if (this.font.isBold()) {
+                css.append("font-weight:bold;");
+            }
+            if (this.font.isItalic()) {
+                css.append("font-style:italic;");
+            }
+            this.writing = this.style(
+                SvgSurface.paint(css.append("fill:"), this.color)
+                    .append(";fill-opacity:")
+            );
+        }
+        return this.writing;
+    }
+
+    /**
+     * Returns the class of a style, writing the class first if it's new.
+     * The opacity of the current color is appended to the style.
+     * @param css The style ending with an opacity property.
+     * @return The class name.
+     */
+    private String style(final StringBuilder css) {
+        // @checkstyle MagicNumber (1 line)
+        SvgSurface.number(css, this.color.getAlpha() / 255.0);
+        final String key = css.toString();
+        String name = this.styles.get(key);
+        if (name == null) {
+            name = String.join(
+                "", "s", Integer.toString(this.styles.size())
+            );
+            this.styles.put(key, name);
+            this.element.append("<style>.").append(name).append('{')
+                .append(key).append("}</style>\n");
+        }
+        return name;
+    }
+
+    /**
+     * Returns the id of an image, writing the image first if it's new.
+     * @param image The image.
+     * @return The id.
+     */
+    private String embedded(final Image image) {
+        this.element.setLength(0);
+        String id = this.images.get(image);
+        if (id == null) {
+            id = String.join("", "i", Integer.toString(this.images.size()));
+            this.images.put(image, id);
+            final BufferedImage rendered = SvgSurface.rendered(image);
+            this.element.append("<defs><image id=\"").append(id)
+                .append("\" width=\"").append(rendered.getWidth())
+                .append("\" height=\"").append(rendered.getHeight())
+                .append("\" xlink:href=\"data:image/png;base64,");
+            this.write();
+            try (OutputStream base = Base64.getEncoder().wrap(
+                new OutputStream() {
+                    @Override
+                    public void write(final int value) throws IOException {
+                        SvgSurface.this.out.write(value);
+                    }
+                }
+            )) {
+                new Png().write(rendered, base);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(
+                    "Couldn't embed an image into the svg document",
+                    exception
+                );
+            }
+            this.element.append("\"/></defs>\n");
+        }
+        return id;
+    }
+
+    /**
+     * Appends the path data of a segment.
+     * @param type The type of the segment.
+     */
+    private void segment(final int type) {
+        final int count;
+        switch (type) {
+            case PathIterator.SEG_MOVETO:
+                this.element.append('M');
+                count = 1;
+                break;
+            case PathIterator.SEG_LINETO:
+                this.element.append('L');
+                count = 1;
+                break;
+            case PathIterator.SEG_QUADTO:
+                this.element.append('Q');
+                count = 2;
+                break;
+            case PathIterator.SEG_CUBICTO:
+                this.element.append('C');
+                // @checkstyle MagicNumber (1 line)
+                count = 3;
+                break;
+            default:
+                this.element.append('Z');
+                count = 0;
+                break;
+        }
+        for (int index = 0; index < count * 2; ++index) {
+            if (index > 0) {
+                this.element.append(' ');
+            }
+            SvgSurface.number(this.element, this.coords[index]);
+        }
+    }
+
+    /**
+     * Starts a rect element.
+     * @param left The x coordinate of the rect.
+     * @param top The y coordinate of the rect.
+     * @param width The width of the rect.
+     * @param height The height of the rect.
+     * @return The text of the element.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    private StringBuilder rect(
+        final int left, final int top, final int width, final int height
+    ) {
+        return this.element.append("<rect x=\"").append(left)
+            .append("\" y=\"").append(top)
+            .append("\" width=\"").append(width)
+            .append("\" height=\"").append(height).append('"');
+    }
+
+    /**
+     * Returns whether the open group is clipped at a position.
+     * @param left The x coordinate of the clip.
+     * @param top The y coordinate of the clip.
+     * @return True if the group has the clip position.
+     */
+    private boolean clipped(final int left, final int top) {
+        return this.grouped && this.clipping[0] == left
+            && this.clipping[1] == top;
+    }
+
+    /**
+     * Returns whether the clip of the open group has a size.
+     * @param width The width of the clip.
+     * @param height The height of the clip.
+     * @return True if the clip has the size.
+     */
+    private boolean sized(final int width, final int height) {
+        // @checkstyle MagicNumber (1 line)
+        return this.clipping[2] == width && this.clipping[3] == height;
+    }
+
+    /**
+     * Appends the class attribute.
+     * @param style The class name.
+     * @return The text of the element.
+     */
+    private StringBuilder styled(final String style) {
+        return this.element.append(" class=\"").append(style).append('"');
+    }
+
+    /**
+     * Closes the group of the current clip, if there is one.
+     */
+    private void ungroup() {
+        if (this.grouped) {
+            this.element.append("</g>\n");
+            this.grouped = false;
+        }
+    }
+
+    /**
+     * Writes the current element.
+     */
+    private void write() {
+        try {
+            this.out.append(this.element);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                "Couldn't write the svg document", exception
+            );
+        }
+        this.element.setLength(0);
+    }
+
+    /**
+     * Returns an image that can be encoded.
+     * @param image The image.
+     * @return The image itself if possible or a copy of it.
+     */
+    private static BufferedImage rendered(final Image image) {
+        final BufferedImage result;
+        if (image instanceof BufferedImage) {
+            result = (BufferedImage) image;
+        } else {
+            final var copy = new BufferedImage(
+                Math.max(1, image.getWidth(null)),
+                Math.max(1, image.getHeight(null)),
+                BufferedImage.TYPE_INT_ARGB
+            );
+            final Graphics graphics = copy.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+            result = copy;
+        }
+        return result;
+    }
+
+    /**
+     * Appends a color as hexadecimal RGB.
+     * @param text The text to append to.
+     * @param color The color.
+     * @return The text.
+     */
+    private static StringBuilder paint(
+        final StringBuilder text, final Color color
+    ) {
+        // @checkstyle MagicNumber (1 line)
+        final String hex = Integer.toHexString(color.getRGB() & 0xffffff);
+        text.append('#');
+        // @checkstyle MagicNumber (1 line)
+        for (int digit = hex.length(); digit < 6; ++digit) {
+            text.append('0');
+        }
+        return text.append(hex);
+    }
+
+    /**
+     * Appends the center of a pixel, where thin outlines are drawn through.
+     * @param text The text to append to.
+     * @param pixel The coordinate of the pixel.
+     * @return The text.
+     */
+    private static StringBuilder center(
+        final StringBuilder text, final int pixel
+    ) {
+        return text.append(pixel).append(".5");
+    }
+
+    /**
+     * Appends a number with at most two decimals.
+     * @param text The text to append to.
+     * @param value The number.
+     * @return The text.
+     */
+    private static StringBuilder number(
+        final StringBuilder text, final double value
+    ) {
+        // @checkstyle MagicNumber (1 line)
+        final long hundredths = Math.round(value * 100.0);
+        if (hundredths < 0) {
+            text.append('-');
+        }
+        final long absolute = Math.abs(hundredths);
+        // @checkstyle MagicNumber (4 lines)
+        text.append(absolute / 100);
+        final long rest = absolute % 100;
+        if (rest != 0) {
+            text.append('.').append(rest / 10);
+            if (rest % 10 != 0) {
+                text.append(rest % 10);
+            }
+        }
+        return text;
+    }
+
+    /**
+     * Appends a text with escaped markup characters.
+     * @param text The text to append to.
+     * @param content The text to escape.
+     * @return The text.
+     */
+    private static StringBuilder escaped(
+        final StringBuilder text, final String content
+    ) {
+        for (int index = 0; index < content.length(); ++index) {
+            final char character = content.charAt(index);
+            if (character == '<') {
+                text.append("&lt;");
+            } else if (character == '>') {
+                text.append("&gt;");
+            } else if (character == '&') {
+                text.append("&amp;");
+            } else {
+                text.append(character);
+            }
+        }
+        return text;
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.stream.IntStream;
+import joop.image.Raster;
+import joop.shape.Shape;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * A shape rendered into a large image by several threads. The shape is
+ * drawn once into a log of its drawings and their bounds. Then the image is
+ * split into tiles, which are painted in parallel by replaying only the
+ * drawings that intersect the tile. Each thread paints its tiles on one
+ * reused tile image. So the shape itself is only drawn on the calling
+ * thread, but the rasterization scales with the processors. The result is
+ * the same as of {@link Offscreen}.
+ * <p>This class is mutable and not thread-safe, because each call of
+ * {@link #image()} paints over the same image.</p>
+ * @since 0.47
+ */
+public class TiledOffscreen {
+    /**
+     * The default width and height of a tile.
+     */
+    private static final int DEFAULT_TILE = 256;
+
+    /**
+     * The scene to paint.
+     */
+    private final Scene scene;
+
+    /**
+     * The log of the drawings of the scene.
+     */
+    private final DrawingLog log;
+
+    /**
+     * The image to paint on.
+     */
+    private final Lazy<BufferedImage> target;
+
+    /**
+     * The width and height of a tile.
+     */
+    private final int tile;
+
+    /**
+     * The amount of tiles.
+     */
+    private final int count;
+
+    /**
+     * The reused tile image of each thread.
+     */
+    private final ThreadLocal<Buffer> buffers;
+
+    /**
+     * Ctor.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     */
+    public TiledOffscreen(
+        final Shape shape, final int width, final int height
+    ) {
+        this(shape, width, height, TiledOffscreen.DEFAULT_TILE);
+    }
+
+    /**
+     * Ctor.
+     * @param shape The shape to render.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @param tile The width and height of a tile.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public TiledOffscreen(
+        final Shape shape, final int width, final int height,
+        final int tile
+    ) {
+        this.scene = new Scene(shape);
+        this.log = new DrawingLog();
+        this.target = new Cached<>(
+            () -> new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+        );
+        this.tile = tile;
+        this.count = TiledOffscreen.tiles(width, tile)
+            * TiledOffscreen.tiles(height, tile);
+        this.buffers = ThreadLocal.withInitial(() -> new Buffer(tile));
+    }
+
+    /**
+     * Renders a frame. The returned image is the same for each call and will
+     * be overwritten by the next call.
+     * @return The image with the rendered frame.
+     */
+    public final BufferedImage image() {
+        final BufferedImage result = this.target.value();
+        this.log.clear();
+        this.log.clip(0, 0, result.getWidth(), result.getHeight());
+        this.scene.paint(this.log, result.getWidth(), result.getHeight());
+        IntStream.range(0, this.count).parallel().forEach(
+            index -> this.paint(index, result)
+        );
+        return result;
+    }
+
+    /**
+     * Paints a tile on the buffer of the current thread and copies it into
+     * the result.
+     * @param index The index of the tile.
+     * @param result The image with the rendered frame.
+     */
+    private void paint(final int index, final BufferedImage result) {
+        final int columns = TiledOffscreen.tiles(result.getWidth(), this.tile);
+        final int left = index % columns * this.tile;
+        final int top = index / columns * this.tile;
+        final int width = Math.min(this.tile, result.getWidth() - left);
+        final int height = Math.min(this.tile, result.getHeight() - top);
+        final Buffer buffer = this.buffers.get();
+        this.log.replay(buffer.at(left, top), left, top, width, height);
+        final int[] source = buffer.pixels();
+        final int[] pixels = new Raster(result).pixels();
+        for (int row = 0; row < height; ++row) {
+            System.arraycopy(
+                source, row * this.tile,
+                pixels, (top + row) * result.getWidth() + left, width
+            );
+        }
+    }
+
+    /**
+     * Returns the amount of tiles along a side.
+     * @param length The length of the side.
+     * @param tile The length of a tile.
+     * @return The amount of tiles.
+     */
+    private static int tiles(final int length, final int tile) {
+        return (length + tile - 1) / tile;
+    }
+
+    /**
+     * The reused tile image of a thread.
+     * <p>This class is mutable and not thread-safe. It's confined to its
+     * thread.</p>
+     * @since 0.47
+     */
+    private static final class Buffer {
+        /**
+         * The reused image.
+         */
+        private final BufferedImage image;
+
+        /**
+         * The graphics of the image.
+         */
+        private final Graphics2D graphics;
+
+        /**
+         * The surface of the graphics.
+         */
+        private final Surface surface;
+
+        /**
+         * The x coordinate of the current tile.
+         */
+        private int left;
+
+        /**
+         * The y coordinate of the current tile.
+         */
+        private int top;
+
+        /**
+         * Ctor.
+         * @param tile The width and height of a tile.
+         */
+        Buffer(final int tile) {
+            this.image = new BufferedImage(
+                tile, tile, BufferedImage.TYPE_INT_ARGB
+            );
+            this.graphics = this.image.createGraphics();
+            this.surface = new Java2dSurface(this.graphics);
+            this.left = 0;
+            this.top = 0;
+        }
+
+        /**
+         * Moves the image to a tile, so that the tile is painted on it.
+         * @param column The x coordinate of the tile.
+         * @param row The y coordinate of the tile.
+         * @return The surface of the image.
+         */
+        Surface at(final int column, final int row) {
+            this.graphics.translate(this.left - column, this.top - row);
+            this.left = column;
+            this.top = row;
+            return this.surface;
+        }
+
+        /**
+         * Returns the pixels of the image.
+         * @return The ARGB pixels row by row.
+         */
+        int[] pixels() {
+            return new Raster(this.image).pixels();
+        }
+    }
+}
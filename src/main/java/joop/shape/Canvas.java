@@ -0,0 +1,237 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Optional;
+import joop.event.mouse.Mouse;
+import joop.image.Raster;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * An area whose pixels are written directly. The pixels are the backing
+ * array of an ARGB image, so millions of writes don't go through
+ * {@link Graphics}. Writes have to be marked as changed. With each drawing,
+ * only the changed rectangle is copied into a second image that is drawn on
+ * the window. This second image is never accessed directly, so Java2D can
+ * keep it accelerated.
+ * <p>This class is mutable and not thread-safe. It has to be written on the
+ * thread that draws it.</p>
+ * @since 0.47
+ */
+public class Canvas implements Shape {
+    /**
+     * The area of the canvas.
+     */
+    private final Area area;
+
+    /**
+     * The image with the written pixels.
+     */
+    private final Lazy<BufferedImage> written;
+
+    /**
+     * The pixels of the written image.
+     */
+    private final Lazy<int[]> pixels;
+
+    /**
+     * The image that is drawn.
+     */
+    private final Lazy<BufferedImage> shown;
+
+    /**
+     * The graphics of the drawn image.
+     */
+    private final Lazy<Graphics2D> copier;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * The left column of the changed rectangle.
+     */
+    private int left;
+
+    /**
+     * The top row of the changed rectangle.
+     */
+    private int top;
+
+    /**
+     * The column after the changed rectangle.
+     */
+    private int right;
+
+    /**
+     * The row after the changed rectangle.
+     */
+    private int bottom;
+
+    /**
+     * Ctor. The canvas starts transparent.
+     * @param area The area of the canvas.
+     */
+    public Canvas(final Area area) {
+        this.area = area;
+        this.written = new Cached<>(() -> Canvas.image(area));
+        this.pixels = new Cached<>(
+            () -> new Raster(this.written.value()).pixels()
+        );
+        this.shown = new Cached<>(() -> Canvas.image(area));
+        this.copier = new Cached<>(
+            () -> {
+                final var result = this.shown.value().createGraphics();
+                result.setComposite(AlphaComposite.Src);
+                return result;
+            }
+        );
+        this.successor = Optional.of(this);
+        this.left = 0;
+        this.top = 0;
+        this.right = 0;
+        this.bottom = 0;
+    }
+
+    /**
+     * Returns the width of the canvas.
+     * @return The amount of pixels per row.
+     */
+    public final int width() {
+        return this.written.value().getWidth();
+    }
+
+    /**
+     * Returns the height of the canvas.
+     * @return The amount of rows.
+     */
+    public final int height() {
+        return this.written.value().getHeight();
+    }
+
+    /**
+     * Returns the ARGB pixels row by row. Writes into the array are only
+     * shown after they were marked by {@link #changed}.
+     * @return The pixels.
+     */
+    public final int[] pixels() {
+        return this.pixels.value();
+    }
+
+    /**
+     * Writes one pixel and marks it as changed.
+     * @param column The column of the pixel.
+     * @param row The row of the pixel.
+     * @param argb The ARGB color.
+     */
+    public final void set(final int column, final int row, final int argb) {
+        this.pixels()[row * this.width() + column] = argb;
+        this.changed(column, row, 1, 1);
+    }
+
+    /**
+     * Writes every pixel with one color and marks the canvas as changed.
+     * @param argb The ARGB color.
+     */
+    public final void fill(final int argb) {
+        Arrays.fill(this.pixels(), argb);
+        this.changed(0, 0, this.width(), this.height());
+    }
+
+    /**
+     * Marks a rectangle of pixels as changed.
+     * @param column The left column of the rectangle.
+     * @param row The top row of the rectangle.
+     * @param width The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final void changed(
+        final int column, final int row, final int width, final int height
+    ) {
+        if (this.left < this.right) {
+            this.left = Math.min(this.left, column);
+            this.top = Math.min(this.top, row);
+            this.right = Math.max(this.right, column + width);
+            this.bottom = Math.max(this.bottom, row + height);
+        } else {
+            this.left = column;
+            this.top = row;
+            this.right = column + width;
+            this.bottom = row + height;
+        }
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        if (this.left < this.right && this.top < this.bottom) {
+            this.copier.value().drawImage(
+                this.written.value(),
+                this.left, this.top, this.right, this.bottom,
+                this.left, this.top, this.right, this.bottom,
+                null
+            );
+            this.left = 0;
+            this.top = 0;
+            this.right = 0;
+            this.bottom = 0;
+        }
+        final var image = this.shown.value();
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, width, height) -> graphics.drawImage(image, x, y, null)
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Creates a transparent image covering the area.
+     * @param area The area of the canvas.
+     * @return The image.
+     */
+    private static BufferedImage image(final Area area) {
+        return area.result(
+            (pos, size) -> size.result(
+                (width, height) -> new BufferedImage(
+                    width, height, BufferedImage.TYPE_INT_ARGB
+                )
+            )
+        );
+    }
+}
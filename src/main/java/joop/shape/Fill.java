@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.Graphics;
+
+/**
+ * The filling of one instance of a batch, for example a rect or an oval. The
+ * instance contains the points of its box, unless the filling says
+ * otherwise.
+ * @since 0.47
+ */
+interface Fill {
+    /**
+     * Fills one instance with the current color of the graphics.
+     * @param graphics The graphics to draw on.
+     * @param left The x coordinate of the instance.
+     * @param top The y coordinate of the instance.
+     * @param width The width of the instance.
+     * @param height The height of the instance.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    void fill(Graphics graphics, int left, int top, int width, int height);
+
+    /**
+     * Returns whether the filled instance contains a point.
+     * @param left The x coordinate of the instance.
+     * @param top The y coordinate of the instance.
+     * @param width The width of the instance.
+     * @param height The height of the instance.
+     * @param column The x coordinate of the point, inside of the box.
+     * @param row The y coordinate of the point, inside of the box.
+     * @return True if the point is inside the instance.
+     * @checkstyle ParameterNumber (5 lines)
+     */
+    default boolean contains(
+        final int left, final int top, final int width, final int height,
+        final int column, final int row
+    ) {
+        return true;
+    }
+}
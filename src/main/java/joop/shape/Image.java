@@ -31,6 +31,8 @@ import java.util.Optional;
 import javax.imageio.ImageIO;
 import joop.event.Event;
 import joop.event.mouse.Mouse;
+import joop.image.Encoded;
+import joop.image.Mipmaps;
 import joop.shape.layout.Adjustment;
 import unit.area.Area;
 import unit.area.AreaOf;
@@ -42,16 +44,17 @@ import unit.pos.Pos;
 
 /**
  * An image. This class won't cache the result of the given {@link Lazy}
- * instance. Use {@link Cached} for this purpose.
+ * instance. Use {@link Cached} for this purpose. Images that are drawn much
+ * smaller than their size should be drawn from {@link Mipmaps}.
  * <p>This class doesn't change its own state. Whether it is immutable or not,
  * depends on the given constructor arguments and the used constructor.
  * @since 0.22
  */
 public class Image implements Shape {
     /**
-     * The loading of the image.
+     * The levels of the image.
      */
-    private final Lazy<BufferedImage> loading;
+    private final Mipmaps levels;
 
     /**
      * The area of the image.
@@ -208,7 +211,59 @@ public class Image implements Shape {
         final OverlapArea area,
         final Event event
     ) {
-        this.loading = Objects.requireNonNull(loading);
+        this(new Mipmaps(Objects.requireNonNull(loading), 0), area, event);
+    }
+
+    /**
+     * Ctor. The image is decoded once, when it's drawn for the first time.
+     * @param encoded The encoded image, for example a png file in memory.
+     * @param area The area of the image.
+     */
+    public Image(final Encoded encoded, final Area area) {
+        // @checkstyle ParameterName (1 line)
+        this(encoded, new OverlapAreaOf(area), (x, y) -> { });
+    }
+
+    /**
+     * Ctor. The image is decoded once, when it's drawn for the first time.
+     * @param encoded The encoded image, for example a png file in memory.
+     * @param area The area of the image.
+     * @param event The event of the image.
+     */
+    public Image(
+        final Encoded encoded,
+        final OverlapArea area,
+        final Event event
+    ) {
+        this(new Cached<>(encoded::decoded), area, event);
+    }
+
+    /**
+     * Ctor. The image is drawn from the level of the pyramid that is
+     * closest to its size.
+     * @param levels The pyramid of the image. It can be shared by several
+     *  images.
+     * @param area The area of the image.
+     */
+    public Image(final Mipmaps levels, final Area area) {
+        // @checkstyle ParameterName (1 line)
+        this(levels, new OverlapAreaOf(area), (x, y) -> { });
+    }
+
+    /**
+     * Ctor. The image is drawn from the level of the pyramid that is
+     * closest to its size.
+     * @param levels The pyramid of the image. It can be shared by several
+     *  images.
+     * @param area The area of the image.
+     * @param event The event of the image.
+     */
+    public Image(
+        final Mipmaps levels,
+        final OverlapArea area,
+        final Event event
+    ) {
+        this.levels = levels;
         this.area = area;
         this.event = event;
     }
@@ -221,7 +276,7 @@ public class Image implements Shape {
             this.area,
             // @checkstyle ParameterName (1 line)
             (x, y, width, height) -> graphics.drawImage(
-                this.loading.value(), x, y, width, height, null
+                this.levels.level(width, height), x, y, width, height, null
             )
         );
         return Optional.of(this);
@@ -0,0 +1,431 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import joop.event.mouse.Mouse;
+
+/**
+ * The instances of a batch shape like {@link RectBatch} or {@link OvalBatch}.
+ * Every instance is packed as five ints into one array: x, y, width, height
+ * and the ARGB color. The instances are drawn sorted by their color, so that
+ * the color of the graphics only changes once per distinct color. The colors
+ * are created when the order is sorted, so drawing doesn't allocate them.
+ * Instances with the same color keep their order. Hits are found through a
+ * grid of cells, so that one listener serves the whole batch. The filling
+ * decides, whether a point in the box of an instance hits it. The grid only
+ * covers the bounds of the last drawing, because nothing outside of them can
+ * be pressed.
+ * <p>This class is mutable and not thread-safe. It has to be updated on the
+ * thread that draws it.</p>
+ * @since 0.47
+ */
+public class Instances {
+    /**
+     * The amount of ints per instance.
+     */
+    private static final int FIELDS = 5;
+
+    /**
+     * The binary logarithm of the length of a grid cell.
+     */
+    private static final int CELL = 6;
+
+    /**
+     * The extent of the grid until the instances are drawn with a clip. No
+     * window is larger than this.
+     */
+    private static final int EXTENT = 1 << 15;
+
+    /**
+     * The filling of rects, which contain their whole box.
+     */
+    private static final Fill BOX = Graphics::fillRect;
+
+    /**
+     * The packed instances.
+     */
+    private final int[] packed;
+
+    /**
+     * The sort keys of the colors and indices.
+     */
+    private final long[] keys;
+
+    /**
+     * The indices of the instances in the drawing order.
+     */
+    private final int[] order;
+
+    /**
+     * The position of each instance in the drawing order.
+     */
+    private final int[] rank;
+
+    /**
+     * The color to set at each position in the drawing order, where the
+     * color changes, otherwise null.
+     */
+    private final Color[] colors;
+
+    /**
+     * Whether the drawing order is up to date.
+     */
+    private boolean sorted;
+
+    /**
+     * Whether the grid is up to date.
+     */
+    private boolean indexed;
+
+    /**
+     * The amount of grid columns.
+     */
+    private int columns;
+
+    /**
+     * The amount of grid rows.
+     */
+    private int rows;
+
+    /**
+     * The right end of the last drawing.
+     */
+    private int right;
+
+    /**
+     * The bottom end of the last drawing.
+     */
+    private int bottom;
+
+    /**
+     * The start of each cell in the items of the grid.
+     */
+    private int[] starts;
+
+    /**
+     * The instance indices of all cells, cell after cell.
+     */
+    private int[] items;
+
+    /**
+     * Ctor. The array is used without copying.
+     * @param packed The packed instances: x, y, width, height and the ARGB
+     *  color for each instance.
+     */
+    public Instances(final int[] packed) {
+        if (packed.length % Instances.FIELDS != 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "The length %d isn't a multiple of %d",
+                    packed.length, Instances.FIELDS
+                )
+            );
+        }
+        this.packed = packed;
+        this.keys = new long[packed.length / Instances.FIELDS];
+        this.order = new int[this.keys.length];
+        this.rank = new int[this.keys.length];
+        this.colors = new Color[this.keys.length];
+        this.sorted = false;
+        this.indexed = false;
+        this.right = Instances.EXTENT;
+        this.bottom = Instances.EXTENT;
+        this.starts = new int[1];
+        this.items = new int[0];
+    }
+
+    /**
+     * Returns the amount of instances.
+     * @return The amount.
+     */
+    public final int count() {
+        return this.keys.length;
+    }
+
+    /**
+     * Replaces a range of instances.
+     * @param first The index of the first instance to replace.
+     * @param values The packed instances to put there.
+     */
+    public final void update(final int first, final int[] values) {
+        if (values.length % Instances.FIELDS != 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "The length %d isn't a multiple of %d",
+                    values.length, Instances.FIELDS
+                )
+            );
+        }
+        System.arraycopy(
+            values, 0, this.packed, first * Instances.FIELDS, values.length
+        );
+        this.sorted = false;
+        this.indexed = false;
+    }
+
+    /**
+     * Returns the rect that is drawn last at the given point.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     * @return The index of the instance or -1 if there is none.
+     */
+    public final int hit(final int left, final int top) {
+        return this.hit(left, top, Instances.BOX);
+    }
+
+    /**
+     * Returns the instance that is drawn last at the given point.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     * @param fill The filling of one instance, which decides the hits.
+     * @return The index of the instance or -1 if there is none.
+     */
+    final int hit(final int left, final int top, final Fill fill) {
+        this.index();
+        final int column = left >> Instances.CELL;
+        final int row = top >> Instances.CELL;
+        int result = -1;
+        if (left >= 0 && top >= 0
+            && column < this.columns && row < this.rows) {
+            final int cell = row * this.columns + column;
+            for (int item = this.starts[cell]; item < this.starts[cell + 1];
+                ++item) {
+                final int index = this.items[item];
+                if (this.contains(index, left, top, fill)
+                    && (result < 0 || this.rank[index] > this.rank[result])) {
+                    result = index;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Draws all instances sorted by their color.
+     * @param graphics The graphics to draw on.
+     * @param fill The filling of one instance.
+     */
+    final void draw(final Graphics graphics, final Fill fill) {
+        this.sort();
+        final Rectangle clip = graphics.getClipBounds();
+        if (clip != null) {
+            final int width = Math.min(
+                Math.max(0, clip.x + clip.width), Instances.EXTENT
+            );
+            final int height = Math.min(
+                Math.max(0, clip.y + clip.height), Instances.EXTENT
+            );
+            if (width != this.right || height != this.bottom) {
+                this.right = width;
+                this.bottom = height;
+                this.indexed = false;
+            }
+        }
+        for (int position = 0; position < this.order.length; ++position) {
+            final int base = this.order[position] * Instances.FIELDS;
+            if (this.colors[position] != null) {
+                graphics.setColor(this.colors[position]);
+            }
+            fill.fill(
+                graphics, this.packed[base], this.packed[base + 1],
+                // @checkstyle MagicNumber (1 line)
+                this.packed[base + 2], this.packed[base + 3]
+            );
+        }
+    }
+
+    /**
+     * Registers one listener for the whole batch that gets the index of the
+     * pressed instance.
+     * @param mouse The mouse to register on.
+     * @param fill The filling of one instance, which decides the hits.
+     * @param target The target that gets the index.
+     */
+    final void registerFor(
+        final Mouse mouse, final Fill fill, final IntConsumer target
+    ) {
+        mouse.register(
+            (MouseListener) new MouseAdapter() {
+                @Override
+                public void mousePressed(final MouseEvent event) {
+                    final int index = Instances.this.hit(
+                        event.getX(), event.getY(), fill
+                    );
+                    if (index >= 0) {
+                        target.accept(index);
+                    }
+                }
+            }
+        );
+    }
+
+    /**
+     * Brings the drawing order and its colors up to date. The color of a
+     * position is kept, if it's still the same.
+     */
+    private void sort() {
+        if (!this.sorted) {
+            for (int index = 0; index < this.keys.length; ++index) {
+                // @checkstyle MagicNumber (2 lines)
+                this.keys[index] = (this.packed[index * Instances.FIELDS + 4]
+                    & 0xFFFFFFFFL) << 32 | index;
+            }
+            Arrays.sort(this.keys);
+            for (int position = 0; position < this.keys.length; ++position) {
+                final int index = (int) this.keys[position];
+                this.order[position] = index;
+                this.rank[index] = position;
+                final int argb = (int) (this.keys[position] >>> 32);
+                if (position > 0
+                    && (int) (this.keys[position - 1] >>> 32) == argb) {
+                    this.colors[position] = null;
+                } else if (this.colors[position] == null
+                    || this.colors[position].getRGB() != argb) {
+                    this.colors[position] = new Color(argb, true);
+                }
+            }
+            this.sorted = true;
+        }
+    }
+
+    /**
+     * Brings the grid up to date.
+     * @checkstyle ExecutableStatementCount (50 lines)
+     */
+    private void index() {
+        if (!this.indexed) {
+            this.sort();
+            long right = 0L;
+            long bottom = 0L;
+            for (int index = 0; index < this.keys.length; ++index) {
+                final int base = index * Instances.FIELDS;
+                right = Math.max(
+                    right, (long) this.packed[base] + this.packed[base + 2]
+                );
+                // @checkstyle MagicNumber (2 lines)
+                bottom = Math.max(
+                    bottom,
+                    (long) this.packed[base + 1] + this.packed[base + 3]
+                );
+            }
+            this.columns = (int) (Math.min(right, this.right)
+                >> Instances.CELL) + 1;
+            this.rows = (int) (Math.min(bottom, this.bottom)
+                >> Instances.CELL) + 1;
+            this.starts = new int[this.columns * this.rows + 1];
+            for (int index = 0; index < this.keys.length; ++index) {
+                this.cells(index, null);
+            }
+            for (int cell = 1; cell < this.starts.length; ++cell) {
+                this.starts[cell] += this.starts[cell - 1];
+            }
+            this.items = new int[this.starts[this.starts.length - 1]];
+            final int[] next = Arrays.copyOf(this.starts, this.starts.length);
+            for (int index = 0; index < this.keys.length; ++index) {
+                this.cells(index, next);
+            }
+            this.indexed = true;
+        }
+    }
+
+    /**
+     * Visits the grid cells covered by an instance. Without positions, each
+     * visit counts the instance for the cell after the visited one. With
+     * positions, the instance is put into the visited cell. Instances outside
+     * of the last drawing don't cover any cells.
+     * @param index The index of the instance.
+     * @param next The next free item of each cell or null to count.
+     */
+    private void cells(final int index, final int[] next) {
+        final int base = index * Instances.FIELDS;
+        final int width = this.packed[base + 2];
+        // @checkstyle MagicNumber (1 line)
+        final int height = this.packed[base + 3];
+        if (width > 0 && height > 0 && this.packed[base] < this.right
+            && this.packed[base + 1] < this.bottom) {
+            final int first = Instances.cell(this.packed[base], this.columns);
+            final int last = Instances.cell(
+                (long) this.packed[base] + width - 1, this.columns
+            );
+            final int top = Instances.cell(this.packed[base + 1], this.rows);
+            final int bottom = Instances.cell(
+                (long) this.packed[base + 1] + height - 1, this.rows
+            );
+            for (int row = top; row <= bottom; ++row) {
+                for (int column = first; column <= last; ++column) {
+                    final int cell = row * this.columns + column;
+                    if (next == null) {
+                        ++this.starts[cell + 1];
+                    } else {
+                        this.items[next[cell]] = index;
+                        ++next[cell];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the grid cell of a coordinate, clamped to the grid.
+     * @param coordinate The coordinate.
+     * @param cells The amount of cells in this direction.
+     * @return The index of the cell.
+     */
+    private static int cell(final long coordinate, final int cells) {
+        return (int) Math.min(
+            Math.max(0L, coordinate) >> Instances.CELL, cells - 1
+        );
+    }
+
+    /**
+     * Returns whether an instance contains a point. The point has to be in
+     * the box of the instance and the filling has to contain it.
+     * @param index The index of the instance.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     * @param fill The filling of the instance.
+     * @return True if the point is inside the instance.
+     */
+    private boolean contains(
+        final int index, final int left, final int top, final Fill fill
+    ) {
+        final int base = index * Instances.FIELDS;
+        return left >= this.packed[base]
+            && left < this.packed[base] + this.packed[base + 2]
+            && top >= this.packed[base + 1]
+            // @checkstyle MagicNumber (1 line)
+            && top < this.packed[base + 1] + this.packed[base + 3]
+            && fill.contains(
+                this.packed[base], this.packed[base + 1],
+                // @checkstyle MagicNumber (1 line)
+                this.packed[base + 2], this.packed[base + 3], left, top
+            );
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.Graphics;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import joop.event.mouse.Mouse;
+import joop.shape.layout.Adjustment;
+
+/**
+ * Many filled ovals drawn at once. Unlike one {@link Oval} per oval, the
+ * ovals are given as packed ints and drawn in one pass sorted by their
+ * color. The adjustment isn't used. Instead of one event per oval, the batch
+ * has one press target that gets the index of the pressed oval. Presses in
+ * the corners of the box of an oval don't hit it.
+ * <p>This class doesn't change its own state. Whether it is immutable or not,
+ * depends on the given instances.</p>
+ * @since 0.47
+ */
+public class OvalBatch implements Shape {
+    /**
+     * The filling of an oval.
+     */
+    private static final Fill ELLIPSE = new Ellipse();
+
+    /**
+     * The ovals.
+     */
+    private final Instances instances;
+
+    /**
+     * The target that gets the index of a pressed oval.
+     */
+    private final IntConsumer press;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor.
+     * @param instances The ovals.
+     */
+    public OvalBatch(final Instances instances) {
+        this(instances, index -> { });
+    }
+
+    /**
+     * Ctor.
+     * @param instances The ovals.
+     * @param press The target that gets the index of a pressed oval.
+     */
+    public OvalBatch(final Instances instances, final IntConsumer press) {
+        this.instances = instances;
+        this.press = press;
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        this.instances.draw(graphics, OvalBatch.ELLIPSE);
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        this.instances.registerFor(mouse, OvalBatch.ELLIPSE, this.press);
+    }
+
+    /**
+     * The filling of an oval, which contains the pixels whose centers are
+     * inside the ellipse of the box.
+     * <p>This class is immutable and thread-safe.</p>
+     * @since 0.47
+     */
+    private static final class Ellipse implements Fill {
+        // @checkstyle ParameterNumber (2 lines)
+        @Override
+        public void fill(
+            final Graphics graphics, final int left, final int top,
+            final int width, final int height
+        ) {
+            graphics.fillOval(left, top, width, height);
+        }
+
+        // @checkstyle ParameterNumber (2 lines)
+        @Override
+        public boolean contains(
+            final int left, final int top, final int width, final int height,
+            final int column, final int row
+        ) {
+            final double horizontal =
+                (2.0 * ((double) column - left) + 1.0 - width) / width;
+            final double vertical =
+                (2.0 * ((double) row - top) + 1.0 - height) / height;
+            return horizontal * horizontal + vertical * vertical <= 1.0;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import joop.event.mouse.Mouse;
+import joop.image.Raster;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * Many moving dots. The particles are kept in primitive arrays instead of one
+ * object per particle, so that spawning and updating them doesn't allocate.
+ * Each particle is drawn as one pixel directly into the pixels of an image
+ * covering the area, which is then drawn at once. The positions are relative
+ * to the area. Large amounts of particles are updated in parallel.
+ * <p>This class is mutable and not thread-safe. It has to be updated on the
+ * thread that draws it, for example by a
+ * {@link joop.window.feature.Periodic} feature.</p>
+ * @since 0.47
+ */
+public class Particles implements Shape {
+    /**
+     * The amount of particles from which the update runs in parallel.
+     */
+    private static final int PARALLEL = 1 << 14;
+
+    /**
+     * The amount of particles updated by one parallel task.
+     */
+    private static final int CHUNK = 1 << 12;
+
+    /**
+     * The area of the particles.
+     */
+    private final Area area;
+
+    /**
+     * The horizontal positions.
+     */
+    private final float[] horizontal;
+
+    /**
+     * The vertical positions.
+     */
+    private final float[] vertical;
+
+    /**
+     * The horizontal velocities in pixels per second.
+     */
+    private final float[] right;
+
+    /**
+     * The vertical velocities in pixels per second.
+     */
+    private final float[] down;
+
+    /**
+     * The remaining lifetimes in seconds.
+     */
+    private final float[] lifetimes;
+
+    /**
+     * The ARGB colors.
+     */
+    private final int[] colors;
+
+    /**
+     * The image the particles are drawn on.
+     */
+    private final Lazy<BufferedImage> layer;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * The amount of living particles.
+     */
+    private int count;
+
+    /**
+     * Ctor.
+     * @param area The area of the particles.
+     * @param capacity The maximum amount of living particles.
+     */
+    public Particles(final Area area, final int capacity) {
+        this.area = area;
+        this.horizontal = new float[capacity];
+        this.vertical = new float[capacity];
+        this.right = new float[capacity];
+        this.down = new float[capacity];
+        this.lifetimes = new float[capacity];
+        this.colors = new int[capacity];
+        this.layer = new Cached<>(
+            () -> area.result(
+                (pos, size) -> size.result(
+                    (width, height) -> new BufferedImage(
+                        width, height, BufferedImage.TYPE_INT_ARGB
+                    )
+                )
+            )
+        );
+        this.successor = Optional.of(this);
+        this.count = 0;
+    }
+
+    /**
+     * Adds a particle. Nothing happens if the capacity is reached.
+     * @param left The horizontal position.
+     * @param top The vertical position.
+     * @param velocity The horizontal velocity in pixels per second.
+     * @param fall The vertical velocity in pixels per second.
+     * @param lifetime The lifetime in seconds.
+     * @param argb The ARGB color.
+     * @return True if the particle was added.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public final boolean spawn(
+        final float left, final float top, final float velocity,
+        final float fall, final float lifetime, final int argb
+    ) {
+        final boolean result = this.count < this.colors.length;
+        if (result) {
+            this.horizontal[this.count] = left;
+            this.vertical[this.count] = top;
+            this.right[this.count] = velocity;
+            this.down[this.count] = fall;
+            this.lifetimes[this.count] = lifetime;
+            this.colors[this.count] = argb;
+            ++this.count;
+        }
+        return result;
+    }
+
+    /**
+     * Moves the particles and removes the ones whose lifetime ended.
+     * @param seconds The elapsed time in seconds.
+     */
+    public final void update(final float seconds) {
+        if (this.count < Particles.PARALLEL) {
+            this.move(0, this.count, seconds);
+        } else {
+            final int total = this.count;
+            IntStream.range(0, (total + Particles.CHUNK - 1) / Particles.CHUNK)
+                .parallel()
+                .forEach(
+                    chunk -> this.move(
+                        chunk * Particles.CHUNK,
+                        Math.min(total, (chunk + 1) * Particles.CHUNK),
+                        seconds
+                    )
+                );
+        }
+        int index = 0;
+        while (index < this.count) {
+            if (this.lifetimes[index] > 0.0f) {
+                ++index;
+            } else {
+                --this.count;
+                this.horizontal[index] = this.horizontal[this.count];
+                this.vertical[index] = this.vertical[this.count];
+                this.right[index] = this.right[this.count];
+                this.down[index] = this.down[this.count];
+                this.lifetimes[index] = this.lifetimes[this.count];
+                this.colors[index] = this.colors[this.count];
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of living particles.
+     * @return The amount.
+     */
+    public final int count() {
+        return this.count;
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final var image = this.layer.value();
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final int[] pixels = new Raster(image).pixels();
+        Arrays.fill(pixels, 0);
+        for (int index = 0; index < this.count; ++index) {
+            final int left = (int) this.horizontal[index];
+            final int top = (int) this.vertical[index];
+            if (left >= 0 && left < width && top >= 0 && top < height) {
+                pixels[top * width + left] = this.colors[index];
+            }
+        }
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, w, h) -> graphics.drawImage(image, x, y, null)
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // the particles don't react to the mouse
+    }
+
+    /**
+     * Moves a range of particles and shortens their lifetimes.
+     * @param from The first index.
+     * @param until The index after the last one.
+     * @param seconds The elapsed time in seconds.
+     */
+    private void move(final int from, final int until, final float seconds) {
+        for (int index = from; index < until; ++index) {
+            this.horizontal[index] += this.right[index] * seconds;
+            this.vertical[index] += this.down[index] * seconds;
+            this.lifetimes[index] -= seconds;
+        }
+    }
+}
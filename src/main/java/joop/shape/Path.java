@@ -0,0 +1,196 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.BasicStroke;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.util.Optional;
+import joop.event.mouse.Mouse;
+import joop.shape.layout.Adjustment;
+import unit.color.Black;
+import unit.color.Color;
+
+/**
+ * An outline through many points, drawn as one open path or filled as one
+ * closed path. The points are kept in primitive arrays by {@link Points} and
+ * the path is reused for every frame. The adjustment isn't used.
+ * <p>This class is mutable and not thread-safe, because it rebuilds its path
+ * for each drawing.</p>
+ * @since 0.47
+ */
+public class Path implements Shape {
+    /**
+     * The points of the outline.
+     */
+    private final Points points;
+
+    /**
+     * The color of the path.
+     */
+    private final Color color;
+
+    /**
+     * The stroke of the outline.
+     */
+    private final Stroke stroke;
+
+    /**
+     * Whether the path is filled instead of outlined.
+     */
+    private final boolean filled;
+
+    /**
+     * The reused path.
+     */
+    private final Path2D.Float path;
+
+    /**
+     * The tracing of the points into the path.
+     */
+    private final Points.Range tracing;
+
+    /**
+     * The drawing of the points on graphics without paths.
+     */
+    private final Points.Range polygon;
+
+    /**
+     * The graphics of the current drawing on graphics without paths.
+     */
+    private Graphics plain;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor. Creates a black filled path.
+     * @param points The points of the outline.
+     */
+    public Path(final Points points) {
+        this(points, new Black(), true);
+    }
+
+    /**
+     * Ctor. Creates a thin outline or a filled path.
+     * @param points The points of the outline.
+     * @param color The color of the path.
+     * @param filled Whether the path is filled instead of outlined.
+     */
+    public Path(final Points points, final Color color, final boolean filled) {
+        this(points, color, new BasicStroke(), filled);
+    }
+
+    /**
+     * Ctor.
+     * @param points The points of the outline.
+     * @param color The color of the path.
+     * @param stroke The stroke of the outline.
+     * @param filled Whether the path is filled instead of outlined.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public Path(
+        final Points points, final Color color, final Stroke stroke,
+        final boolean filled
+    ) {
+        this.points = points;
+        this.color = color;
+        this.stroke = stroke;
+        this.filled = filled;
+        this.path = new Path2D.Float();
+        this.tracing = this::trace;
+        this.polygon = this::polygon;
+        this.plain = null;
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        graphics.setColor(this.color.result(java.awt.Color::new));
+        if (graphics instanceof Graphics2D) {
+            this.path.reset();
+            this.points.apply(this.tracing);
+            final var graphics2d = (Graphics2D) graphics;
+            if (this.filled) {
+                graphics2d.fill(this.path);
+            } else {
+                final var previous = graphics2d.getStroke();
+                graphics2d.setStroke(this.stroke);
+                graphics2d.draw(this.path);
+                graphics2d.setStroke(previous);
+            }
+        } else {
+            this.plain = graphics;
+            this.points.apply(this.polygon);
+            this.plain = null;
+        }
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Traces the points into the path. Only a filled path is closed.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     */
+    private void trace(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        if (count > 0) {
+            this.path.moveTo(horizontal[0], vertical[0]);
+            for (int index = 1; index < count; ++index) {
+                this.path.lineTo(horizontal[index], vertical[index]);
+            }
+            if (this.filled) {
+                this.path.closePath();
+            }
+        }
+    }
+
+    /**
+     * Fills the points as a polygon or draws them as a polyline on the
+     * graphics of the current drawing.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     */
+    private void polygon(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        if (this.filled) {
+            this.plain.fillPolygon(horizontal, vertical, count);
+        } else {
+            this.plain.drawPolyline(horizontal, vertical, count);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.util.Arrays;
+
+/**
+ * Points kept in primitive arrays for {@link Polyline} and {@link Path}.
+ * Appending a point doesn't create any object. The points either grow with
+ * every append or, as a ring, keep only the newest points and drop the
+ * oldest. A ring that wrapped around is put in order into a second pair of
+ * arrays for drawing, because drawing needs the points from the start of
+ * the arrays.
+ * <p>This class is mutable and not thread-safe. It has to be appended to on
+ * the thread that draws it.</p>
+ * @since 0.47
+ */
+public class Points {
+    /**
+     * Whether the oldest points are dropped when the capacity is reached.
+     */
+    private final boolean ring;
+
+    /**
+     * The capacity of the ring or the current capacity of growing points.
+     */
+    private int capacity;
+
+    /**
+     * The x coordinates.
+     */
+    private int[] horizontal;
+
+    /**
+     * The y coordinates.
+     */
+    private int[] vertical;
+
+    /**
+     * The x coordinates of a wrapped ring in order.
+     */
+    private final int[] lefts;
+
+    /**
+     * The y coordinates of a wrapped ring in order.
+     */
+    private final int[] tops;
+
+    /**
+     * The amount of points.
+     */
+    private int count;
+
+    /**
+     * The index of the next point in the ring.
+     */
+    private int next;
+
+    /**
+     * Ctor. Creates growing points.
+     * @param capacity The initial capacity.
+     */
+    public Points(final int capacity) {
+        this(capacity, false);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity The capacity.
+     * @param ring Whether the oldest points are dropped when the capacity is
+     *  reached instead of growing.
+     */
+    public Points(final int capacity, final boolean ring) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(
+                String.format("The capacity %d isn't positive", capacity)
+            );
+        }
+        this.ring = ring;
+        this.capacity = capacity;
+        this.horizontal = new int[capacity];
+        this.vertical = new int[capacity];
+        if (ring) {
+            this.lefts = new int[capacity];
+            this.tops = new int[capacity];
+        } else {
+            this.lefts = new int[0];
+            this.tops = new int[0];
+        }
+        this.count = 0;
+        this.next = 0;
+    }
+
+    /**
+     * Appends a point.
+     * @param left The x coordinate.
+     * @param top The y coordinate.
+     */
+    public final void append(final int left, final int top) {
+        if (this.ring) {
+            this.horizontal[this.next] = left;
+            this.vertical[this.next] = top;
+            this.next = (this.next + 1) % this.capacity;
+            this.count = Math.min(this.count + 1, this.capacity);
+        } else {
+            if (this.count == this.capacity) {
+                this.capacity *= 2;
+                this.horizontal = Arrays.copyOf(this.horizontal, this.capacity);
+                this.vertical = Arrays.copyOf(this.vertical, this.capacity);
+            }
+            this.horizontal[this.count] = left;
+            this.vertical[this.count] = top;
+            ++this.count;
+        }
+    }
+
+    /**
+     * Removes all points.
+     */
+    public final void clear() {
+        this.count = 0;
+        this.next = 0;
+    }
+
+    /**
+     * Returns the amount of points.
+     * @return The amount.
+     */
+    public final int count() {
+        return this.count;
+    }
+
+    /**
+     * Gives the points from the oldest to the newest. The arrays must not be
+     * changed.
+     * @param target The target that gets the x coordinates, the y
+     *  coordinates and the amount of points.
+     */
+    final void apply(final Range target) {
+        if (this.ring && this.count == this.capacity && this.next > 0) {
+            final int tail = this.capacity - this.next;
+            System.arraycopy(this.horizontal, this.next, this.lefts, 0, tail);
+            System.arraycopy(this.horizontal, 0, this.lefts, tail, this.next);
+            System.arraycopy(this.vertical, this.next, this.tops, 0, tail);
+            System.arraycopy(this.vertical, 0, this.tops, tail, this.next);
+            target.apply(this.lefts, this.tops, this.count);
+        } else {
+            target.apply(this.horizontal, this.vertical, this.count);
+        }
+    }
+
+    /**
+     * Points from the start of two arrays.
+     * @since 0.47
+     */
+    interface Range {
+        /**
+         * Applies the points.
+         * @param horizontal The x coordinates.
+         * @param vertical The y coordinates.
+         * @param count The amount of points.
+         */
+        void apply(int[] horizontal, int[] vertical, int count);
+    }
+}
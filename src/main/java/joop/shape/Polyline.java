@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.BasicStroke;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Stroke;
+import java.util.Optional;
+import joop.event.mouse.Mouse;
+import joop.shape.layout.Adjustment;
+import unit.color.Black;
+import unit.color.Color;
+
+/**
+ * Connected lines through many points, drawn with a single call. Unlike one
+ * {@link Line} per segment, the points are kept in primitive arrays by
+ * {@link Points} and the drawing of them is reused for every frame. The
+ * adjustment isn't used.
+ * <p>This class is mutable and not thread-safe, because it keeps the graphics
+ * of the current drawing.</p>
+ * @since 0.47
+ */
+public class Polyline implements Shape {
+    /**
+     * The points to connect.
+     */
+    private final Points points;
+
+    /**
+     * The color of the lines.
+     */
+    private final Color color;
+
+    /**
+     * The stroke of the lines.
+     */
+    private final Stroke stroke;
+
+    /**
+     * The drawing of the points on the graphics of the current drawing.
+     */
+    private final Points.Range polyline;
+
+    /**
+     * The graphics of the current drawing.
+     */
+    private Graphics current;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * Ctor. Creates thin black lines.
+     * @param points The points to connect.
+     */
+    public Polyline(final Points points) {
+        this(points, new Black());
+    }
+
+    /**
+     * Ctor. Creates thin lines.
+     * @param points The points to connect.
+     * @param color The color of the lines.
+     */
+    public Polyline(final Points points, final Color color) {
+        this(points, color, new BasicStroke());
+    }
+
+    /**
+     * Ctor.
+     * @param points The points to connect.
+     * @param color The color of the lines.
+     * @param stroke The stroke of the lines.
+     */
+    public Polyline(
+        final Points points, final Color color, final Stroke stroke
+    ) {
+        this.points = points;
+        this.color = color;
+        this.stroke = stroke;
+        this.polyline = this::polyline;
+        this.current = null;
+        this.successor = Optional.of(this);
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        graphics.setColor(this.color.result(java.awt.Color::new));
+        this.current = graphics;
+        if (graphics instanceof Graphics2D) {
+            final var graphics2d = (Graphics2D) graphics;
+            final var previous = graphics2d.getStroke();
+            graphics2d.setStroke(this.stroke);
+            this.points.apply(this.polyline);
+            graphics2d.setStroke(previous);
+        } else {
+            this.points.apply(this.polyline);
+        }
+        this.current = null;
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // currently no implementation
+    }
+
+    /**
+     * Draws the points as a polyline on the graphics of the current drawing.
+     * @param horizontal The x coordinates.
+     * @param vertical The y coordinates.
+     * @param count The amount of points.
+     */
+    private void polyline(
+        final int[] horizontal, final int[] vertical, final int count
+    ) {
+        this.current.drawPolyline(horizontal, vertical, count);
+    }
+}
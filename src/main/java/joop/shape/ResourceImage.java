@@ -23,14 +23,16 @@ package joop.shape;
 
 import java.util.Objects;
 import joop.event.Event;
+import joop.image.Encoded;
 import unit.area.Area;
 import unit.area.AreaOf;
 import unit.area.OverlapArea;
 import unit.area.OverlapAreaOf;
 
 /**
- * An image from the resources folder. This is a shortcut for:
- * <p>this.class.getClassLoader().getResource(path).getFile()</p>
+ * An image from the resources folder. The resource is decoded from its
+ * stream, so it also works inside a jar without unpacking it. Resources in a
+ * directory are mapped into memory instead.
  * @since 0.39
  */
 public class ResourceImage extends Image {
@@ -83,12 +85,15 @@ public class ResourceImage extends Image {
         final String path, final OverlapArea area, final Event event
     ) {
         super(
-            Objects.requireNonNull(
-                Thread
-                    .currentThread()
-                    .getContextClassLoader()
-                    .getResource(path)
-            ).getFile(),
+            new Encoded(
+                Objects.requireNonNull(
+                    Thread
+                        .currentThread()
+                        .getContextClassLoader()
+                        .getResource(path),
+                    () -> String.join("", "There is no resource ", path)
+                )
+            ),
             area,
             event
         );
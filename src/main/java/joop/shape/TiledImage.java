@@ -0,0 +1,551 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import joop.event.mouse.Mouse;
+import joop.shape.layout.Adjustment;
+import unit.area.Area;
+import unit.functional.Cached;
+import unit.functional.Lazy;
+
+/**
+ * An image that is too large to be loaded at once, like a map. The image is
+ * scaled into its area like {@link Image}, but only the tiles that intersect
+ * the clip of the graphics are decoded, and only at the resolution that is
+ * needed: If the image is drawn smaller than its size, every second, fourth,
+ * eighth and so on pixel is decoded. The tiles are decoded on a background
+ * thread and kept in a cache that drops the least recently drawn tiles. A
+ * missing tile is drawn from a coarser tile, if there is one, until it's
+ * decoded. Tiles that were scrolled out of view before their turn came are
+ * skipped. {@link #fresh()} can be the repaint condition of a window, so
+ * that decoded tiles show up. If a tile can't be decoded, the next drawing
+ * throws the failure.
+ * <p>This shape doesn't react to the mouse.</p>
+ * <p>This class is mutable and thread-safe. It should be drawn on one
+ * thread, while the tiles are decoded on another one.</p>
+ * @since 0.47
+ */
+public class TiledImage implements Shape, AutoCloseable {
+    /**
+     * The default width and height of a decoded tile.
+     */
+    private static final int DEFAULT_TILE = 256;
+
+    /**
+     * The default amount of cached tiles.
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The amount of coarser levels that are tried for a missing tile.
+     */
+    private static final int FALLBACKS = 4;
+
+    /**
+     * The amount of bits of a column or a row in a key.
+     */
+    private static final int BITS = 29;
+
+    /**
+     * The image file.
+     */
+    private final File file;
+
+    /**
+     * The area of the image.
+     */
+    private final Area area;
+
+    /**
+     * The width and height of a decoded tile.
+     */
+    private final int tile;
+
+    /**
+     * The cached tiles by their key, with the least recently used first.
+     */
+    private final Map<Long, BufferedImage> tiles;
+
+    /**
+     * The keys of the tiles that wait to be decoded, with the number of the
+     * last drawing that needed them.
+     */
+    private final Map<Long, Long> pending;
+
+    /**
+     * The number of the current drawing.
+     */
+    private final AtomicLong drawings;
+
+    /**
+     * The failure of the decoding that wasn't thrown yet.
+     */
+    private final AtomicReference<RuntimeException> failure;
+
+    /**
+     * The width and height of the image.
+     */
+    private final Lazy<int[]> size;
+
+    /**
+     * The background thread that decodes the tiles.
+     */
+    private final ExecutorService background;
+
+    /**
+     * Whether tiles were decoded since the image was drawn.
+     */
+    private final AtomicBoolean decoded;
+
+    /**
+     * The successor of this shape.
+     */
+    private final Optional<Shape> successor;
+
+    /**
+     * The reader of the tiles or null if it isn't opened yet. It's only used
+     * by the background thread.
+     */
+    private ImageReader decoder;
+
+    /**
+     * Ctor.
+     * @param path The path to the image.
+     * @param area The area of the image.
+     */
+    public TiledImage(final String path, final Area area) {
+        this(new File(path), area);
+    }
+
+    /**
+     * Ctor.
+     * @param file The image file.
+     * @param area The area of the image.
+     */
+    public TiledImage(final File file, final Area area) {
+        this(
+            file, area, TiledImage.DEFAULT_TILE, TiledImage.DEFAULT_CAPACITY
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param file The image file.
+     * @param area The area of the image.
+     * @param tile The width and height of a decoded tile.
+     * @param capacity The amount of cached tiles.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public TiledImage(
+        final File file, final Area area, final int tile, final int capacity
+    ) {
+        this.file = file;
+        this.area = area;
+        this.tile = tile;
+        this.tiles = new LinkedHashMap<>(capacity, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                final Map.Entry<Long, BufferedImage> eldest
+            ) {
+                return this.size() > capacity;
+            }
+        };
+        this.pending = new ConcurrentHashMap<>(0);
+        this.drawings = new AtomicLong();
+        this.failure = new AtomicReference<>();
+        this.size = new Cached<>(this::dimensions);
+        this.background = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final var thread = new Thread(runnable, "joop-tiles");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.decoded = new AtomicBoolean();
+        this.successor = Optional.of(this);
+    }
+
+    /**
+     * Returns whether tiles were decoded since the image was drawn.
+     * @return True if the image has to be drawn again.
+     */
+    public final boolean fresh() {
+        return this.decoded.get();
+    }
+
+    @Override
+    public final Optional<Shape> draw(
+        final Graphics graphics, final Adjustment adjustment
+    ) {
+        final RuntimeException error = this.failure.getAndSet(null);
+        if (error != null) {
+            throw error;
+        }
+        this.decoded.set(false);
+        this.drawings.incrementAndGet();
+        adjustment.adjustedApply(
+            this.area,
+            // @checkstyle ParameterName (1 line)
+            (x, y, width, height) -> this.paint(
+                graphics, new Rectangle(x, y, width, height)
+            )
+        );
+        return this.successor;
+    }
+
+    @Override
+    public final void registerFor(final Mouse mouse) {
+        // the image doesn't react to the mouse
+    }
+
+    /**
+     * Stops decoding tiles and releases the reader. Tiles that wait to be
+     * decoded are dropped.
+     */
+    @Override
+    public final void close() {
+        this.background.shutdownNow();
+        try {
+            this.background.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the decoding", exception
+            );
+        }
+        if (this.decoder != null) {
+            TiledImage.release(this.decoder);
+            this.decoder = null;
+        }
+    }
+
+    /**
+     * Draws the visible tiles.
+     * @param graphics The graphics to draw on.
+     * @param target The rectangle to scale the image into.
+     */
+    private void paint(final Graphics graphics, final Rectangle target) {
+        final Rectangle clip = graphics.getClipBounds();
+        final Rectangle visible;
+        if (clip == null) {
+            visible = target;
+        } else {
+            visible = clip.intersection(target);
+        }
+        final int[] dimensions = this.size.value();
+        if (!visible.isEmpty() && dimensions[0] > 0 && dimensions[1] > 0) {
+            final double horizontal = target.width / (double) dimensions[0];
+            final double vertical = target.height / (double) dimensions[1];
+            final int level = TiledImage.level(
+                Math.max(horizontal, vertical)
+            );
+            final int span = this.tile << level;
+            final int first = (int) ((visible.x - target.x) / horizontal)
+                / span;
+            final int last = Math.min(
+                (dimensions[0] - 1) / span,
+                (int) ((visible.x + visible.width - target.x) / horizontal)
+                    / span
+            );
+            final int top = (int) ((visible.y - target.y) / vertical) / span;
+            final int bottom = Math.min(
+                (dimensions[1] - 1) / span,
+                (int) ((visible.y + visible.height - target.y) / vertical)
+                    / span
+            );
+            for (int row = top; row <= bottom; ++row) {
+                for (int column = first; column <= last; ++column) {
+                    this.paint(graphics, target, level, column, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws a tile or a coarser tile in its place and requests it, if it
+     * isn't decoded yet.
+     * @param graphics The graphics to draw on.
+     * @param target The rectangle to scale the image into.
+     * @param level The level of the tile, which is the logarithm of its
+     *  subsampling.
+     * @param column The column of the tile.
+     * @param row The row of the tile.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    private void paint(
+        final Graphics graphics, final Rectangle target, final int level,
+        final int column, final int row
+    ) {
+        final int[] dimensions = this.size.value();
+        final int span = this.tile << level;
+        final int left = column * span;
+        final int top = row * span;
+        final int right = Math.min(left + span, dimensions[0]);
+        final int bottom = Math.min(top + span, dimensions[1]);
+        final int[] screen = {
+            target.x + (int) ((long) left * target.width / dimensions[0]),
+            target.y + (int) ((long) top * target.height / dimensions[1]),
+            target.x + (int) ((long) right * target.width / dimensions[0]),
+            target.y + (int) ((long) bottom * target.height / dimensions[1]),
+        };
+        boolean drawn = false;
+        for (int coarser = level; !drawn
+            && coarser <= level + TiledImage.FALLBACKS; ++coarser) {
+            final int size = this.tile << coarser;
+            final BufferedImage image = this.cached(
+                TiledImage.key(coarser, left / size, top / size)
+            );
+            if (image != null) {
+                final int horizontal = left / size * size;
+                final int vertical = top / size * size;
+                // @checkstyle MagicNumber (6 lines)
+                graphics.drawImage(
+                    image, screen[0], screen[1], screen[2], screen[3],
+                    (left - horizontal) >> coarser,
+                    (top - vertical) >> coarser,
+                    (right - horizontal + (1 << coarser) - 1) >> coarser,
+                    (bottom - vertical + (1 << coarser) - 1) >> coarser,
+                    null
+                );
+                drawn = true;
+            }
+            if (coarser == level && image == null) {
+                this.request(level, column, row);
+            }
+        }
+    }
+
+    /**
+     * Returns a cached tile and marks it as recently used.
+     * @param key The key of the tile.
+     * @return The tile or null if it isn't cached.
+     */
+    private BufferedImage cached(final long key) {
+        synchronized (this.tiles) {
+            return this.tiles.get(key);
+        }
+    }
+
+    /**
+     * Requests the decoding of a tile, unless it's already requested. A
+     * request is skipped when its turn comes, if neither the current nor the
+     * previous drawing needed the tile anymore.
+     * @param level The level of the tile.
+     * @param column The column of the tile.
+     * @param row The row of the tile.
+     */
+    private void request(final int level, final int column, final int row) {
+        final long key = TiledImage.key(level, column, row);
+        if (this.pending.put(key, this.drawings.get()) == null) {
+            try {
+                this.background.execute(() -> this.load(level, column, row));
+            } catch (final RejectedExecutionException exception) {
+                this.pending.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Decodes a requested tile and caches it, unless it isn't needed
+     * anymore. A failure is kept to be thrown by the next drawing.
+     * @param level The level of the tile.
+     * @param column The column of the tile.
+     * @param row The row of the tile.
+     */
+    private void load(final int level, final int column, final int row) {
+        final long key = TiledImage.key(level, column, row);
+        try {
+            if (this.pending.get(key) >= this.drawings.get() - 1L) {
+                final BufferedImage image = this.decode(level, column, row);
+                synchronized (this.tiles) {
+                    this.tiles.put(key, image);
+                }
+                this.decoded.set(true);
+            }
+        } catch (final UncheckedIOException | IllegalStateException
+            | IllegalArgumentException exception) {
+            this.failure.compareAndSet(null, exception);
+            this.decoded.set(true);
+        } finally {
+            this.pending.remove(key);
+        }
+    }
+
+    /**
+     * Decodes a tile.
+     * @param level The level of the tile.
+     * @param column The column of the tile.
+     * @param row The row of the tile.
+     * @return The decoded tile.
+     */
+    private BufferedImage decode(
+        final int level, final int column, final int row
+    ) {
+        final int[] dimensions = this.size.value();
+        final int span = this.tile << level;
+        if (this.decoder == null) {
+            this.decoder = TiledImage.reader(this.file);
+        }
+        final var param = this.decoder.getDefaultReadParam();
+        param.setSourceRegion(
+            new Rectangle(
+                column * span, row * span,
+                Math.min(span, dimensions[0] - column * span),
+                Math.min(span, dimensions[1] - row * span)
+            )
+        );
+        param.setSourceSubsampling(1 << level, 1 << level, 0, 0);
+        try {
+            return this.decoder.read(0, param);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't decode a tile of ",
+                    this.file.getAbsolutePath()
+                ),
+                exception
+            );
+        }
+    }
+
+    /**
+     * Reads the size of the image without decoding it.
+     * @return The width and height of the image.
+     */
+    private int[] dimensions() {
+        final ImageReader header = TiledImage.reader(this.file);
+        try {
+            return new int[]{header.getWidth(0), header.getHeight(0)};
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't read the size of ",
+                    this.file.getAbsolutePath()
+                ),
+                exception
+            );
+        } finally {
+            TiledImage.release(header);
+        }
+    }
+
+    /**
+     * Opens a reader of an image file.
+     * @param file The image file.
+     * @return The reader with the file as input.
+     */
+    private static ImageReader reader(final File file) {
+        try {
+            final ImageInputStream input = ImageIO.createImageInputStream(
+                file
+            );
+            if (input == null) {
+                throw new IOException("The file can't be opened");
+            }
+            final var readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                input.close();
+                throw new IOException("The format isn't supported");
+            }
+            final ImageReader result = readers.next();
+            result.setInput(input, true, true);
+            return result;
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(
+                String.join(
+                    "", "Couldn't open the image. The given path seems to ",
+                    "be wrong. Absolute Path: ", file.getAbsolutePath()
+                ),
+                exception
+            );
+        }
+    }
+
+    /**
+     * Disposes a reader and closes its file, which the reader doesn't close
+     * by itself.
+     * @param reader The reader from {@link #reader(File)}.
+     */
+    private static void release(final ImageReader reader) {
+        final ImageInputStream input = (ImageInputStream) reader.getInput();
+        try {
+            reader.dispose();
+        } finally {
+            try {
+                input.close();
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(
+                    "Couldn't close the image file", exception
+                );
+            }
+        }
+    }
+
+    /**
+     * Returns the level of the resolution that is needed for a scale. The
+     * level is the logarithm of the subsampling.
+     * @param scale The scale of the image.
+     * @return The level.
+     */
+    private static int level(final double scale) {
+        int result = 0;
+        // @checkstyle MagicNumber (1 line)
+        while (result < 16 && scale * (2 << result) <= 1.0) {
+            ++result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of a tile.
+     * @param level The level of the tile.
+     * @param column The column of the tile.
+     * @param row The row of the tile.
+     * @return The key.
+     */
+    private static long key(final int level, final int column, final int row) {
+        return (long) level << (TiledImage.BITS * 2)
+            | (long) column << TiledImage.BITS | row;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.time;
+
+/**
+ * A source of time that can also repeat tasks. Everything time-based should
+ * use a clock instead of the system time or its own timer, so that the time
+ * can be simulated by a {@link VirtualClock}.
+ * @since 0.47
+ */
+public interface Clock {
+    /**
+     * Returns the current time. Like {@link System#nanoTime()}, it's only
+     * meant to measure elapsed time.
+     * @return The time in nanoseconds.
+     */
+    long nanos();
+
+    /**
+     * Repeats the given task with a fixed delay, starting after the first
+     * delay.
+     * @param delay The delay between the runs in milliseconds.
+     * @param task The task to repeat.
+     * @return An action that stops the repetition.
+     */
+    Runnable every(long delay, Runnable task);
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.time;
+
+import javax.swing.Timer;
+
+/**
+ * The real clock. The time is the system time and the tasks are repeated by a
+ * Swing timer on the event dispatch thread.
+ * <p>This class is immutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class SwingClock implements Clock {
+    @Override
+    public final long nanos() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public final Runnable every(final long delay, final Runnable task) {
+        final var timer = new Timer((int) delay, event -> task.run());
+        timer.setRepeats(true);
+        timer.start();
+        return timer::stop;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.time;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simulated clock. The time only moves when {@link #advance(long)} is
+ * called, which runs the due tasks instantly on the calling thread. Each task
+ * sees the time it was due at, so that a long animation can be tested frame
+ * by frame in a few milliseconds.
+ * <p>This class is mutable and not thread-safe.</p>
+ * @since 0.47
+ */
+public class VirtualClock implements Clock {
+    /**
+     * The current time in nanoseconds.
+     */
+    private long time;
+
+    /**
+     * The repeated tasks.
+     */
+    private final List<Repetition> repetitions;
+
+    /**
+     * Ctor. Starts at zero.
+     */
+    public VirtualClock() {
+        this(0L);
+    }
+
+    /**
+     * Ctor.
+     * @param start The start time in nanoseconds.
+     */
+    public VirtualClock(final long start) {
+        this.time = start;
+        this.repetitions = new ArrayList<>(1);
+    }
+
+    @Override
+    public final long nanos() {
+        return this.time;
+    }
+
+    @Override
+    public final Runnable every(final long delay, final Runnable task) {
+        final var repetition = new Repetition(
+            Math.max(1L, TimeUnit.MILLISECONDS.toNanos(delay)), task
+        );
+        repetition.schedule(this.time);
+        this.repetitions.add(repetition);
+        return () -> this.repetitions.remove(repetition);
+    }
+
+    /**
+     * Moves the time forward and runs every task that gets due in the
+     * meantime, in the order of their due times.
+     * @param duration The duration in milliseconds.
+     */
+    public final void advance(final long duration) {
+        final long target = this.time + TimeUnit.MILLISECONDS.toNanos(duration);
+        while (true) {
+            Repetition next = null;
+            for (final Repetition repetition : this.repetitions) {
+                if (repetition.due() - target <= 0L
+                    && (next == null || repetition.due() - next.due() < 0L)) {
+                    next = repetition;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            this.time = next.due();
+            next.schedule(this.time);
+            next.run();
+        }
+        this.time = target;
+    }
+
+    /**
+     * A task that is repeated with a fixed delay.
+     * @since 0.47
+     */
+    private static final class Repetition {
+        /**
+         * The delay in nanoseconds.
+         */
+        private final long delay;
+
+        /**
+         * The task to repeat.
+         */
+        private final Runnable task;
+
+        /**
+         * The next due time in nanoseconds.
+         */
+        private long next;
+
+        /**
+         * Ctor.
+         * @param delay The delay in nanoseconds.
+         * @param task The task to repeat.
+         */
+        Repetition(final long delay, final Runnable task) {
+            this.delay = delay;
+            this.task = task;
+        }
+
+        /**
+         * Schedules the next run.
+         * @param now The current time in nanoseconds.
+         */
+        void schedule(final long now) {
+            this.next = now + this.delay;
+        }
+
+        /**
+         * Returns the next due time.
+         * @return The time in nanoseconds.
+         */
+        long due() {
+            return this.next;
+        }
+
+        /**
+         * Runs the task.
+         */
+        void run() {
+            this.task.run();
+        }
+    }
+}
@@ -24,15 +24,19 @@ package joop.window;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
-import javax.swing.Timer;
 import javax.swing.WindowConstants;
 import joop.event.mouse.DelegationMouse;
+import joop.render.Java2dSurface;
+import joop.render.Scene;
+import joop.render.Surface;
 import joop.shape.EmptyShape;
 import joop.shape.Shape;
-import joop.shape.layout.NoAdjustment;
+import joop.time.Clock;
+import joop.time.SwingClock;
 import unit.area.Area;
 import unit.functional.Cached;
 import unit.functional.Lazy;
@@ -90,6 +94,41 @@ public class BaseWindow implements Showable {
      */
     public BaseWindow(
         final Area area, final Consumer<JFrame> feature, final Shape shape
+    ) {
+        this(area, feature, shape, () -> true);
+    }
+
+    /**
+     * Ctor. The window checks the repaint condition with every tick of its
+     * timer and only repaints if it's true. A {@link joop.animation.Timeline}
+     * can be used to repaint only while animations are running.
+     * @param area The area of the window.
+     * @param feature A feature to apply to the window for additional settings.
+     * @param shape The shape to put on the window.
+     * @param repaint The condition to repaint the window.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public BaseWindow(
+        final Area area, final Consumer<JFrame> feature, final Shape shape,
+        final BooleanSupplier repaint
+    ) {
+        this(area, feature, shape, repaint, new SwingClock());
+    }
+
+    /**
+     * Ctor. The repaint condition is checked on every tick of the given clock.
+     * A {@link joop.time.VirtualClock} lets a test drive the window without
+     * waiting.
+     * @param area The area of the window.
+     * @param feature A feature to apply to the window for additional settings.
+     * @param shape The shape to put on the window.
+     * @param repaint The condition to repaint the window.
+     * @param clock The clock that ticks the repaints.
+     * @checkstyle ParameterNumber (4 lines)
+     */
+    public BaseWindow(
+        final Area area, final Consumer<JFrame> feature, final Shape shape,
+        final BooleanSupplier repaint, final Clock clock
     ) {
         this(
             new Cached<>(
@@ -98,11 +137,27 @@ public class BaseWindow implements Showable {
                     result.setDefaultCloseOperation(
                         WindowConstants.EXIT_ON_CLOSE
                     );
+                    final var scene = new Scene(shape);
                     final var panel = new JPanel() {
+                        /**
+                         * The graphics of the last painting.
+                         */
+                        private transient Graphics target;
+
+                        /**
+                         * The surface of the graphics of the last painting.
+                         */
+                        private transient Surface surface;
+
                         @Override
                         protected void paintComponent(final Graphics graphics) {
-                            super.paintComponent(graphics);
-                            shape.draw(graphics, new NoAdjustment());
+                            if (graphics != this.target) {
+                                this.target = graphics;
+                                this.surface = new Java2dSurface(graphics);
+                            }
+                            scene.paint(
+                                this.surface, this.getWidth(), this.getHeight()
+                            );
                         }
                     };
                     Tuple.applyOn(
@@ -130,9 +185,14 @@ public class BaseWindow implements Showable {
                     shape.registerFor(
                         new DelegationMouse(result.getContentPane())
                     );
-                    final var timer = new Timer(25, e -> result.repaint());
-                    timer.setRepeats(true);
-                    timer.start();
+                    clock.every(
+                        25,
+                        () -> {
+                            if (repaint.getAsBoolean()) {
+                                result.repaint();
+                            }
+                        }
+                    );
                     result.setResizable(false);
                     return result;
                 }
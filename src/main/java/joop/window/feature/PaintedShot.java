@@ -0,0 +1,202 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.awt.Container;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+/**
+ * An image of the content of the window, painted directly from its paint
+ * path instead of capturing the screen. In contrast to {@link Shot}, it
+ * doesn't contain the window decorations or whatever is on top of the window.
+ * The shot is painted on the event dispatch thread into one of a few reused
+ * images and then given to the target on a background thread, so that a slow
+ * target never stalls the window. If all images are still in use by the
+ * target, the shot is dropped and counted. After {@link #close()}, shots are
+ * ignored. Use {@link Periodic} to take a shot per frame instead of on
+ * demand.
+ * <p>The target must not keep the image after it returned, because the image
+ * will be reused for later shots.</p>
+ * <p>This class is mutable and thread-safe. The reused images are handed
+ * between the event dispatch thread and the background thread through a
+ * blocking queue.</p>
+ * @since 0.47
+ */
+public class PaintedShot implements Consumer<JFrame>, AutoCloseable {
+    /**
+     * The default amount of reused images.
+     */
+    private static final int DEFAULT_BUFFERS = 2;
+
+    /**
+     * The target that gets the shots.
+     */
+    private final Consumer<BufferedImage> target;
+
+    /**
+     * The images that aren't in use by the target.
+     */
+    private final BlockingQueue<BufferedImage> free;
+
+    /**
+     * The background thread that gives the shots to the target.
+     */
+    private final ExecutorService background;
+
+    /**
+     * The amount of dropped shots.
+     */
+    private final AtomicLong drops;
+
+    /**
+     * Ctor.
+     * @param target The target that gets the shots.
+     */
+    public PaintedShot(final Consumer<BufferedImage> target) {
+        this(target, PaintedShot.DEFAULT_BUFFERS);
+    }
+
+    /**
+     * Ctor.
+     * @param target The target that gets the shots.
+     * @param buffers The amount of reused images. This is the amount of shots
+     *  that can wait for the target before shots are dropped.
+     */
+    public PaintedShot(
+        final Consumer<BufferedImage> target, final int buffers
+    ) {
+        this.target = target;
+        this.free = new ArrayBlockingQueue<>(buffers);
+        for (int buffer = 0; buffer < buffers; ++buffer) {
+            this.free.add(
+                new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB)
+            );
+        }
+        this.background = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final var thread = new Thread(runnable, "joop-shot");
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+        this.drops = new AtomicLong();
+    }
+
+    @Override
+    public final void accept(final JFrame frame) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            this.shoot(frame.getContentPane());
+        } else {
+            SwingUtilities.invokeLater(
+                () -> this.shoot(frame.getContentPane())
+            );
+        }
+    }
+
+    /**
+     * Returns the amount of shots that were dropped, because the target was
+     * too slow.
+     * @return The amount of dropped shots.
+     */
+    public final long dropped() {
+        return this.drops.get();
+    }
+
+    /**
+     * Waits until the target got all pending shots and stops the background
+     * thread. Later shots are ignored.
+     */
+    @Override
+    public final void close() {
+        this.background.shutdown();
+        try {
+            this.background.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                "Interrupted while waiting for the pending shots", exception
+            );
+        }
+    }
+
+    /**
+     * Paints the content into a free image and hands it to the target.
+     * @param content The content of the window.
+     */
+    private void shoot(final Container content) {
+        final int width = content.getWidth();
+        final int height = content.getHeight();
+        if (!this.background.isShutdown() && width > 0 && height > 0) {
+            final BufferedImage free = this.free.poll();
+            if (free == null) {
+                this.drops.incrementAndGet();
+            } else {
+                final BufferedImage image;
+                if (free.getWidth() == width && free.getHeight() == height) {
+                    image = free;
+                } else {
+                    image = new BufferedImage(
+                        width, height, BufferedImage.TYPE_INT_ARGB
+                    );
+                }
+                final var graphics = image.createGraphics();
+                try {
+                    content.paint(graphics);
+                } finally {
+                    graphics.dispose();
+                }
+                this.hand(image);
+            }
+        }
+    }
+
+    /**
+     * Hands the image to the target on the background thread. The image is
+     * given back to the free images afterwards.
+     * @param image The image to hand over.
+     */
+    private void hand(final BufferedImage image) {
+        try {
+            this.background.execute(
+                () -> {
+                    try {
+                        this.target.accept(image);
+                    } finally {
+                        this.free.add(image);
+                    }
+                }
+            );
+        } catch (final RejectedExecutionException exception) {
+            this.free.add(image);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.function.Consumer;
+import javax.swing.JFrame;
+import joop.time.Clock;
+import joop.time.SwingClock;
+
+/**
+ * A feature that is applied again and again with a fixed delay until the
+ * window is closed. It stops as soon as the window is closing, because a
+ * window that exits or hides on closing is never closed. By default it's
+ * applied on the event dispatch thread and the delay is the repaint delay of
+ * {@link joop.window.BaseWindow}, so that the feature is applied once per
+ * frame.
+ * <p>This class is immutable and thread-safe.</p>
+ * @since 0.47
+ */
+public class Periodic implements Consumer<JFrame> {
+    /**
+     * The repaint delay of {@link joop.window.BaseWindow} in milliseconds.
+     */
+    private static final int FRAME = 25;
+
+    /**
+     * The delay between the applications in milliseconds.
+     */
+    private final int delay;
+
+    /**
+     * The feature to apply.
+     */
+    private final Consumer<JFrame> feature;
+
+    /**
+     * The clock that repeats the feature.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor. Applies the feature once per frame.
+     * @param feature The feature to apply.
+     */
+    public Periodic(final Consumer<JFrame> feature) {
+        this(Periodic.FRAME, feature);
+    }
+
+    /**
+     * Ctor.
+     * @param delay The delay between the applications in milliseconds.
+     * @param feature The feature to apply.
+     */
+    public Periodic(final int delay, final Consumer<JFrame> feature) {
+        this(delay, feature, new SwingClock());
+    }
+
+    /**
+     * Ctor.
+     * @param delay The delay between the applications in milliseconds.
+     * @param feature The feature to apply.
+     * @param clock The clock that repeats the feature.
+     */
+    public Periodic(
+        final int delay, final Consumer<JFrame> feature, final Clock clock
+    ) {
+        this.delay = delay;
+        this.feature = feature;
+        this.clock = clock;
+    }
+
+    @Override
+    public final void accept(final JFrame frame) {
+        final var stop = this.clock.every(
+            this.delay, () -> this.feature.accept(frame)
+        );
+        frame.addWindowListener(
+            new WindowAdapter() {
+                @Override
+                public void windowClosing(final WindowEvent event) {
+                    stop.run();
+                }
+
+                @Override
+                public void windowClosed(final WindowEvent event) {
+                    stop.run();
+                }
+            }
+        );
+    }
+}
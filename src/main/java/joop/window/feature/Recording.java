@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.util.function.Consumer;
+import javax.swing.JFrame;
+import joop.image.Encoding;
+import joop.time.Clock;
+import joop.time.SwingClock;
+
+/**
+ * A recording of the window content. The frames are painted with the given
+ * rate into a bounded ring of reused images and encoded on a background
+ * thread. If the encoding falls behind, frames are dropped and counted
+ * instead of slowing down the window. Example:
+ * <pre>{@code
+ * final var recording = new Recording(
+ *     20, new AnimatedGif(new File("session.gif"), 50)
+ * );
+ * new BaseWindow(area, recording, shape).show();
+ * ...
+ * recording.close();
+ * }</pre>
+ * <p>This class is mutable and thread-safe, because it delegates to
+ * {@link PaintedShot}.</p>
+ * @since 0.47
+ */
+public class Recording implements Consumer<JFrame>, AutoCloseable {
+    /**
+     * The default amount of reused images.
+     */
+    private static final int DEFAULT_BUFFERS = 8;
+
+    /**
+     * The milliseconds of a second.
+     */
+    private static final int SECOND = 1000;
+
+    /**
+     * The shots of the frames.
+     */
+    private final PaintedShot shot;
+
+    /**
+     * The encoding of the frames.
+     */
+    private final Encoding encoding;
+
+    /**
+     * The delay between the frames in milliseconds.
+     */
+    private final int delay;
+
+    /**
+     * The clock that repeats the shots.
+     */
+    private final Clock clock;
+
+    /**
+     * Ctor.
+     * @param rate The frames per second to record.
+     * @param encoding The encoding of the frames.
+     */
+    public Recording(final int rate, final Encoding encoding) {
+        this(rate, Recording.DEFAULT_BUFFERS, encoding);
+    }
+
+    /**
+     * Ctor.
+     * @param rate The frames per second to record.
+     * @param buffers The amount of reused images. This is the amount of frames
+     *  that can wait for the encoding before frames are dropped.
+     * @param encoding The encoding of the frames.
+     */
+    public Recording(
+        final int rate, final int buffers, final Encoding encoding
+    ) {
+        this(rate, buffers, encoding, new SwingClock());
+    }
+
+    /**
+     * Ctor.
+     * @param rate The frames per second to record. It must be positive.
+     * @param buffers The amount of reused images. This is the amount of frames
+     *  that can wait for the encoding before frames are dropped.
+     * @param encoding The encoding of the frames.
+     * @param clock The clock that repeats the shots.
+     * @checkstyle ParameterNumber (3 lines)
+     */
+    public Recording(
+        final int rate, final int buffers, final Encoding encoding,
+        final Clock clock
+    ) {
+        if (rate <= 0) {
+            throw new IllegalArgumentException(
+                String.join(
+                    "",
+                    "The rate must be at least one frame per second. Rate: ",
+                    Integer.toString(rate)
+                )
+            );
+        }
+        this.shot = new PaintedShot(encoding, buffers);
+        this.encoding = encoding;
+        this.delay = Math.max(1, Recording.SECOND / rate);
+        this.clock = clock;
+    }
+
+    @Override
+    public final void accept(final JFrame frame) {
+        new Periodic(this.delay, this.shot, this.clock).accept(frame);
+    }
+
+    /**
+     * Returns the amount of frames that were dropped, because the encoding
+     * was too slow.
+     * @return The amount of dropped frames.
+     */
+    public final long dropped() {
+        return this.shot.dropped();
+    }
+
+    /**
+     * Stops the recording, waits until the pending frames are encoded and
+     * completes the encoding.
+     */
+    @Override
+    public final void close() {
+        this.shot.close();
+        this.encoding.close();
+    }
+}
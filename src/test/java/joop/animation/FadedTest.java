@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import java.awt.image.BufferedImage;
+import joop.shape.Rect;
+import joop.shape.layout.NoAdjustment;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link Faded}.
+ * @since 0.47
+ */
+public final class FadedTest {
+    /**
+     * {@link Faded} must multiply its opacity with the opacity of an
+     * enclosing {@link Faded}.
+     */
+    @Test
+    public void multipliesNestedOpacities() {
+        final var length = 4;
+        final var half = 0.5;
+        final var image = new BufferedImage(
+            length, length, BufferedImage.TYPE_INT_ARGB
+        );
+        new Faded(
+            new Faded(new Rect(new AreaOf(length, length)), () -> half),
+            () -> half
+        ).draw(image.createGraphics(), new NoAdjustment());
+        final var quarter = 64;
+        final var shift = 24;
+        MatcherAssert.assertThat(
+            image.getRGB(1, 1) >>> shift,
+            Matchers.equalTo(quarter)
+        );
+    }
+}
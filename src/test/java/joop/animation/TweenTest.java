@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.animation;
+
+import joop.time.VirtualClock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Tween} and {@link Timeline}.
+ * @since 0.47
+ */
+public final class TweenTest {
+    /**
+     * {@link Tween#getAsDouble()} must follow the frame time of the timeline
+     * and keep its last value after the duration.
+     */
+    @Test
+    public void followsFrameTime() {
+        final var clock = new VirtualClock();
+        final var timeline = new Timeline(clock);
+        final var from = 10.0;
+        final var to = 20.0;
+        final var duration = 100L;
+        final var tween = new Tween(timeline, from, to, duration);
+        MatcherAssert.assertThat(tween.getAsDouble(), Matchers.equalTo(from));
+        tween.start();
+        clock.advance(duration / 2);
+        timeline.getAsBoolean();
+        final var half = 15.0;
+        MatcherAssert.assertThat(tween.getAsDouble(), Matchers.equalTo(half));
+        clock.advance(duration);
+        timeline.getAsBoolean();
+        MatcherAssert.assertThat(tween.getAsDouble(), Matchers.equalTo(to));
+        MatcherAssert.assertThat(tween.running(), Matchers.is(false));
+    }
+
+    /**
+     * {@link Timeline#getAsBoolean()} must request frames only while a tween
+     * is running and one last frame afterwards.
+     */
+    @Test
+    public void requestsFramesOnlyWhileRunning() {
+        final var clock = new VirtualClock();
+        final var timeline = new Timeline(clock);
+        MatcherAssert.assertThat(timeline.getAsBoolean(), Matchers.is(false));
+        final var duration = 50L;
+        new Tween(timeline, 0.0, 1.0, duration).start();
+        clock.advance(duration / 2);
+        MatcherAssert.assertThat(timeline.getAsBoolean(), Matchers.is(true));
+        clock.advance(duration);
+        MatcherAssert.assertThat(timeline.getAsBoolean(), Matchers.is(true));
+        MatcherAssert.assertThat(timeline.getAsBoolean(), Matchers.is(false));
+    }
+
+    /**
+     * {@link EaseInOut} must start and end slowly.
+     */
+    @Test
+    public void easesInAndOut() {
+        final var easing = new EaseInOut();
+        final var quarter = 0.25;
+        MatcherAssert.assertThat(
+            easing.apply(quarter), Matchers.lessThan(quarter)
+        );
+        MatcherAssert.assertThat(easing.apply(1.0), Matchers.equalTo(1.0));
+    }
+}
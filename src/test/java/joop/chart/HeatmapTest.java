@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.Black;
+import unit.color.RGBA;
+
+/**
+ * Tests for {@link Heatmap} and {@link Palette}.
+ * @since 0.47
+ */
+public final class HeatmapTest {
+    /**
+     * {@link Heatmap} must map the values through the palette and map a
+     * changed row again after an update.
+     */
+    @Test
+    public void mapsUpdatedValues() {
+        final var max = 255;
+        final var white = new RGBA(max, max, max);
+        final var palette = new Palette(new Black(), white);
+        final double[] matrix = {0.0, 1.0, 1.0, 0.0};
+        final var heatmap = new Heatmap(
+            new AreaOf(2, 2), matrix, 2, 0.0, 1.0, palette
+        );
+        final var offscreen = new Offscreen(heatmap, 2, 2);
+        final var black = java.awt.Color.BLACK.getRGB();
+        final var bright = java.awt.Color.WHITE.getRGB();
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(1, 0), Matchers.equalTo(bright)
+        );
+        matrix[1] = 0.0;
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(1, 0), Matchers.equalTo(bright)
+        );
+        heatmap.update(0, 1);
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(1, 0), Matchers.equalTo(black)
+        );
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(0, 1), Matchers.equalTo(bright)
+        );
+    }
+
+    /**
+     * {@link Heatmap} must reject a matrix with a partial last row.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPartialRow() {
+        final var columns = 2;
+        new Heatmap(
+            new AreaOf(2, 2), new double[columns + 1], columns, 0.0, 1.0,
+            new Palette(new Black(), new RGBA(0, 0, 0))
+        );
+    }
+
+    /**
+     * {@link Heatmap} must reject a matrix without columns.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroColumns() {
+        new Heatmap(
+            new AreaOf(2, 2), new float[2], 0, 0.0, 1.0,
+            new Palette(new Black(), new RGBA(0, 0, 0))
+        );
+    }
+
+    /**
+     * {@link Palette#argb(double)} must run evenly through its colors.
+     */
+    @Test
+    public void runsThroughColors() {
+        final var max = 255;
+        final var palette = new Palette(
+            new RGBA(max, 0, 0), new RGBA(0, max, 0), new RGBA(0, 0, max)
+        );
+        final var half = 0.5;
+        final var green = 250;
+        MatcherAssert.assertThat(
+            palette.argb(half) >> 8 & max, Matchers.greaterThan(green)
+        );
+        MatcherAssert.assertThat(
+            palette.argb(0.0), Matchers.equalTo(0xFFFF0000)
+        );
+        MatcherAssert.assertThat(
+            palette.argb(1.0), Matchers.equalTo(0xFF0000FF)
+        );
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link StreamPlot} and {@link SampleRing}.
+ * @since 0.47
+ */
+public final class StreamPlotTest {
+    /**
+     * {@link StreamPlot} must scroll old samples to the left and only be
+     * fresh after new samples arrived.
+     */
+    @Test
+    public void scrollsNewSamples() {
+        final var width = 10;
+        final var height = 11;
+        final var ring = new SampleRing(width * 2);
+        final var plot = new StreamPlot(
+            new AreaOf(width, height), ring, 0.0, height - 1
+        );
+        final var offscreen = new Offscreen(plot, width, height);
+        final var top = 10.0;
+        ring.append(top);
+        offscreen.image();
+        MatcherAssert.assertThat(plot.fresh(), Matchers.is(false));
+        final var black = java.awt.Color.BLACK.getRGB();
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(width - 1, 0), Matchers.equalTo(black)
+        );
+        final var bottom = 0.0;
+        final var steps = 3;
+        for (int step = 0; step < steps; ++step) {
+            ring.append(bottom);
+        }
+        MatcherAssert.assertThat(plot.fresh(), Matchers.is(true));
+        final var image = offscreen.image();
+        MatcherAssert.assertThat(
+            image.getRGB(width - 1 - steps, 0), Matchers.equalTo(black)
+        );
+        MatcherAssert.assertThat(
+            image.getRGB(width - 1, height - 1), Matchers.equalTo(black)
+        );
+        MatcherAssert.assertThat(
+            image.getRGB(width - 1, 0), Matchers.not(black)
+        );
+    }
+
+    /**
+     * {@link SampleRing#copy(long, double[], int)} must detect samples that
+     * were overwritten by the producer.
+     */
+    @Test
+    public void detectsOverwrittenSamples() {
+        final var capacity = 4;
+        final var ring = new SampleRing(capacity);
+        final double[] target = new double[capacity];
+        final var amount = 6;
+        for (int index = 0; index < amount; ++index) {
+            ring.append(index);
+        }
+        MatcherAssert.assertThat(
+            ring.copy(ring.written(), target, capacity - 1),
+            Matchers.is(true)
+        );
+        final var oldest = 3.0;
+        MatcherAssert.assertThat(target[0], Matchers.equalTo(oldest));
+        MatcherAssert.assertThat(
+            ring.copy(2L, target, 2), Matchers.is(false)
+        );
+    }
+}
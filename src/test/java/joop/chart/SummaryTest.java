@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.chart;
+
+import java.util.Arrays;
+import java.util.Random;
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link Summary} and {@link LineChart}.
+ * @since 0.47
+ */
+public final class SummaryTest {
+    /**
+     * {@link Summary#decimate(int, int, double[], double[])} must give the
+     * same extremes as scanning every sample.
+     */
+    @Test
+    public void decimatesLikeScan() {
+        final var amount = 10_007;
+        final var seed = 42L;
+        final var random = new Random(seed);
+        final double[] samples = new double[amount];
+        for (int index = 0; index < amount; ++index) {
+            samples[index] = random.nextGaussian();
+        }
+        final var columns = 97;
+        final double[] low = new double[columns];
+        final double[] high = new double[columns];
+        final var from = 13;
+        final var until = 9_001;
+        new Summary(samples).decimate(from, until, low, high);
+        for (int column = 0; column < columns; ++column) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            final int first = from + (until - from) * column / columns;
+            final int last = from + (until - from) * (column + 1) / columns;
+            for (int index = first; index < last; ++index) {
+                min = Math.min(min, samples[index]);
+                max = Math.max(max, samples[index]);
+            }
+            MatcherAssert.assertThat(low[column], Matchers.equalTo(min));
+            MatcherAssert.assertThat(high[column], Matchers.equalTo(max));
+        }
+    }
+
+    /**
+     * {@link LineChart} must keep a spike of a single sample among a million
+     * samples.
+     */
+    @Test
+    public void keepsSpikes() {
+        final var amount = 1_000_000;
+        final double[] samples = new double[amount];
+        final var spike = 777_777;
+        samples[spike] = 1.0;
+        final var width = 100;
+        final var height = 10;
+        final var image = new Offscreen(
+            new LineChart(new AreaOf(width, height), new Summary(samples)),
+            width, height
+        ).image();
+        MatcherAssert.assertThat(
+            image.getRGB(spike / (amount / width), 0),
+            Matchers.equalTo(java.awt.Color.BLACK.getRGB())
+        );
+    }
+
+    /**
+     * {@link LineChart} must draw each pixel column from the maximum to the
+     * minimum of its samples.
+     */
+    @Test
+    public void drawsMinimumAndMaximumColumns() {
+        final var width = 10;
+        final var per = 100;
+        final var step = 5;
+        final var range = 55;
+        final double[] samples = new double[width * per];
+        for (int column = 0; column < width; ++column) {
+            final int min = column * step;
+            Arrays.fill(
+                samples, column * per, (column + 1) * per, min + range / 2
+            );
+            samples[column * per] = min;
+            samples[column * per + 1] = min + range;
+        }
+        final var height = 101;
+        final var image = new Offscreen(
+            new LineChart(new AreaOf(width, height), new Summary(samples)),
+            width, height
+        ).image();
+        final var black = java.awt.Color.BLACK.getRGB();
+        for (int column = 0; column < width; ++column) {
+            final int upper = height - 1 - column * step - range;
+            final int lower = height - 1 - column * step;
+            for (int row = 0; row < height; ++row) {
+                MatcherAssert.assertThat(
+                    image.getRGB(column, row) == black,
+                    Matchers.equalTo(row >= upper && row <= lower)
+                );
+            }
+        }
+    }
+}
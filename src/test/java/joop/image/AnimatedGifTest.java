@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadataNode;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link AnimatedGif}.
+ * @since 0.47
+ */
+public final class AnimatedGifTest {
+    /**
+     * The name of the native gif image metadata format.
+     */
+    private static final String FORMAT = "javax_imageio_gif_image_1.0";
+
+    /**
+     * A folder for the gif files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * {@link AnimatedGif} must write every image as a frame and the endless
+     * loop only into the first frame.
+     * @throws Exception If the gif can't be read.
+     */
+    @Test
+    public void writesFramesWithLoop() throws Exception {
+        final var file = this.folder.newFile("animation.gif");
+        final var delay = 50;
+        final var frames = 3;
+        final var size = 8;
+        final var gif = new AnimatedGif(file, delay);
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        for (int frame = 0; frame < frames; ++frame) {
+            final var graphics = image.createGraphics();
+            graphics.setColor(new Color(frame * size, 0, 0));
+            graphics.fillRect(0, 0, size, size);
+            graphics.dispose();
+            gif.accept(image);
+        }
+        gif.close();
+        final ImageReader reader = ImageIO.getImageReadersByFormatName("gif")
+            .next();
+        try (var input = ImageIO.createImageInputStream(file)) {
+            reader.setInput(input);
+            MatcherAssert.assertThat(
+                reader.getNumImages(true), Matchers.equalTo(frames)
+            );
+            MatcherAssert.assertThat(
+                AnimatedGifTest.loops(reader, 0), Matchers.is(true)
+            );
+            MatcherAssert.assertThat(
+                AnimatedGifTest.loops(reader, 1), Matchers.is(false)
+            );
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * {@link AnimatedGif#accept(BufferedImage)} must reject images after
+     * {@link AnimatedGif#close()}.
+     * @throws Exception If the file can't be created.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void rejectsImagesAfterClose() throws Exception {
+        final var delay = 50;
+        final var gif = new AnimatedGif(
+            this.folder.newFile("closed.gif"), delay
+        );
+        final var image = new BufferedImage(
+            1, 1, BufferedImage.TYPE_INT_ARGB
+        );
+        gif.accept(image);
+        gif.close();
+        gif.accept(image);
+    }
+
+    /**
+     * Checks whether the frame contains the endless loop.
+     * @param reader The reader of the gif.
+     * @param frame The index of the frame.
+     * @return Whether the frame contains the endless loop.
+     * @throws Exception If the metadata can't be read.
+     */
+    private static boolean loops(final ImageReader reader, final int frame)
+        throws Exception {
+        final var root = (IIOMetadataNode) reader.getImageMetadata(frame)
+            .getAsTree(AnimatedGifTest.FORMAT);
+        final var extensions = root.getElementsByTagName(
+            "ApplicationExtension"
+        );
+        boolean result = false;
+        for (int index = 0; index < extensions.getLength(); ++index) {
+            final var extension = (IIOMetadataNode) extensions.item(index);
+            result |= "NETSCAPE".equals(
+                extension.getAttribute("applicationID")
+            );
+        }
+        return result;
+    }
+}
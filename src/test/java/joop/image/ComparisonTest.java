@@ -0,0 +1,160 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Comparison}.
+ * @since 0.47
+ */
+public final class ComparisonTest {
+    /**
+     * A white pixel.
+     */
+    private static final int WHITE = 0xFFFFFFFF;
+
+    /**
+     * A black pixel.
+     */
+    private static final int BLACK = 0xFF000000;
+
+    /**
+     * {@link Comparison#differences(BufferedImage, BufferedImage)} must count
+     * every pixel that differs by more than the tolerance.
+     */
+    @Test
+    public void countsDifferences() {
+        final var size = 10;
+        final var expected = this.filled(size, ComparisonTest.WHITE);
+        final var actual = this.filled(size, ComparisonTest.WHITE);
+        final var tolerated = 0xFFFFFFF0;
+        final var tolerance = 0x10;
+        final var third = 3;
+        actual.setRGB(1, 1, tolerated);
+        actual.setRGB(2, 2, ComparisonTest.BLACK);
+        actual.setRGB(third, third, ComparisonTest.BLACK);
+        MatcherAssert.assertThat(
+            new Comparison(tolerance, size).differences(expected, actual),
+            Matchers.equalTo(2L)
+        );
+    }
+
+    /**
+     * {@link Comparison#similar(BufferedImage, BufferedImage)} must accept
+     * at most the allowed amount of differing pixels.
+     */
+    @Test
+    public void allowsDifferingPixels() {
+        final var size = 10;
+        final var expected = this.filled(size, ComparisonTest.WHITE);
+        final var actual = this.filled(size, ComparisonTest.WHITE);
+        actual.setRGB(0, 0, ComparisonTest.BLACK);
+        MatcherAssert.assertThat(
+            new Comparison(0, 1L).similar(expected, actual),
+            Matchers.is(true)
+        );
+        actual.setRGB(1, 0, ComparisonTest.BLACK);
+        MatcherAssert.assertThat(
+            new Comparison(0, 1L).similar(expected, actual),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * {@link Comparison#differences(BufferedImage, BufferedImage)} must stop
+     * counting once more pixels than allowed differ.
+     */
+    @Test
+    public void exitsEarly() {
+        final var size = 100;
+        MatcherAssert.assertThat(
+            new Comparison(0, 0L, 1).differences(
+                this.filled(size, ComparisonTest.WHITE),
+                this.filled(size, ComparisonTest.BLACK)
+            ),
+            Matchers.equalTo((long) size)
+        );
+    }
+
+    /**
+     * {@link Comparison#differences(BufferedImage, BufferedImage)} must count
+     * the same in parallel stripes as in a single stripe.
+     */
+    @Test
+    public void comparesInStripes() {
+        final var size = 1000;
+        final var expected = this.filled(size, ComparisonTest.WHITE);
+        final var actual = this.filled(size, ComparisonTest.WHITE);
+        for (int index = 0; index < size; ++index) {
+            actual.setRGB(index, index, ComparisonTest.BLACK);
+        }
+        final var stripes = 7;
+        MatcherAssert.assertThat(
+            new Comparison(0, size, stripes).differences(expected, actual),
+            Matchers.equalTo(
+                new Comparison(0, size, 1).differences(expected, actual)
+            )
+        );
+    }
+
+    /**
+     * {@link Comparison#heatmap(BufferedImage, BufferedImage)} must mark the
+     * differing pixels red.
+     */
+    @Test
+    public void marksDifferencesRed() {
+        final var size = 4;
+        final var red = 0xFFFF0000;
+        final var actual = this.filled(size, ComparisonTest.WHITE);
+        actual.setRGB(1, 2, ComparisonTest.BLACK);
+        final var heatmap = new Comparison().heatmap(
+            this.filled(size, ComparisonTest.WHITE), actual
+        );
+        MatcherAssert.assertThat(
+            heatmap.getRGB(1, 2),
+            Matchers.equalTo(red)
+        );
+        MatcherAssert.assertThat(
+            heatmap.getRGB(0, 0),
+            Matchers.not(Matchers.equalTo(red))
+        );
+    }
+
+    /**
+     * Returns a square image filled with the given color.
+     * @param size The width and height of the image.
+     * @param argb The color of the pixels.
+     * @return The filled image.
+     */
+    private BufferedImage filled(final int size, final int argb) {
+        final var result = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        Arrays.fill(new Raster(result).pixels(), argb);
+        return result;
+    }
+}
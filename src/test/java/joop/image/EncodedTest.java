@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link Encoded}.
+ * @since 0.47
+ */
+public final class EncodedTest {
+    /**
+     * A folder for the files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * {@link Encoded} must decode bytes, direct buffers and mapped files.
+     * @throws Exception If the file can't be written.
+     */
+    @Test
+    public void decodesBytesBuffersAndFiles() throws Exception {
+        final var image = EncodedTest.image();
+        final byte[] bytes = new Png().bytes(image);
+        final var direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        final var file = this.folder.newFile("image.png");
+        new Png().write(image, file);
+        for (final Encoded encoded : new Encoded[]{
+            new Encoded(bytes), new Encoded(direct),
+            new Encoded(file.toPath()), new Encoded(file.toURI().toURL()),
+        }) {
+            MatcherAssert.assertThat(
+                new Comparison().differences(image, encoded.decoded()),
+                Matchers.equalTo(0L)
+            );
+        }
+        MatcherAssert.assertThat(direct.position(), Matchers.equalTo(0));
+    }
+
+    /**
+     * {@link Encoded} must decode resources inside a jar.
+     * @throws Exception If the jar can't be written.
+     */
+    @Test
+    public void decodesResourcesInsideJar() throws Exception {
+        final var image = EncodedTest.image();
+        final var jar = this.folder.newFile("images.jar");
+        try (var out = new JarOutputStream(new FileOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("images/image.png"));
+            new Png().write(image, out);
+            out.closeEntry();
+        }
+        try (var loader = new URLClassLoader(new URL[]{jar.toURI().toURL()})) {
+            final URL resource = loader.getResource("images/image.png");
+            MatcherAssert.assertThat(
+                resource.getProtocol(), Matchers.equalTo("jar")
+            );
+            MatcherAssert.assertThat(
+                new Comparison().differences(
+                    image, new Encoded(resource).decoded()
+                ),
+                Matchers.equalTo(0L)
+            );
+        }
+    }
+
+    /**
+     * {@link Encoded} must close the stream of a location, whether the
+     * decoding succeeds or fails.
+     * @throws Exception If the location can't be created.
+     */
+    @Test
+    public void closesStreams() throws Exception {
+        final byte[] bytes = new Png().bytes(EncodedTest.image());
+        final var closed = new AtomicInteger();
+        new Encoded(EncodedTest.location(bytes, closed)).decoded();
+        final var header = 40;
+        var failures = 0;
+        try {
+            new Encoded(
+                EncodedTest.location(Arrays.copyOf(bytes, header), closed)
+            ).decoded();
+        } catch (final UncheckedIOException exception) {
+            ++failures;
+        }
+        MatcherAssert.assertThat(failures, Matchers.equalTo(1));
+        MatcherAssert.assertThat(closed.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * Creates a location, whose streams count their closing.
+     * @param bytes The content of the location.
+     * @param closed The count of the closed streams.
+     * @return The location.
+     * @throws IOException If the location can't be created.
+     */
+    private static URL location(final byte[] bytes, final AtomicInteger closed)
+        throws IOException {
+        return new URL(
+            null, "memory:image.png",
+            new URLStreamHandler() {
+                @Override
+                protected URLConnection openConnection(final URL url) {
+                    return new URLConnection(url) {
+                        @Override
+                        public void connect() {
+                            // the content is already in memory
+                        }
+
+                        @Override
+                        public InputStream getInputStream() {
+                            return new ByteArrayInputStream(bytes) {
+                                @Override
+                                public void close() {
+                                    closed.incrementAndGet();
+                                }
+                            };
+                        }
+                    };
+                }
+            }
+        );
+    }
+
+    /**
+     * Creates an image to encode.
+     * @return The image.
+     */
+    private static BufferedImage image() {
+        final var size = 40;
+        final var result = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        final var graphics = result.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillOval(0, 0, size, size / 2);
+        graphics.dispose();
+        return result;
+    }
+}
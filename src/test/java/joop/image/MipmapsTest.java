@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import joop.render.Offscreen;
+import joop.shape.Image;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.functional.Cached;
+
+/**
+ * Tests for {@link Mipmaps}.
+ * @since 0.47
+ */
+public final class MipmapsTest {
+    /**
+     * {@link Mipmaps} must give the image until the smallest level that is
+     * large enough is computed.
+     * @throws InterruptedException If the waiting is interrupted.
+     */
+    @Test
+    public void givesSmallestLevelLargerThanSize() throws InterruptedException {
+        final var size = 64;
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        final var mipmaps = new Mipmaps(new Cached<>(() -> image));
+        final var drawn = 20;
+        MatcherAssert.assertThat(
+            mipmaps.level(drawn, drawn), Matchers.sameInstance(image)
+        );
+        final var level = MipmapsTest.computed(mipmaps, drawn);
+        MatcherAssert.assertThat(level.getWidth(), Matchers.equalTo(size / 2));
+        MatcherAssert.assertThat(
+            mipmaps.level(size, size), Matchers.sameInstance(image)
+        );
+    }
+
+    /**
+     * {@link Mipmaps} must weight the averaged colors by their opacity.
+     * @throws InterruptedException If the waiting is interrupted.
+     */
+    @Test
+    public void averagesByOpacity() throws InterruptedException {
+        final var image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB);
+        final var red = 0xFFFF0000;
+        final var invisible = 0x000000FF;
+        image.setRGB(0, 0, red);
+        image.setRGB(1, 1, invisible);
+        final var level = MipmapsTest.computed(
+            new Mipmaps(new Cached<>(() -> image)), 1
+        );
+        MatcherAssert.assertThat(
+            Integer.toHexString(level.getRGB(0, 0)),
+            Matchers.equalTo("40ff0000")
+        );
+    }
+
+    /**
+     * {@link Image} must draw from the computed level of {@link Mipmaps}
+     * instead of picking single pixels of the image.
+     * @throws InterruptedException If the waiting is interrupted.
+     */
+    @Test
+    public void drawsImageFromLevel() throws InterruptedException {
+        final var size = 64;
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        for (int row = 0; row < size; ++row) {
+            for (int column = 0; column < size; ++column) {
+                if (((column ^ row) & 1) == 0) {
+                    image.setRGB(column, row, red);
+                } else {
+                    image.setRGB(column, row, blue);
+                }
+            }
+        }
+        final var mipmaps = new Mipmaps(new Cached<>(() -> image));
+        final var drawn = 16;
+        final var offscreen = new Offscreen(
+            new Image(mipmaps, new AreaOf(drawn, drawn)), drawn, drawn
+        );
+        final var purple = 0xFF800080;
+        final var attempts = 500;
+        int pixel = offscreen.image().getRGB(drawn / 2, drawn / 2);
+        for (int attempt = 0; attempt < attempts && pixel != purple;
+            ++attempt) {
+            Thread.sleep(10L);
+            pixel = offscreen.image().getRGB(drawn / 2, drawn / 2);
+        }
+        MatcherAssert.assertThat(
+            Integer.toHexString(pixel), Matchers.equalTo("ff800080")
+        );
+    }
+
+    /**
+     * Waits until a level smaller than the image is computed.
+     * @param mipmaps The pyramid.
+     * @param size The drawn width and height.
+     * @return The level.
+     * @throws InterruptedException If the waiting is interrupted.
+     */
+    private static BufferedImage computed(
+        final Mipmaps mipmaps, final int size
+    ) throws InterruptedException {
+        final var attempts = 500;
+        BufferedImage result = mipmaps.level(size, size);
+        for (int attempt = 0; attempt < attempts
+            && result == mipmaps.level(Integer.MAX_VALUE, 1); ++attempt) {
+            Thread.sleep(10L);
+            result = mipmaps.level(size, size);
+        }
+        return result;
+    }
+}
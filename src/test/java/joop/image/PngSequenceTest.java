@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import javax.imageio.ImageIO;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link PngSequence}.
+ * @since 0.47
+ */
+public final class PngSequenceTest {
+    /**
+     * A folder for the png files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * {@link PngSequence} must write each image into its own numbered file,
+     * even if the caller reuses the image.
+     * @throws Exception If the files can't be read.
+     */
+    @Test
+    public void writesNumberedFiles() throws Exception {
+        final var directory = new File(this.folder.getRoot(), "frames");
+        final var frames = 3;
+        final var size = 4;
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        final var step = 0x10;
+        try (var sequence = new PngSequence(directory)) {
+            for (int frame = 0; frame < frames; ++frame) {
+                // @checkstyle MagicNumber (1 line)
+                image.setRGB(0, 0, 0xFF000000 | frame * step);
+                sequence.accept(image);
+            }
+        }
+        for (int frame = 0; frame < frames; ++frame) {
+            final var read = ImageIO.read(
+                new File(directory, String.format("frame-%06d.png", frame))
+            );
+            MatcherAssert.assertThat(
+                read.getRGB(0, 0),
+                // @checkstyle MagicNumber (1 line)
+                Matchers.equalTo(0xFF000000 | frame * step)
+            );
+        }
+        MatcherAssert.assertThat(
+            directory.list(), Matchers.arrayWithSize(frames)
+        );
+    }
+}
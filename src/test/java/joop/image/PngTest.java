@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Png}.
+ * @since 0.47
+ */
+public final class PngTest {
+    /**
+     * {@link Png} must encode large images in parallel chunks that decode to
+     * the same pixels with every level.
+     * @throws Exception If the png can't be decoded.
+     */
+    @Test
+    public void encodesLosslesslyAtEveryLevel() throws Exception {
+        final var width = 700;
+        final var height = 400;
+        final var image = PngTest.image(width, height);
+        final var levels = 10;
+        for (int level = 0; level < levels; ++level) {
+            MatcherAssert.assertThat(
+                new Comparison().differences(
+                    image,
+                    ImageIO.read(
+                        new ByteArrayInputStream(new Png(level).bytes(image))
+                    )
+                ),
+                Matchers.equalTo(0L)
+            );
+        }
+    }
+
+    /**
+     * {@link Png} must write images without alpha as RGB.
+     * @throws Exception If the png can't be decoded.
+     */
+    @Test
+    public void encodesOpaqueImages() throws Exception {
+        final var size = 90;
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_RGB
+        );
+        image.getGraphics().drawImage(PngTest.image(size, size), 0, 0, null);
+        final var decoded = ImageIO.read(
+            new ByteArrayInputStream(new Png().bytes(image))
+        );
+        MatcherAssert.assertThat(
+            decoded.getColorModel().hasAlpha(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new Comparison().differences(image, decoded),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * {@link Png#bytes(int[], int, int, int)} must encode the top left part
+     * of larger pixels.
+     * @throws Exception If the png can't be decoded.
+     */
+    @Test
+    public void encodesPartOfPixels() throws Exception {
+        final var width = 700;
+        final var height = 400;
+        final var image = PngTest.image(width, height);
+        final var columns = 300;
+        final var rows = 350;
+        final var decoded = ImageIO.read(
+            new ByteArrayInputStream(
+                new Png().bytes(
+                    new Raster(image).pixels(), width, columns, rows
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            new Comparison().differences(
+                image.getSubimage(0, 0, columns, rows), decoded
+            ),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * Creates an image with gradients, noise and translucent pixels.
+     * @param width The width of the image.
+     * @param height The height of the image.
+     * @return The image.
+     */
+    private static BufferedImage image(final int width, final int height) {
+        final var result = new BufferedImage(
+            width, height, BufferedImage.TYPE_INT_ARGB
+        );
+        final var random = new Random(width);
+        final var noise = 7;
+        final var channel = 0xFF;
+        for (int row = 0; row < height; ++row) {
+            for (int column = 0; column < width; ++column) {
+                final int alpha = (column * row) & channel;
+                final int red = column & channel;
+                final int green = row & channel;
+                final int blue = random.nextInt(noise);
+                result.setRGB(
+                    column, row,
+                    // @checkstyle MagicNumber (1 line)
+                    alpha << 24 | red << 16 | green << 8 | blue
+                );
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@link Png} must reject levels that {@link java.util.zip.Deflater}
+     * doesn't know.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLevelAboveNine() {
+        final var level = 10;
+        new Png(level);
+    }
+
+    /**
+     * {@link Png} must reject negative levels, although
+     * {@link java.util.zip.Deflater} takes -1 as its default level.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeLevel() {
+        new Png(-1);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.image;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TileDelta}.
+ * @since 0.47
+ */
+public final class TileDeltaTest {
+    /**
+     * {@link TileDelta#accept(BufferedImage)} must give a key delta with
+     * every tile for the first frame.
+     */
+    @Test
+    public void startsWithKeyDelta() {
+        final List<Delta> deltas = new ArrayList<>(1);
+        final var size = 10;
+        final var width = 25;
+        final var height = 15;
+        final var tiles = 6;
+        new TileDelta(size, size, deltas::add).accept(
+            new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB)
+        );
+        MatcherAssert.assertThat(deltas.get(0).key(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            deltas.get(0).tiles(), Matchers.equalTo(tiles)
+        );
+    }
+
+    /**
+     * {@link TileDelta#accept(BufferedImage)} must give nothing for an
+     * unchanged frame and only the changed tile for a changed frame.
+     */
+    @Test
+    public void givesOnlyChangedTiles() {
+        final List<Delta> deltas = new ArrayList<>(2);
+        final var size = 10;
+        final var delta = new TileDelta(size, size, deltas::add);
+        final var length = 30;
+        final var frame = new BufferedImage(
+            length, length, BufferedImage.TYPE_INT_ARGB
+        );
+        delta.accept(frame);
+        delta.accept(frame);
+        MatcherAssert.assertThat(deltas, Matchers.hasSize(1));
+        // @checkstyle LocalFinalVariableName (2 lines)
+        final var x = 11;
+        final var y = 21;
+        final var green = 0xFF00FF00;
+        frame.setRGB(x, y, green);
+        delta.accept(frame);
+        MatcherAssert.assertThat(deltas, Matchers.hasSize(2));
+        MatcherAssert.assertThat(deltas.get(1).key(), Matchers.is(false));
+        MatcherAssert.assertThat(deltas.get(1).tiles(), Matchers.equalTo(1));
+    }
+
+    /**
+     * {@link TileDelta#accept(BufferedImage)} must give a key delta after
+     * the interval even if nothing changed.
+     */
+    @Test
+    public void repeatsKeyDeltas() {
+        final List<Delta> deltas = new ArrayList<>(2);
+        final var size = 10;
+        final var interval = 3;
+        final var delta = new TileDelta(size, interval, deltas::add);
+        final var frame = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        for (int index = 0; index <= interval; ++index) {
+            delta.accept(frame);
+        }
+        MatcherAssert.assertThat(deltas, Matchers.hasSize(2));
+        MatcherAssert.assertThat(deltas.get(1).key(), Matchers.is(true));
+    }
+
+    /**
+     * Painting every delta onto a frame must reproduce the last frame.
+     */
+    @Test
+    public void reproducesFrames() {
+        final var width = 50;
+        final var height = 30;
+        final var copy = new BufferedImage(
+            width, height, BufferedImage.TYPE_INT_ARGB
+        );
+        final var size = 16;
+        final var delta = new TileDelta(
+            size, Integer.MAX_VALUE, tiles -> tiles.paint(copy)
+        );
+        final var frame = new BufferedImage(
+            width, height, BufferedImage.TYPE_INT_ARGB
+        );
+        delta.accept(frame);
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        frame.setRGB(0, 0, red);
+        frame.setRGB(width - 1, height - 1, blue);
+        delta.accept(frame);
+        MatcherAssert.assertThat(
+            new Comparison().differences(frame, copy),
+            Matchers.equalTo(0L)
+        );
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.remote;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import joop.event.mouse.Press;
+import joop.shape.DualShape;
+import joop.shape.Rect;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.Black;
+import unit.color.RGBA;
+
+/**
+ * Tests for {@link FrameServer} and {@link FrameClient}.
+ * @since 0.47
+ */
+public final class FrameServerTest {
+    /**
+     * {@link FrameServer} must stream the rendered shape to a client and
+     * relay the mouse input of the client to the events of the shape.
+     * @throws Exception If the connection fails.
+     */
+    @Test
+    public void streamsAndRelaysInput() throws Exception {
+        // @checkstyle LocalFinalVariableName (2 lines)
+        final var x = 10;
+        final var y = 20;
+        final var size = 30;
+        final var length = 100;
+        final var rate = 50;
+        final var red = 255;
+        final var loopback = InetAddress.getLoopbackAddress();
+        try (var server = new FrameServer(
+            new DualShape(
+                toggle -> new Rect(
+                    new AreaOf(x, y, size, size),
+                    new Black(),
+                    new Press(toggle::toggle)
+                ),
+                toggle -> new Rect(
+                    new AreaOf(x, y, size, size),
+                    new RGBA(red, 0, 0)
+                )
+            ),
+            length,
+            length,
+            new InetSocketAddress(loopback, 0),
+            rate
+        )) {
+            server.start();
+            try (var client = new FrameClient(
+                new InetSocketAddress(loopback, server.port())
+            )) {
+                MatcherAssert.assertThat(
+                    client.frame().getRGB(x + 1, y + 1),
+                    Matchers.equalTo(java.awt.Color.BLACK.getRGB())
+                );
+                client.press(x + 1, y + 1);
+                MatcherAssert.assertThat(
+                    client.frame().getRGB(x + 1, y + 1),
+                    Matchers.equalTo(java.awt.Color.RED.getRGB())
+                );
+            }
+        }
+    }
+
+    /**
+     * {@link FrameServer} must reject a rate that isn't positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeRate() {
+        final var size = 10;
+        new FrameServer(
+            new Rect(0, 0, size, size), size, size,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), -1
+        );
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import joop.animation.Moved;
+import joop.image.Comparison;
+import joop.shape.Line;
+import joop.shape.Oval;
+import joop.shape.Points;
+import joop.shape.Polyline;
+import joop.shape.Rect;
+import joop.shape.Shape;
+import joop.shape.Text;
+import joop.shape.layout.Column;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.RGBA;
+import unit.pos.PosOf;
+
+/**
+ * Tests for {@link RasterSurface}.
+ * @since 0.47
+ */
+public final class RasterSurfaceTest {
+    /**
+     * {@link RasterSurface} must fill rects exactly like Java2D.
+     */
+    @Test
+    public void fillsRectsLikeJava2d() {
+        final var length = 50;
+        final var red = 255;
+        final var half = 128;
+        final Shape shape = new Column(
+            new Rect(new AreaOf(length, length / 2), new RGBA(red, 0, 0)),
+            new Rect(
+                new AreaOf(length / 2, length / 2), new RGBA(0, 0, red, half)
+            )
+        );
+        final var tolerance = 2;
+        MatcherAssert.assertThat(
+            new Comparison(tolerance, 0L).differences(
+                new Offscreen(shape, length, length).image(),
+                new Offscreen(
+                    shape, length, length, RasterSurface::new
+                ).image()
+            ),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * {@link RasterSurface} must draw lines and ovals like Java2D apart from
+     * a few edge pixels.
+     */
+    @Test
+    public void drawsLinesAndOvalsLikeJava2d() {
+        final var length = 100;
+        final var size = 60;
+        final var offset = 20;
+        final Shape shape = new Column(
+            new Line(0, 0, length - 1, size),
+            new Oval(new AreaOf(offset, offset, size, size / 2))
+        );
+        final var allowed = 4L;
+        MatcherAssert.assertThat(
+            new Comparison(0, allowed).similar(
+                new Offscreen(shape, length, length).image(),
+                new Offscreen(
+                    shape, length, length, RasterSurface::new
+                ).image()
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * {@link SurfaceGraphics} must keep the translation and the text of the
+     * shapes when they draw on a {@link RasterSurface}.
+     */
+    @Test
+    public void mapsTranslatedShapesAndText() {
+        final var length = 60;
+        final var offset = 15;
+        final var size = 20;
+        final Shape shape = new Column(
+            new Moved(new Rect(0, 0, size, size), () -> offset, () -> offset),
+            new Text("joop", new PosOf(0, size))
+        );
+        MatcherAssert.assertThat(
+            new Comparison().similar(
+                new Offscreen(shape, length, length).image(),
+                new Offscreen(
+                    shape, length, length, RasterSurface::new
+                ).image()
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * {@link RasterSurface#polyline(int[], int[], int, boolean)} must blend
+     * the shared points of the lines only once.
+     */
+    @Test
+    public void blendsSharedPointsOnce() {
+        final var length = 20;
+        final var middle = 10;
+        final var half = 128;
+        final var points = new Points(1);
+        points.append(0, middle);
+        points.append(middle, middle);
+        points.append(middle, length - 1);
+        final var image = new Offscreen(
+            new Polyline(points, new RGBA(0, 0, 0, half)),
+            length, length, RasterSurface::new
+        ).image();
+        MatcherAssert.assertThat(
+            image.getRGB(middle, middle),
+            Matchers.equalTo(image.getRGB(middle / 2, middle))
+        );
+    }
+
+    /**
+     * {@link RasterSurface#graphics()} must reject the XOR mode, which needs
+     * the pixels of the surface.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsXorMode() {
+        final var length = 10;
+        ((Graphics2D) new RasterSurface(
+            new BufferedImage(length, length, BufferedImage.TYPE_INT_ARGB)
+        ).graphics()).setXORMode(Color.WHITE);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import joop.image.Comparison;
+import joop.image.Raster;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Rasterizer}.
+ * @since 0.47
+ */
+public final class RasterizerTest {
+    /**
+     * {@link Rasterizer} must fill rects like Java2D, also with translucent
+     * colors and a clip.
+     */
+    @Test
+    public void fillsRectsLikeJava2d() {
+        final var length = 50;
+        final var half = length / 2;
+        final var full = 255;
+        final var red = Color.RED;
+        final var blue = new Color(0, 0, full, full / 2);
+        final var expected = RasterizerTest.image(length);
+        final var graphics = expected.createGraphics();
+        graphics.setColor(red);
+        graphics.fillRect(0, 0, length, half);
+        graphics.setClip(0, 0, length, length - 2);
+        graphics.setColor(blue);
+        graphics.fillRect(half / 2, half / 2, half, length);
+        graphics.dispose();
+        final var actual = RasterizerTest.image(length);
+        final var rasterizer = new Rasterizer(
+            new Raster(actual).pixels(), length, length
+        );
+        rasterizer.fill(0, 0, length, half, red.getRGB());
+        rasterizer.clip(0, 0, length, length - 2);
+        rasterizer.fill(half / 2, half / 2, half, length, blue.getRGB());
+        final var tolerance = 2;
+        MatcherAssert.assertThat(
+            new Comparison(tolerance, 0L).differences(expected, actual),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * {@link Rasterizer} must draw lines and ovals like Java2D apart from a
+     * few edge pixels.
+     */
+    @Test
+    public void drawsLinesAndOvalsLikeJava2d() {
+        final var length = 100;
+        final var size = 60;
+        final var offset = 20;
+        final var expected = RasterizerTest.image(length);
+        final var graphics = expected.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.drawLine(0, 0, length - 1, size);
+        graphics.fillOval(offset, offset, size, size / 2);
+        graphics.dispose();
+        final var actual = RasterizerTest.image(length);
+        final var rasterizer = new Rasterizer(
+            new Raster(actual).pixels(), length, length
+        );
+        final int black = Color.BLACK.getRGB();
+        rasterizer.line(0, 0, length - 1, size, black);
+        rasterizer.oval(offset, offset, size, size / 2, black);
+        final var allowed = 4L;
+        MatcherAssert.assertThat(
+            new Comparison(0, allowed).similar(expected, actual),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * {@link Rasterizer#line(int, int, int, int, int)} must draw the same
+     * pixels inside of the clip as without the clip, also for lines that
+     * reach far beyond the pixels.
+     */
+    @Test
+    public void clipsLines() {
+        final var length = 40;
+        final var quarter = length / 4;
+        final int black = Color.BLACK.getRGB();
+        final var expected = RasterizerTest.image(length);
+        final var full = new Rasterizer(
+            new Raster(expected).pixels(), length, length
+        );
+        full.line(-length, -quarter, length * 2, length + quarter, black);
+        final var clipped = RasterizerTest.image(length);
+        final var actual = RasterizerTest.image(length);
+        final var rasterizer = new Rasterizer(
+            new Raster(actual).pixels(), length, length
+        );
+        rasterizer.clip(quarter, quarter, length / 2, length / 2);
+        rasterizer.line(-length, -quarter, length * 2, length + quarter, black);
+        final var graphics = clipped.createGraphics();
+        graphics.setClip(quarter, quarter, length / 2, length / 2);
+        graphics.drawImage(expected, 0, 0, null);
+        graphics.dispose();
+        MatcherAssert.assertThat(
+            new Comparison(0, 0L).differences(clipped, actual),
+            Matchers.equalTo(0L)
+        );
+        rasterizer.clip(0, 0, length, length);
+        rasterizer.line(
+            Integer.MIN_VALUE, quarter, Integer.MAX_VALUE, quarter, black
+        );
+        for (int column = 0; column < length; ++column) {
+            MatcherAssert.assertThat(
+                actual.getRGB(column, quarter), Matchers.equalTo(black)
+            );
+        }
+    }
+
+    /**
+     * Creates a white image.
+     * @param length The width and height of the image.
+     * @return The image.
+     */
+    private static BufferedImage image(final int length) {
+        final var result = new BufferedImage(
+            length, length, BufferedImage.TYPE_INT_ARGB
+        );
+        final var graphics = result.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, length, length);
+        graphics.dispose();
+        return result;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.imageio.ImageIO;
+import joop.image.Comparison;
+import joop.shape.Oval;
+import joop.shape.Rect;
+import joop.shape.Shape;
+import joop.shape.layout.Column;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.RGBA;
+
+/**
+ * Tests for {@link RenderPool}.
+ * @since 0.47
+ */
+public final class RenderPoolTest {
+    /**
+     * {@link RenderPool} must render shapes of different sizes like
+     * {@link Offscreen}, even if more are submitted than can wait.
+     * @throws Exception If a rendering fails.
+     */
+    @Test
+    public void rendersLikeOffscreen() throws Exception {
+        final var count = 40;
+        final var threads = 3;
+        final var red = 255;
+        final List<Shape> shapes = new ArrayList<>(count);
+        final List<CompletableFuture<BufferedImage>> images =
+            new ArrayList<>(count);
+        try (var pool = new RenderPool(threads, 2)) {
+            for (int index = 0; index < count; ++index) {
+                final Shape shape = new Column(
+                    new Rect(new AreaOf(index, index), new RGBA(red, 0, 0)),
+                    new Oval(new AreaOf(count - index, index))
+                );
+                shapes.add(shape);
+                images.add(pool.image(shape, count + index, count * 2));
+            }
+            for (int index = 0; index < count; ++index) {
+                MatcherAssert.assertThat(
+                    new Comparison(0, 0L).similar(
+                        new Offscreen(
+                            shapes.get(index), count + index, count * 2
+                        ).image(),
+                        images.get(index).get()
+                    ),
+                    Matchers.is(true)
+                );
+            }
+            MatcherAssert.assertThat(
+                pool.rendered(), Matchers.equalTo((long) count)
+            );
+            MatcherAssert.assertThat(pool.pending(), Matchers.equalTo(0));
+        }
+    }
+
+    /**
+     * {@link RenderPool} must encode the rendered shapes as png.
+     * @throws Exception If the rendering or the decoding fails.
+     */
+    @Test
+    public void encodesPng() throws Exception {
+        final var size = 30;
+        final Shape shape = new Oval(new AreaOf(size, size / 2));
+        try (var pool = new RenderPool()) {
+            MatcherAssert.assertThat(
+                new Comparison(0, 0L).similar(
+                    new Offscreen(shape, size, size).image(),
+                    ImageIO.read(
+                        new ByteArrayInputStream(
+                            pool.png(shape, size, size).get()
+                        )
+                    )
+                ),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    /**
+     * {@link RenderPool} must render only the requested area of a reused
+     * image that grew bigger for an earlier rendering.
+     * @throws Exception If the rendering or the decoding fails.
+     */
+    @Test
+    public void rendersPartOfLargerSlot() throws Exception {
+        final var large = 80;
+        final var width = 30;
+        final var height = 20;
+        final var red = 255;
+        final Shape shape = new Column(
+            new Rect(new AreaOf(width / 2, height / 2), new RGBA(red, 0, 0)),
+            new Oval(new AreaOf(width, height / 2))
+        );
+        try (var pool = new RenderPool(1, 1)) {
+            pool.image(new Oval(new AreaOf(large, large)), large, large).get();
+            final var expected = new Offscreen(shape, width, height).image();
+            final var image = pool.image(shape, width, height).get();
+            MatcherAssert.assertThat(image.getWidth(), Matchers.equalTo(width));
+            MatcherAssert.assertThat(
+                new Comparison(0, 0L).similar(expected, image),
+                Matchers.is(true)
+            );
+            MatcherAssert.assertThat(
+                new Comparison(0, 0L).similar(
+                    expected,
+                    ImageIO.read(
+                        new ByteArrayInputStream(
+                            pool.png(shape, width, height).get()
+                        )
+                    )
+                ),
+                Matchers.is(true)
+            );
+        }
+    }
+
+    /**
+     * {@link RenderPool} must count failed renderings apart from the
+     * finished ones.
+     * @throws Exception If the successful rendering fails.
+     */
+    @Test
+    public void countsFailuresApart() throws Exception {
+        final var size = 10;
+        final Shape shape = new Oval(new AreaOf(size, size));
+        try (var pool = new RenderPool(1, 1)) {
+            pool.image(shape, size, size).get();
+            try {
+                pool.image(shape, 0, 0).get();
+            } catch (final ExecutionException exception) {
+                MatcherAssert.assertThat(
+                    exception.getCause(),
+                    Matchers.instanceOf(IllegalArgumentException.class)
+                );
+            }
+            MatcherAssert.assertThat(pool.rendered(), Matchers.equalTo(1L));
+            MatcherAssert.assertThat(pool.failed(), Matchers.equalTo(1L));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.xml.parsers.DocumentBuilderFactory;
+import joop.shape.Image;
+import joop.shape.Rect;
+import joop.shape.Shape;
+import joop.shape.Text;
+import joop.shape.layout.Column;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.RGBA;
+import unit.functional.Cached;
+import unit.pos.PosOf;
+
+/**
+ * Tests for {@link Svg}.
+ * @since 0.47
+ */
+public final class SvgTest {
+    /**
+     * {@link Svg} must write a well-formed document with an element for each
+     * drawing.
+     * @throws Exception If the document can't be parsed.
+     */
+    @Test
+    public void writesWellFormedDocument() throws Exception {
+        final var size = 20;
+        final var out = new StringWriter();
+        new Svg(
+            new Column(
+                new Rect(new AreaOf(size, size)),
+                new Text("a < b & c", new PosOf(0, size))
+            ),
+            size * 2, size * 2
+        ).write(out);
+        final var document = DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(
+                new ByteArrayInputStream(
+                    out.toString().getBytes(StandardCharsets.UTF_8)
+                )
+            );
+        MatcherAssert.assertThat(
+            document.getElementsByTagName("text").item(0).getTextContent(),
+            Matchers.equalTo("a < b & c")
+        );
+        final var rects = 2;
+        MatcherAssert.assertThat(
+            document.getElementsByTagName("rect").getLength(),
+            Matchers.equalTo(rects)
+        );
+    }
+
+    /**
+     * {@link Svg} must write repeated styles and images only once.
+     */
+    @Test
+    public void writesRepeatedStylesAndImagesOnce() {
+        final var size = 10;
+        final var count = 100;
+        final var red = 255;
+        final var image = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        final var loading = new Cached<>(() -> image);
+        final Shape shape = new Column(
+            new Column(
+                Collections.nCopies(
+                    count,
+                    new Rect(new AreaOf(size, size), new RGBA(red, 0, 0))
+                )
+            ),
+            new Image(loading, new AreaOf(size, size)),
+            new Image(loading, new AreaOf(size, size))
+        );
+        final var out = new StringWriter();
+        new Svg(shape, size, size * count).write(out);
+        final var document = out.toString();
+        MatcherAssert.assertThat(
+            document.split("fill:#ff0000", -1).length - 1,
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            document.split("<image ", -1).length - 1,
+            Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            document.split("<use ", -1).length - 1,
+            Matchers.equalTo(2)
+        );
+    }
+}
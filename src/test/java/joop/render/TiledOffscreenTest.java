@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.render;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Optional;
+import joop.event.mouse.Mouse;
+import joop.image.Comparison;
+import joop.shape.Line;
+import joop.shape.Oval;
+import joop.shape.Rect;
+import joop.shape.Shape;
+import joop.shape.Text;
+import joop.shape.layout.Adjustment;
+import joop.shape.layout.Column;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.RGBA;
+import unit.pos.PosOf;
+
+/**
+ * Tests for {@link TiledOffscreen}.
+ * @since 0.47
+ */
+public final class TiledOffscreenTest {
+    /**
+     * {@link TiledOffscreen} must render shapes across the borders of the
+     * tiles like {@link Offscreen}, also for the following frames.
+     */
+    @Test
+    public void rendersLikeOffscreen() {
+        final var width = 130;
+        final var height = 90;
+        final var size = 50;
+        final var tile = 16;
+        final var red = 255;
+        final Shape shape = new Column(
+            new Rect(new AreaOf(size, size / 2), new RGBA(red, 0, 0)),
+            new Oval(new AreaOf(size, size, size, size / 3)),
+            new Line(0, 0, width - 1, height - 1),
+            new Text("joop", new PosOf(size, size))
+        );
+        final var tiled = new TiledOffscreen(shape, width, height, tile);
+        tiled.image();
+        MatcherAssert.assertThat(
+            new Comparison(0, 0L).similar(
+                new Offscreen(shape, width, height).image(),
+                tiled.image()
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * {@link TiledOffscreen} must render rotated and scaled shapes, round
+     * rects, gradients, antialiasing and transformed images like
+     * {@link Offscreen} apart from small differences of the blending.
+     */
+    @Test
+    public void rendersTransformsLikeOffscreen() {
+        final var width = 120;
+        final var height = 100;
+        final var tile = 32;
+        final Shape shape = new Transformed();
+        final var tolerance = 8;
+        final var allowed = 20L;
+        MatcherAssert.assertThat(
+            new Comparison(tolerance, allowed).similar(
+                new Offscreen(shape, width, height).image(),
+                new TiledOffscreen(shape, width, height, tile).image()
+            ),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * A shape that uses the transforms, paints and hints of Java2D.
+     * @since 0.47
+     */
+    private static final class Transformed implements Shape {
+        @Override
+        public Optional<Shape> draw(
+            final Graphics graphics, final Adjustment adjustment
+        ) {
+            final var size = 40;
+            final var arc = 16;
+            final var angle = 0.3;
+            final var image = new BufferedImage(
+                2, 2, BufferedImage.TYPE_INT_ARGB
+            );
+            image.setRGB(0, 0, Color.RED.getRGB());
+            image.setRGB(1, 1, Color.BLUE.getRGB());
+            final var transformed = (Graphics2D) graphics.create();
+            transformed.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_ON
+            );
+            transformed.translate(size, size / 2);
+            transformed.rotate(angle);
+            transformed.setColor(Color.GREEN);
+            transformed.fillRoundRect(0, 0, size, size / 2, arc, arc);
+            transformed.setRenderingHint(
+                RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_OFF
+            );
+            transformed.scale(2.0, 2.0);
+            transformed.setPaint(
+                new GradientPaint(0, 0, Color.YELLOW, arc, 0, Color.MAGENTA)
+            );
+            transformed.fillRect(0, arc, arc, arc / 2);
+            transformed.dispose();
+            final var scaled = (Graphics2D) graphics.create();
+            scaled.drawImage(
+                image, AffineTransform.getScaleInstance(arc, arc), null
+            );
+            scaled.dispose();
+            return Optional.of(this);
+        }
+
+        @Override
+        public void registerFor(final Mouse mouse) {
+            // the shape doesn't react to the mouse
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import joop.matcher.AllocationBudget;
+import joop.shape.layout.Column;
+import org.hamcrest.MatcherAssert;
+import org.junit.Test;
+import unit.area.AreaOf;
+import unit.color.RGBA;
+import unit.pos.PosOf;
+
+/**
+ * Tests for the allocations of the shapes per frame. The budgets are upper
+ * bounds of the current implementations. Lower them when a shape gets
+ * cheaper, so that it can't silently regress.
+ * @since 0.47
+ */
+public final class AllocationTest {
+    /**
+     * {@link EmptyShape} must allocate at most its successor per frame.
+     */
+    @Test
+    public void emptyShape() {
+        final long budget = 16L;
+        MatcherAssert.assertThat(
+            new EmptyShape(),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Rect} must stay within its budget per frame.
+     */
+    @Test
+    public void rect() {
+        // @checkstyle LocalFinalVariableName (2 lines)
+        final var x = 10;
+        final var y = 20;
+        final var width = 100;
+        final var height = 50;
+        final var red = 255;
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new Rect(new AreaOf(x, y, width, height), new RGBA(red, 0, 0)),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Oval} must stay within its budget per frame.
+     */
+    @Test
+    public void oval() {
+        // @checkstyle LocalFinalVariableName (2 lines)
+        final var x = 10;
+        final var y = 20;
+        final var width = 100;
+        final var height = 50;
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new Oval(x, y, width, height),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Line} must stay within its budget per frame.
+     */
+    @Test
+    public void line() {
+        // @checkstyle LocalFinalVariableName (4 lines)
+        final var fx = 10;
+        final var fy = 20;
+        final var sx = 150;
+        final var sy = 170;
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new Line(fx, fy, sx, sy),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Text} must stay within its budget per frame. It's high, because
+     * the text currently creates its font and glyphs on each frame.
+     */
+    @Test
+    public void text() {
+        // @checkstyle LocalFinalVariableName (2 lines)
+        final var x = 10;
+        final var y = 20;
+        final long budget = 65_536L;
+        MatcherAssert.assertThat(
+            new Text("Some text", new PosOf(x, y)),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Column} must stay within its budget per frame.
+     */
+    @Test
+    public void column() {
+        final var size = 40;
+        final long budget = 4096L;
+        MatcherAssert.assertThat(
+            new Column(
+                new Rect(0, 0, size, size),
+                new Rect(0, 0, size, size),
+                new Rect(0, 0, size, size)
+            ),
+            new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Particles} must draw many particles within the budget of a
+     * single shape per frame.
+     */
+    @Test
+    public void particles() {
+        final var length = 200;
+        final var amount = 10_000;
+        final var particles = new Particles(new AreaOf(length, length), amount);
+        final var lifetime = 60.0f;
+        final var color = 0xFF0000FF;
+        for (int index = 0; index < amount; ++index) {
+            particles.spawn(
+                index % length, index / length, 1.0f, 1.0f, lifetime, color
+            );
+        }
+        final long budget = 1024L;
+        MatcherAssert.assertThat(particles, new AllocationBudget(budget));
+    }
+
+    /**
+     * {@link RectBatch} must draw many rects within the budget of a single
+     * shape per frame.
+     */
+    @Test
+    public void rectBatch() {
+        final var amount = 10_000;
+        final var fields = 5;
+        final int[] packed = new int[amount * fields];
+        final var colors = 4;
+        final var row = 100;
+        final var black = 0xFF000000;
+        for (int index = 0; index < amount; ++index) {
+            final int base = index * fields;
+            packed[base] = index % row;
+            packed[base + 1] = index / row;
+            packed[base + 2] = 2;
+            // @checkstyle MagicNumber (2 lines)
+            packed[base + 3] = 2;
+            packed[base + 4] = black | index % colors;
+        }
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new RectBatch(new Instances(packed)), new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link RectBatch} must not create the colors of its rects per frame,
+     * even if they are all distinct.
+     */
+    @Test
+    public void rectBatchColors() {
+        final var amount = 2_000;
+        final var fields = 5;
+        final int[] packed = new int[amount * fields];
+        final var row = 50;
+        final var black = 0xFF000000;
+        for (int index = 0; index < amount; ++index) {
+            final int base = index * fields;
+            packed[base] = index % row * 2;
+            packed[base + 1] = index / row * 2;
+            packed[base + 2] = 2;
+            // @checkstyle MagicNumber (2 lines)
+            packed[base + 3] = 2;
+            packed[base + 4] = black | index;
+        }
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new RectBatch(new Instances(packed)), new AllocationBudget(budget)
+        );
+    }
+
+    /**
+     * {@link Polyline} must draw many points within the budget of a single
+     * shape per frame.
+     */
+    @Test
+    public void polyline() {
+        final var amount = 10_000;
+        final var points = new Points(amount, true);
+        final var length = 200;
+        for (int index = 0; index < amount * 2; ++index) {
+            points.append(index % length, index * index % length);
+        }
+        final long budget = 1024L;
+        MatcherAssert.assertThat(
+            new Polyline(points), new AllocationBudget(budget)
+        );
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link Canvas}.
+ * @since 0.47
+ */
+public final class CanvasTest {
+    /**
+     * {@link Canvas} must show written pixels only after they were marked as
+     * changed.
+     */
+    @Test
+    public void showsChangedPixels() {
+        final var length = 10;
+        final var canvas = new Canvas(new AreaOf(length, length));
+        final var offscreen = new Offscreen(canvas, length, length);
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        canvas.fill(red);
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(length - 1, length - 1),
+            Matchers.equalTo(red)
+        );
+        final var middle = 5;
+        canvas.pixels()[middle * length + middle] = blue;
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(middle, middle), Matchers.equalTo(red)
+        );
+        canvas.changed(middle, middle, 1, 1);
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(middle, middle), Matchers.equalTo(blue)
+        );
+        canvas.set(0, 0, blue);
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(0, 0), Matchers.equalTo(blue)
+        );
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.JPanel;
+import joop.event.mouse.RelayMouse;
+import joop.render.Offscreen;
+import joop.shape.layout.NoAdjustment;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Instances} with {@link RectBatch} and {@link OvalBatch}.
+ * @since 0.47
+ */
+public final class InstancesTest {
+    /**
+     * {@link Instances#hit(int, int)} must find the instance drawn last at a
+     * point and nothing outside of the instances.
+     */
+    @Test
+    public void hitsTopmostInstance() {
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        final var length = 100;
+        final var small = 10;
+        final var instances = new Instances(
+            new int[] {
+                0, 0, length, length, blue,
+                small, small, small, small, red,
+            }
+        );
+        final var inside = 15;
+        final var outside = 50;
+        MatcherAssert.assertThat(
+            instances.hit(inside, inside), Matchers.equalTo(1)
+        );
+        MatcherAssert.assertThat(
+            instances.hit(outside, outside), Matchers.equalTo(0)
+        );
+        MatcherAssert.assertThat(
+            instances.hit(length, length), Matchers.equalTo(-1)
+        );
+    }
+
+    /**
+     * {@link RectBatch} must draw the instances after a bulk update.
+     */
+    @Test
+    public void drawsUpdatedInstances() {
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        final var size = 5;
+        final var instances = new Instances(
+            new int[] {
+                0, 0, size, size, red,
+                size, 0, size, size, red,
+            }
+        );
+        final var offscreen = new Offscreen(
+            new RectBatch(instances), size * 2, size
+        );
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(size, 0), Matchers.equalTo(red)
+        );
+        instances.update(1, new int[] {size, 0, size, size, blue});
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(size, 0), Matchers.equalTo(blue)
+        );
+        MatcherAssert.assertThat(
+            instances.hit(size, 0), Matchers.equalTo(1)
+        );
+    }
+
+    /**
+     * {@link Instances#update(int, int[])} must reject values that aren't
+     * whole instances.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsPartialUpdate() {
+        final var size = 5;
+        new Instances(new int[] {0, 0, size, size, 0})
+            .update(0, new int[] {0, 0, size, size});
+    }
+
+    /**
+     * {@link Instances#hit(int, int)} must find the instances in the drawn
+     * bounds, even if others reach far beyond them.
+     */
+    @Test
+    public void hitsInsideDrawnBounds() {
+        final var red = 0xFFFF0000;
+        final var size = 10;
+        final var far = 2_000_000_000;
+        final var instances = new Instances(
+            new int[] {
+                0, 0, Integer.MAX_VALUE, size, red,
+                far, far, far, far, red,
+                size, size, size, size, red,
+            }
+        );
+        final var image = new BufferedImage(
+            size * 2, size * 2, BufferedImage.TYPE_INT_ARGB
+        );
+        final var graphics = image.createGraphics();
+        graphics.setClip(0, 0, size * 2, size * 2);
+        new RectBatch(instances).draw(graphics, new NoAdjustment());
+        graphics.dispose();
+        MatcherAssert.assertThat(
+            instances.hit(size + 1, size + 1), Matchers.equalTo(2)
+        );
+        MatcherAssert.assertThat(
+            instances.hit(1, 1), Matchers.equalTo(0)
+        );
+        MatcherAssert.assertThat(
+            instances.hit(far + 1, far + 1), Matchers.equalTo(-1)
+        );
+    }
+
+    /**
+     * {@link OvalBatch} must only be pressed inside of its ovals, not in the
+     * corners of their boxes.
+     */
+    @Test
+    public void pressesInsideOvals() {
+        final var red = 0xFFFF0000;
+        final var size = 100;
+        final var pressed = new AtomicInteger(-1);
+        final var mouse = new RelayMouse();
+        new OvalBatch(
+            new Instances(new int[] {0, 0, size, size, red}), pressed::set
+        ).registerFor(mouse);
+        final var corner = 5;
+        InstancesTest.press(mouse, corner, corner);
+        MatcherAssert.assertThat(pressed.get(), Matchers.equalTo(-1));
+        InstancesTest.press(mouse, size / 2, corner);
+        MatcherAssert.assertThat(pressed.get(), Matchers.equalTo(0));
+    }
+
+    /**
+     * Presses the mouse at a point.
+     * @param mouse The mouse to relay the press to.
+     * @param left The x coordinate of the point.
+     * @param top The y coordinate of the point.
+     */
+    private static void press(
+        final RelayMouse mouse, final int left, final int top
+    ) {
+        mouse.relay(
+            new MouseEvent(
+                new JPanel(), MouseEvent.MOUSE_PRESSED, 0L, 0, left, top, 1,
+                false, MouseEvent.BUTTON1
+            )
+        );
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link Particles}.
+ * @since 0.47
+ */
+public final class ParticlesTest {
+    /**
+     * {@link Particles#update(float)} must move the particles and remove the
+     * ones whose lifetime ended.
+     */
+    @Test
+    public void movesAndRemovesParticles() {
+        final var length = 10;
+        final var particles = new Particles(new AreaOf(length, length), 2);
+        final var speed = 4.0f;
+        final var red = 0xFFFF0000;
+        final var blue = 0xFF0000FF;
+        particles.spawn(0.0f, 0.0f, speed, 0.0f, 1.0f, red);
+        particles.spawn(0.0f, 0.0f, 0.0f, speed, 2.0f, blue);
+        MatcherAssert.assertThat(
+            particles.spawn(0.0f, 0.0f, 0.0f, 0.0f, 1.0f, red),
+            Matchers.is(false)
+        );
+        final var half = 0.5f;
+        particles.update(half);
+        final var image = new Offscreen(particles, length, length).image();
+        MatcherAssert.assertThat(image.getRGB(2, 0), Matchers.equalTo(red));
+        MatcherAssert.assertThat(image.getRGB(0, 2), Matchers.equalTo(blue));
+        particles.update(half);
+        MatcherAssert.assertThat(particles.count(), Matchers.equalTo(1));
+    }
+
+    /**
+     * {@link Particles#update(float)} must update large amounts of particles
+     * in parallel like it updates few.
+     */
+    @Test
+    public void updatesManyParticles() {
+        final var amount = 100_000;
+        final var length = 100;
+        final var particles = new Particles(new AreaOf(length, length), amount);
+        final var color = 0xFF000000;
+        for (int index = 0; index < amount; ++index) {
+            particles.spawn(0.0f, 0.0f, 1.0f, 0.0f, index % 2 * 2, color);
+        }
+        particles.update(1.0f);
+        MatcherAssert.assertThat(
+            particles.count(), Matchers.equalTo(amount / 2)
+        );
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+import unit.color.Black;
+
+/**
+ * Tests for {@link Polyline} and {@link Path}.
+ * @since 0.47
+ */
+public final class PolylineTest {
+    /**
+     * {@link Polyline} must connect only the newest points of a ring.
+     */
+    @Test
+    public void drawsNewestPointsOfRing() {
+        final var length = 20;
+        final var points = new Points(2, true);
+        final var middle = 10;
+        points.append(0, 0);
+        points.append(0, middle);
+        points.append(length - 1, middle);
+        final var image = new Offscreen(
+            new Polyline(points), length, length
+        ).image();
+        final var black = java.awt.Color.BLACK.getRGB();
+        MatcherAssert.assertThat(
+            image.getRGB(middle, middle), Matchers.equalTo(black)
+        );
+        MatcherAssert.assertThat(
+            image.getRGB(0, middle / 2), Matchers.not(black)
+        );
+    }
+
+    /**
+     * {@link Path} must fill the area inside of its points.
+     */
+    @Test
+    public void fillsPath() {
+        final var length = 20;
+        final var points = new Points(1);
+        points.append(0, 0);
+        points.append(length, 0);
+        points.append(length, length);
+        points.append(0, length);
+        final var inside = 10;
+        MatcherAssert.assertThat(
+            new Offscreen(new Path(points), length, length).image()
+                .getRGB(inside, inside),
+            Matchers.equalTo(java.awt.Color.BLACK.getRGB())
+        );
+    }
+
+    /**
+     * {@link Path} must leave its outline open, so that the last point isn't
+     * connected to the first one.
+     */
+    @Test
+    public void leavesOutlineOpen() {
+        final var length = 20;
+        final var middle = 10;
+        final var points = new Points(1);
+        points.append(middle, 0);
+        points.append(middle, length - 1);
+        points.append(length - 1, length - 1);
+        final var image = new Offscreen(
+            new Path(points, new Black(), false), length, length
+        ).image();
+        final var black = java.awt.Color.BLACK.getRGB();
+        MatcherAssert.assertThat(
+            image.getRGB(middle, middle / 2), Matchers.equalTo(black)
+        );
+        MatcherAssert.assertThat(
+            image.getRGB(middle + middle / 2, middle), Matchers.not(black)
+        );
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.shape;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import joop.image.Comparison;
+import joop.image.Png;
+import joop.shape.layout.NoAdjustment;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import unit.area.AreaOf;
+
+/**
+ * Tests for {@link TiledImage}.
+ * @since 0.47
+ */
+public final class TiledImageTest {
+    /**
+     * A folder for the image files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * {@link TiledImage} must decode the tiles in the background with the
+     * subsampling of the drawn size.
+     * @throws Exception If the file can't be written or the decoding takes
+     *  too long.
+     */
+    @Test
+    public void decodesSubsampledTiles() throws Exception {
+        final var width = 600;
+        final var height = 400;
+        final var source = new BufferedImage(
+            width, height, BufferedImage.TYPE_INT_ARGB
+        );
+        final var shift = 8;
+        for (int row = 0; row < height; ++row) {
+            for (int column = 0; column < width; ++column) {
+                // @checkstyle MagicNumber (1 line)
+                source.setRGB(column, row, 0xFF000000 | column << shift ^ row);
+            }
+        }
+        final var file = this.folder.newFile("large.png");
+        new Png().write(source, file);
+        final var expected = new BufferedImage(
+            width / 2, height / 2, BufferedImage.TYPE_INT_ARGB
+        );
+        for (int row = 0; row < height / 2; ++row) {
+            for (int column = 0; column < width / 2; ++column) {
+                expected.setRGB(
+                    column, row, source.getRGB(column * 2, row * 2)
+                );
+            }
+        }
+        final var tile = 64;
+        final var capacity = 100;
+        final var actual = new BufferedImage(
+            width / 2, height / 2, BufferedImage.TYPE_INT_ARGB
+        );
+        final var attempts = 500;
+        try (var image = new TiledImage(
+            file, new AreaOf(0, 0, width / 2, height / 2), tile, capacity
+        )) {
+            for (int attempt = 0; attempt < attempts
+                && !new Comparison().similar(expected, actual); ++attempt) {
+                image.draw(actual.createGraphics(), new NoAdjustment());
+                Thread.sleep(10L);
+            }
+        }
+        MatcherAssert.assertThat(
+            new Comparison().differences(expected, actual),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * {@link TiledImage} must throw the failure of a tile that can't be
+     * decoded with the next drawing and request the tile again afterwards.
+     * @throws Exception If the file can't be written or the decoding takes
+     *  too long.
+     */
+    @Test
+    public void throwsUndecodableTile() throws Exception {
+        final var width = 600;
+        final var height = 400;
+        final var file = this.folder.newFile("broken.png");
+        new Png().write(
+            new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), file
+        );
+        try (var truncated = new RandomAccessFile(file, "rw")) {
+            // @checkstyle MagicNumber (1 line)
+            truncated.setLength(60L);
+        }
+        final var tile = 64;
+        final var capacity = 100;
+        final var attempts = 500;
+        var failures = 0;
+        try (var image = new TiledImage(
+            file, new AreaOf(0, 0, width, height), tile, capacity
+        )) {
+            final var canvas = new BufferedImage(
+                width, height, BufferedImage.TYPE_INT_ARGB
+            );
+            for (int attempt = 0; attempt < attempts && failures < 2;
+                ++attempt) {
+                try {
+                    image.draw(canvas.createGraphics(), new NoAdjustment());
+                } catch (final UncheckedIOException exception) {
+                    ++failures;
+                }
+                Thread.sleep(10L);
+            }
+        }
+        MatcherAssert.assertThat(failures, Matchers.equalTo(2));
+    }
+
+    /**
+     * {@link TiledImage} must close its file, when it's closed. The open
+     * files are counted through the file descriptors of the process, so the
+     * test only runs where they can be listed.
+     * @throws Exception If the file can't be written or the decoding takes
+     *  too long.
+     */
+    @Test
+    public void closesFile() throws Exception {
+        final var descriptors = Paths.get("/proc/self/fd");
+        Assume.assumeTrue(Files.isDirectory(descriptors));
+        final var size = 100;
+        final var file = this.folder.newFile("closed.png");
+        new Png().write(
+            new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB), file
+        );
+        final var tile = 64;
+        final var capacity = 10;
+        final var instances = 5;
+        final var canvas = new BufferedImage(
+            size, size, BufferedImage.TYPE_INT_ARGB
+        );
+        for (int instance = 0; instance < instances; ++instance) {
+            try (var image = new TiledImage(
+                file, new AreaOf(0, 0, size, size), tile, capacity
+            )) {
+                image.draw(canvas.createGraphics(), new NoAdjustment());
+                Thread.sleep(10L);
+                image.draw(canvas.createGraphics(), new NoAdjustment());
+            }
+        }
+        MatcherAssert.assertThat(
+            TiledImageTest.opened(descriptors, file.toPath()),
+            Matchers.equalTo(0L)
+        );
+    }
+
+    /**
+     * Counts the open descriptors of a file.
+     * @param descriptors The directory of the descriptors of the process.
+     * @param file The file.
+     * @return The amount of descriptors.
+     * @throws IOException If the descriptors can't be listed.
+     */
+    private static long opened(final Path descriptors, final Path file)
+        throws IOException {
+        final Path real = file.toRealPath();
+        try (var links = Files.list(descriptors)) {
+            return links.filter(
+                link -> {
+                    boolean result;
+                    try {
+                        result = Files.readSymbolicLink(link).equals(real);
+                    } catch (final IOException exception) {
+                        result = false;
+                    }
+                    return result;
+                }
+            ).count();
+        }
+    }
+}
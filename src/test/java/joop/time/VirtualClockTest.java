@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.time;
+
+import java.util.ArrayList;
+import java.util.List;
+import joop.animation.AnimatedRect;
+import joop.animation.Timeline;
+import joop.animation.Tween;
+import joop.render.Offscreen;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link VirtualClock}.
+ * @since 0.47
+ */
+public final class VirtualClockTest {
+    /**
+     * {@link VirtualClock#advance(long)} must run the due tasks at their due
+     * times and not after they were stopped.
+     */
+    @Test
+    public void runsDueTasks() {
+        final var clock = new VirtualClock();
+        final List<Long> times = new ArrayList<>(2);
+        final var delay = 10L;
+        final var stop = clock.every(delay, () -> times.add(clock.nanos()));
+        final var duration = 25L;
+        clock.advance(duration);
+        final var first = 10_000_000L;
+        final var second = 20_000_000L;
+        MatcherAssert.assertThat(times, Matchers.contains(first, second));
+        stop.run();
+        clock.advance(duration);
+        MatcherAssert.assertThat(times, Matchers.hasSize(2));
+    }
+
+    /**
+     * A minute long animation must be renderable frame by frame without
+     * waiting for the real time.
+     */
+    @Test
+    public void rendersLongAnimationInstantly() {
+        final var clock = new VirtualClock();
+        final var timeline = new Timeline(clock);
+        final var minute = 60_000L;
+        final var length = 100;
+        final var left = new Tween(timeline, 0.0, length - 1, minute);
+        final var size = 1;
+        final var offscreen = new Offscreen(
+            new AnimatedRect(
+                left, () -> 0, () -> size, () -> size,
+                () -> java.awt.Color.BLACK
+            ),
+            length, size
+        );
+        final int[] frames = {0};
+        final var frame = 25L;
+        clock.every(
+            frame,
+            () -> {
+                if (timeline.getAsBoolean()) {
+                    offscreen.image();
+                    ++frames[0];
+                }
+            }
+        );
+        left.start();
+        clock.advance(minute * 2);
+        MatcherAssert.assertThat(
+            frames[0], Matchers.equalTo((int) (minute / frame))
+        );
+        MatcherAssert.assertThat(
+            offscreen.image().getRGB(length - 1, 0),
+            Matchers.equalTo(java.awt.Color.BLACK.getRGB())
+        );
+    }
+}
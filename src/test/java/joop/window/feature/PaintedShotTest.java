@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link PaintedShot}.
+ * @since 0.47
+ */
+public final class PaintedShotTest {
+    /**
+     * {@link PaintedShot#accept(JFrame)} must reuse its image as long as the
+     * size of the content doesn't change.
+     * @throws Exception When the event dispatch thread is interrupted.
+     */
+    @Test
+    public void reusesImage() throws Exception {
+        final var frame = new JFrame();
+        final var size = 40;
+        frame.getContentPane().setSize(size, size);
+        final List<BufferedImage> images = new CopyOnWriteArrayList<>();
+        final var shot = new PaintedShot(images::add, 1);
+        final var shots = 3;
+        for (int index = 0; index < shots; ++index) {
+            PaintedShotTest.shoot(shot, frame);
+        }
+        shot.close();
+        frame.dispose();
+        MatcherAssert.assertThat(images, Matchers.hasSize(shots));
+        MatcherAssert.assertThat(
+            images,
+            Matchers.everyItem(Matchers.sameInstance(images.get(0)))
+        );
+    }
+
+    /**
+     * {@link PaintedShot#accept(JFrame)} must allocate a new image when the
+     * size of the content changed.
+     * @throws Exception When the event dispatch thread is interrupted.
+     */
+    @Test
+    public void reallocatesOnResize() throws Exception {
+        final var frame = new JFrame();
+        final var size = 40;
+        frame.getContentPane().setSize(size, size);
+        final List<BufferedImage> images = new CopyOnWriteArrayList<>();
+        final var shot = new PaintedShot(images::add, 1);
+        PaintedShotTest.shoot(shot, frame);
+        final var width = 60;
+        final var height = 30;
+        frame.getContentPane().setSize(width, height);
+        PaintedShotTest.shoot(shot, frame);
+        shot.close();
+        frame.dispose();
+        MatcherAssert.assertThat(images, Matchers.hasSize(2));
+        MatcherAssert.assertThat(
+            images.get(1),
+            Matchers.not(Matchers.sameInstance(images.get(0)))
+        );
+        MatcherAssert.assertThat(
+            images.get(1).getWidth(), Matchers.equalTo(width)
+        );
+        MatcherAssert.assertThat(
+            images.get(1).getHeight(), Matchers.equalTo(height)
+        );
+    }
+
+    /**
+     * Takes shots on the event dispatch thread until one of them isn't
+     * dropped, because the image is still in use by the target.
+     * @param shot The shot to take.
+     * @param frame The window to take the shot of.
+     * @throws Exception When the event dispatch thread is interrupted.
+     */
+    private static void shoot(final PaintedShot shot, final JFrame frame)
+        throws Exception {
+        long drops;
+        do {
+            drops = shot.dropped();
+            SwingUtilities.invokeAndWait(() -> shot.accept(frame));
+        } while (shot.dropped() != drops);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import joop.time.VirtualClock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests for {@link Periodic}.
+ * @since 0.47
+ */
+public final class PeriodicTest {
+    /**
+     * {@link Periodic#accept(JFrame)} must apply the feature once per delay
+     * of the clock.
+     */
+    @Test
+    public void appliesFeatureOncePerDelay() {
+        final var clock = new VirtualClock();
+        final var frame = new JFrame();
+        final List<JFrame> applied = new ArrayList<>(3);
+        final var delay = 25;
+        new Periodic(delay, applied::add, clock).accept(frame);
+        final var duration = 80L;
+        clock.advance(duration);
+        frame.dispose();
+        MatcherAssert.assertThat(
+            applied,
+            Matchers.contains(frame, frame, frame)
+        );
+    }
+
+    /**
+     * {@link Periodic#accept(JFrame)} must stop applying the feature when
+     * the window is closed.
+     * @throws Exception When the event dispatch thread is interrupted.
+     */
+    @Test
+    public void stopsWhenWindowIsClosed() throws Exception {
+        final var clock = new VirtualClock();
+        final var frame = new JFrame();
+        final List<JFrame> applied = new ArrayList<>(1);
+        final var delay = 10;
+        new Periodic(delay, applied::add, clock).accept(frame);
+        clock.advance(delay);
+        frame.pack();
+        frame.dispose();
+        SwingUtilities.invokeAndWait(() -> { });
+        final var duration = 100L;
+        clock.advance(duration);
+        MatcherAssert.assertThat(applied, Matchers.hasSize(1));
+    }
+
+    /**
+     * {@link Periodic#accept(JFrame)} must stop applying the feature when
+     * the window is closing, even if it's never closed afterwards.
+     * @throws Exception When the event dispatch thread is interrupted.
+     */
+    @Test
+    public void stopsWhenWindowIsClosing() throws Exception {
+        final var clock = new VirtualClock();
+        final var frame = new JFrame();
+        frame.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        final List<JFrame> applied = new ArrayList<>(1);
+        final var delay = 10;
+        new Periodic(delay, applied::add, clock).accept(frame);
+        clock.advance(delay);
+        SwingUtilities.invokeAndWait(
+            () -> frame.dispatchEvent(
+                new WindowEvent(frame, WindowEvent.WINDOW_CLOSING)
+            )
+        );
+        final var duration = 100L;
+        clock.advance(duration);
+        frame.dispose();
+        MatcherAssert.assertThat(applied, Matchers.hasSize(1));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 Upyter
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a
+ * copy of this software and associated documentation files (the "Software"),
+ * to deal in the Software without restriction, including without limitation
+ * the rights to use, copy, modify, merge, publish, distribute, sublicense,
+ * and/or sell copies of the Software, and to permit persons to whom the
+ * Software is furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included
+ * in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS
+ * OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL
+ * THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER
+ * DEALINGS IN THE SOFTWARE.
+ */
+
+package joop.window.feature;
+
+import java.awt.Color;
+import java.io.File;
+import javax.imageio.ImageIO;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import joop.image.PngSequence;
+import joop.time.VirtualClock;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link Recording}.
+ * @since 0.47
+ */
+public final class RecordingTest {
+    /**
+     * A folder for the recorded frames.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * {@link Recording} must encode a frame of the window content per tick
+     * of its clock.
+     * @throws Exception If the frames can't be read.
+     */
+    @Test
+    public void recordsFramesOfContent() throws Exception {
+        final var clock = new VirtualClock();
+        final var directory = new File(this.folder.getRoot(), "frames");
+        final var rate = 20;
+        final var buffers = 4;
+        final var recording = new Recording(
+            rate, buffers, new PngSequence(directory), clock
+        );
+        final var frame = new JFrame();
+        final var size = 30;
+        frame.getContentPane().setBackground(Color.RED);
+        frame.getContentPane().setSize(size, size);
+        recording.accept(frame);
+        final var duration = 150L;
+        clock.advance(duration);
+        SwingUtilities.invokeAndWait(() -> { });
+        recording.close();
+        frame.dispose();
+        final var frames = 3;
+        MatcherAssert.assertThat(
+            directory.list(), Matchers.arrayWithSize(frames)
+        );
+        final var image = ImageIO.read(new File(directory, "frame-000002.png"));
+        MatcherAssert.assertThat(image.getWidth(), Matchers.equalTo(size));
+        MatcherAssert.assertThat(
+            image.getRGB(size / 2, size / 2),
+            Matchers.equalTo(Color.RED.getRGB())
+        );
+        MatcherAssert.assertThat(recording.dropped(), Matchers.equalTo(0L));
+    }
+
+    /**
+     * {@link Recording} must reject a rate that isn't positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroRate() {
+        final var buffers = 4;
+        new Recording(
+            0, buffers, new PngSequence(this.folder.getRoot()),
+            new VirtualClock()
+        );
+    }
+}
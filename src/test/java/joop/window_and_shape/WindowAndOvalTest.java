@@ -40,10 +40,9 @@ public final class WindowAndOvalTest {
      * joop/src/main/java/resources/joop/window_and_shape/
      * blackOvalAndWhiteWindow.png is used as the expected image of the inner
      * area.
-     * @throws Exception Because of Thread.sleep and Robot.
      */
     @Test
-    public void black() throws Exception {
+    public void black() {
         // @checkstyle LocalFinalVariableName (4 lines)
         final var windowWidth = 300;
         final var windowHeight = 200;
@@ -67,10 +66,9 @@ public final class WindowAndOvalTest {
      * joop/src/main/java/resources/joop/window_and_shape/
      * coloredOvalAndWhiteWindow.png is used as the expected image of the inner
      * area.
-     * @throws Exception Because of Thread.sleep and Robot.
      */
     @Test
-    public void colored() throws Exception {
+    public void colored() {
         // @checkstyle LocalFinalVariableName (4 lines)
         final var windowWidth = 450;
         final var windowHeight = 300;